@@ -10,8 +10,7 @@ import org.openapitools.codegen.OpenAPINormalizer;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 
 /**
  * A custom normalizer that applies a series of modular transformations to an
@@ -23,12 +22,9 @@ import java.util.Map;
  */
 public class AdvancedOpenAPINormalizer extends OpenAPINormalizer {
 
-    private static final String RULE_STRIP_PARAMS = "STRIP_PARAMS";
-    private static final String RULE_CLEAN_EMPTY_REQUEST_BODIES = "CLEAN_EMPTY_REQUEST_BODIES";
-    private static final String RULE_ONLY_ALLOW_JSON = "ONLY_ALLOW_JSON";
-    private static final String RULE_FILTER_PATHS = "FILTER_PATHS";
-    private static final String RULE_GARBAGE_COLLECT = "GARBAGE_COLLECT_COMPONENTS";
-    private static final String RULE_SCRIPTABLE = "RUN_SCRIPT";
+    static final String RULE_SCRIPTABLE = "RUN_SCRIPT";
+    static final String RULE_PARALLELISM = "PARALLELISM";
+    static final String RULE_SUMMARY_LOGGING = "SUMMARY_LOGGING";
     @Nullable
     private final Logger customLogger;
     private final Map<String, String> customRules;
@@ -45,25 +41,37 @@ public class AdvancedOpenAPINormalizer extends OpenAPINormalizer {
         super(openAPI, inputRules);
         this.customRules = inputRules;
 
-        org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(AdvancedOpenAPINormalizer.class);
+        this.customLogger = CustomLoggerHolder.LOGGER;
 
-        if (slf4jLogger instanceof Logger) {
-            this.customLogger = (Logger) slf4jLogger;
-            Logger parentLogger = (Logger) LoggerFactory.getLogger("org.openapitools");
-            Iterator<Appender<ILoggingEvent>> appenderIterator = parentLogger.iteratorForAppenders();
-            while (appenderIterator.hasNext()) {
-                Appender<ILoggingEvent> appender = appenderIterator.next();
-                customLogger.addAppender(appender);
-            }
-            if (parentLogger.getLevel() != null) {
-                customLogger.setLevel(parentLogger.getLevel());
-            }
-            customLogger.setAdditive(false);
-        } else {
-            this.customLogger = null;
+        getLogger().info("AdvancedOpenAPINormalizer instance created. Rules: {}", customRules);
+    }
+
+    /**
+     * Routes this class's logger to the appenders and level of the
+     * "org.openapitools" logger, if Logback is the logging backend. This is
+     * done once per JVM rather than for every normalizer instance.
+     *
+     * @return The configured logger, or null if Logback isn't in use.
+     */
+    @Nullable
+    private static Logger configureCustomLogger() {
+        org.slf4j.Logger slf4jLogger = LoggerFactory.getLogger(AdvancedOpenAPINormalizer.class);
+        if (!(slf4jLogger instanceof Logger)) {
+            return null;
         }
 
-        getLogger().info("AdvancedOpenAPINormalizer instance created. Rules: {}", customRules);
+        Logger customLogger = (Logger) slf4jLogger;
+        Logger parentLogger = (Logger) LoggerFactory.getLogger("org.openapitools");
+        Iterator<Appender<ILoggingEvent>> appenderIterator = parentLogger.iteratorForAppenders();
+        while (appenderIterator.hasNext()) {
+            Appender<ILoggingEvent> appender = appenderIterator.next();
+            customLogger.addAppender(appender);
+        }
+        if (parentLogger.getLevel() != null) {
+            customLogger.setLevel(parentLogger.getLevel());
+        }
+        customLogger.setAdditive(false);
+        return customLogger;
     }
 
     /**
@@ -78,35 +86,150 @@ public class AdvancedOpenAPINormalizer extends OpenAPINormalizer {
     /**
      * Overrides the main normalization method to orchestrate a pipeline of
      * default and custom normalization rules.
+     * <p>
+     * The custom rules are discovered through {@link NormalizationRuleProvider}
+     * and run in their declared order. A rule is only instantiated, and its
+     * classes only loaded, when its key is present in the rule map. Rule
+     * instances are shared across normalizations in the same JVM.
+     * <p>
+     * Consecutive rules that implement {@link TraversableRule} are fused into
+     * a single walk over the paths of the specification. Any other rule first
+     * flushes the pending traversal so that rules still observe the
+     * specification in the same order as they are declared. All rules share
+     * a single {@link SpecIndex} of the specification, which the traversal
+     * and the rules keep up to date as they change it. The index is only
+     * built once a rule first reads it. When the
+     * {@code PARALLELISM} rule is set above one, the paths are walked on that
+     * many threads, with the same result and log as a sequential walk. When
+     * the {@code SUMMARY_LOGGING} rule is "true", rules log a summary of
+     * their changes instead of one line per changed element.
+     * <p>
+     * When the {@code CACHE_DIR} rule is set, the normalized specification is
+     * looked up in an on-disk cache first, and a hit skips both the default
+     * and the custom normalizations entirely.
+     * <p>
+     * When the {@code METRICS_REPORT} rule is set, or a Flight Recorder
+     * recording has {@link RuleExecutionEvent} enabled, the cost and effect
+     * of every custom rule is measured and published once all rules ran.
      */
     @Override
     protected void normalize() {
+        NormalizedSpecCache cache = NormalizedSpecCache.fromRules(customRules, openAPI.getSpecVersion(), getLogger());
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = cache.computeKey(openAPI, customRules, customRules.get(RULE_SCRIPTABLE));
+            if (cacheKey != null && cache.load(cacheKey, openAPI)) {
+                getLogger().info("Loaded normalized specification from cache. Key: {}", cacheKey);
+                return;
+            }
+        }
+
         super.normalize();
         getLogger().info("Default normalization complete. Applying custom rules...");
 
-        applyRule(RULE_STRIP_PARAMS, new StripParametersRule());
-        applyRule(RULE_CLEAN_EMPTY_REQUEST_BODIES, new CleanEmptyRequestBodiesRule());
-        applyRule(RULE_ONLY_ALLOW_JSON, new OnlyAllowJsonRule());
-        applyRule(RULE_FILTER_PATHS, new FilterPathsRule());
-        applyRule(RULE_SCRIPTABLE, new ScriptableRule());
-        applyRule(RULE_GARBAGE_COLLECT, new GarbageCollectComponentsRule());
+        NormalizationMetrics metrics = NormalizationMetrics.fromRules(customRules, getLogger());
+        SpecIndex index = SpecIndex.lazy(this.openAPI);
+        SpecTraversal traversal = new SpecTraversal(getLogger(), getParallelism(), index);
+        NormalizationRuleRegistry registry = NormalizationRuleRegistry.shared();
+        for (NormalizationRuleProvider provider : registry.getProviders()) {
+            if (customRules.containsKey(provider.getRuleKey())) {
+                applyRule(provider, registry.getRule(provider), traversal, index, metrics);
+            }
+        }
+        traversal.walk(this.openAPI);
 
         getLogger().info("All custom normalizations applied.");
+        if (metrics != null) {
+            metrics.publish();
+        }
+
+        if (cache != null && cacheKey != null) {
+            cache.store(cacheKey, openAPI);
+        }
+    }
+
+    /**
+     * Reads the number of threads to walk the paths on from the
+     * {@code PARALLELISM} rule.
+     *
+     * @return The parallelism, or 1 if the rule is absent.
+     * @throws IllegalArgumentException If the value isn't a positive number.
+     */
+    private int getParallelism() {
+        String parallelism = customRules.get(RULE_PARALLELISM);
+        if (parallelism == null || parallelism.isBlank()) {
+            return 1;
+        }
+        try {
+            int value = Integer.parseInt(parallelism.trim());
+            if (value >= 1) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, together with non-positive values.
+        }
+        throw new IllegalArgumentException(
+            "The " + RULE_PARALLELISM + " rule requires a positive number, but was: " + parallelism
+        );
     }
 
     /**
-     * Applies a given rule if its corresponding key is present in the
-     * configuration. This helper method standardizes how each rule is
-     * checked and executed.
+     * Applies a given rule whose key is present in the configuration. This
+     * helper method standardizes how each rule is executed.
      *
-     * @param ruleKey The configuration key for the rule.
-     * @param rule    The instance of the rule to apply.
+     * @param provider  The provider of the rule.
+     * @param rule      The instance of the rule to apply.
+     * @param traversal The pending traversal that traversable rules join.
+     * @param index     The index of the specification shared by all rules.
+     * @param metrics   The collector to record the rule's metrics in, if any.
      */
-    private void applyRule(String ruleKey, CustomNormalizationRule rule) {
-        if (customRules.containsKey(ruleKey)) {
-            getLogger().info("Executing rule: {}", ruleKey);
-            Map<String, String> ruleConfig = Map.of("value", customRules.get(ruleKey));
-            rule.apply(this.openAPI, ruleConfig, getLogger());
+    private void applyRule(NormalizationRuleProvider provider, CustomNormalizationRule rule, SpecTraversal traversal,
+                           SpecIndex index, @Nullable NormalizationMetrics metrics) {
+        String ruleKey = provider.getRuleKey();
+        getLogger().info("Executing rule: {}", ruleKey);
+        Map<String, String> options = new HashMap<>();
+        options.put(CustomNormalizationRule.RULE_VALUE_KEY, customRules.get(ruleKey));
+        if (Boolean.parseBoolean(customRules.get(RULE_SUMMARY_LOGGING))) {
+            options.put(CustomNormalizationRule.RULE_SUMMARY_KEY, "true");
         }
+        for (String optionKey : provider.getOptionKeys()) {
+            String option = customRules.get(optionKey);
+            if (option != null) {
+                options.put(optionKey, option);
+            }
+        }
+        Map<String, String> ruleConfig = Collections.unmodifiableMap(options);
+        RuleMetrics ruleMetrics = metrics != null ? metrics.forRule(ruleKey) : null;
+        if (rule instanceof TraversableRule) {
+            if (ruleMetrics != null) {
+                RuleMetrics.Measurement measurement = ruleMetrics.start();
+                SpecVisitor visitor = ((TraversableRule) rule).createVisitor(this.openAPI, ruleConfig, getLogger());
+                measurement.stop();
+                traversal.add(visitor, ruleMetrics);
+            } else {
+                traversal.add(((TraversableRule) rule).createVisitor(this.openAPI, ruleConfig, getLogger()));
+            }
+        } else {
+            traversal.walk(this.openAPI);
+            if (ruleMetrics != null) {
+                RuleMetrics.Measurement measurement = ruleMetrics.start();
+                try {
+                    rule.apply(this.openAPI, ruleConfig, getLogger(), ruleMetrics, index);
+                } finally {
+                    measurement.stop();
+                }
+            } else {
+                rule.apply(this.openAPI, ruleConfig, getLogger(), RuleMetrics.NONE, index);
+            }
+        }
+    }
+
+    /**
+     * Defers configuring the custom logger until the first normalizer is
+     * created.
+     */
+    private static final class CustomLoggerHolder {
+        @Nullable
+        static final Logger LOGGER = configureCustomLogger();
     }
 }
@@ -0,0 +1,286 @@
+package io.github.mridang.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.core.util.Yaml31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Normalizes many specifications in a single JVM, so that JVM startup, the
+ * logging setup, rule discovery and script engine warm-up are paid once for
+ * the whole batch rather than once per specification.
+ * <p>
+ * The batch is described by a JSON or YAML manifest:
+ * <pre>
+ * threads: 4
+ * specs:
+ *   - spec: users/openapi.yaml
+ *     output: normalized/users.yaml
+ *     rules:
+ *       FILTER_PATHS: /api/.*
+ *       GARBAGE_COLLECT_COMPONENTS: true
+ * </pre>
+ * Relative paths are resolved against the directory of the manifest, both
+ * those of the specifications and outputs and those given to the rules that
+ * read or write files, such as {@code RUN_SCRIPT} and {@code CACHE_DIR}. The
+ * optional {@code threads} setting bounds the number of specifications
+ * normalized concurrently and defaults to the number of processors. Each
+ * output is written as JSON if its name ends in ".json", and as YAML
+ * otherwise.
+ */
+public final class BatchNormalizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchNormalizer.class);
+
+    /**
+     * The rules whose values are paths.
+     */
+    private static final Set<String> PATH_RULES = Set.of(
+        AdvancedOpenAPINormalizer.RULE_SCRIPTABLE, NormalizedSpecCache.RULE_CACHE_DIR,
+        NormalizationMetrics.RULE_METRICS_REPORT, "SCRIPT_PROFILE"
+    );
+
+    private final int threads;
+
+    /**
+     * Constructs a new BatchNormalizer.
+     *
+     * @param threads The maximum number of specifications normalized concurrently.
+     */
+    public BatchNormalizer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive, but was " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Normalizes every specification listed in the manifest given as the
+     * only argument, and exits with a non-zero status if any of them failed.
+     *
+     * @param args The command line arguments.
+     * @throws IOException          If the manifest cannot be read.
+     * @throws InterruptedException If interrupted while waiting for the batch.
+     */
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1) {
+            System.err.println("Usage: java -cp <classpath> " + BatchNormalizer.class.getName() + " <manifest>");
+            System.exit(2);
+        }
+
+        Path manifestPath = Paths.get(args[0]);
+        JsonNode manifest = readManifest(manifestPath);
+        int threads = manifest.path("threads").asInt(Runtime.getRuntime().availableProcessors());
+        List<Entry> entries = parseEntries(manifest, manifestPath.toAbsolutePath().getParent());
+
+        int failures = new BatchNormalizer(threads).normalize(entries);
+        if (failures > 0) {
+            LOGGER.error("{} of {} specifications failed to normalize.", failures, entries.size());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a manifest file, as YAML unless its name ends in ".json".
+     *
+     * @param manifestPath The manifest file.
+     * @return The manifest's root node.
+     * @throws IOException If the manifest cannot be read.
+     */
+    static JsonNode readManifest(Path manifestPath) throws IOException {
+        ObjectMapper mapper = isJson(manifestPath) ? Json.mapper() : Yaml.mapper();
+        return mapper.readTree(manifestPath.toFile());
+    }
+
+    /**
+     * Parses the entries of a manifest.
+     *
+     * @param manifest The manifest's root node.
+     * @param baseDir  The directory relative paths, including those given to
+     *                 the rules, are resolved against.
+     * @return The entries, in manifest order.
+     * @throws IllegalArgumentException If an entry lacks a spec or an output.
+     */
+    static List<Entry> parseEntries(JsonNode manifest, @Nullable Path baseDir) {
+        Path base = baseDir != null ? baseDir : Paths.get("");
+        List<Entry> entries = new ArrayList<>();
+        for (JsonNode node : manifest.path("specs")) {
+            String spec = node.path("spec").asText("");
+            String output = node.path("output").asText("");
+            if (spec.isBlank() || output.isBlank()) {
+                throw new IllegalArgumentException(
+                    "Every manifest entry requires both a 'spec' and an 'output', but got: " + node
+                );
+            }
+
+            Map<String, String> rules = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.path("rules").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String value = field.getValue().asText();
+                if (PATH_RULES.contains(field.getKey()) && !value.isBlank()) {
+                    value = base.resolve(value).toString();
+                }
+                rules.put(field.getKey(), value);
+            }
+            entries.add(new Entry(base.resolve(spec), rules, base.resolve(output)));
+        }
+        return entries;
+    }
+
+    /**
+     * Normalizes every entry on a bounded pool of worker threads. A failing
+     * entry is logged and doesn't stop the remaining entries.
+     *
+     * @param entries The specifications to normalize.
+     * @return The number of entries that failed.
+     * @throws InterruptedException If interrupted while waiting for the batch.
+     */
+    public int normalize(List<Entry> entries) throws InterruptedException {
+        int poolSize = Math.min(threads, Math.max(1, entries.size()));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "batch-normalizer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Entry entry : entries) {
+                futures.add(executor.submit(() -> {
+                    normalize(entry);
+                    return null;
+                }));
+            }
+
+            int failures = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Failed to normalize {}", entries.get(i).getSpec(), e.getCause());
+                    failures++;
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses, normalizes and writes out a single specification.
+     *
+     * @param entry The specification to normalize.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void normalize(Entry entry) throws IOException {
+        long start = System.nanoTime();
+
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        SwaggerParseResult result = new OpenAPIParser()
+            .readLocation(entry.getSpec().toAbsolutePath().toString(), null, options);
+        OpenAPI openAPI = result.getOpenAPI();
+        if (openAPI == null) {
+            throw new IllegalStateException(
+                "Unable to parse " + entry.getSpec() + ": " + result.getMessages()
+            );
+        }
+
+        new AdvancedOpenAPINormalizer(openAPI, entry.getRules()).normalize();
+
+        Path parent = entry.getOutput().toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean v31 = openAPI.getSpecVersion() == SpecVersion.V31;
+        ObjectWriter writer = isJson(entry.getOutput())
+            ? (v31 ? Json31.pretty() : Json.pretty())
+            : (v31 ? Yaml31.pretty() : Yaml.pretty());
+        writer.writeValue(entry.getOutput().toFile(), openAPI);
+
+        LOGGER.info("Normalized {} to {} in {} ms", entry.getSpec(), entry.getOutput(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static boolean isJson(Path path) {
+        return path.toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    /**
+     * A single specification of a batch, along with its rules and output.
+     */
+    public static final class Entry {
+
+        private final Path spec;
+        private final Map<String, String> rules;
+        private final Path output;
+
+        /**
+         * Constructs a new Entry.
+         *
+         * @param spec   The specification to normalize.
+         * @param rules  The normalizer rules to apply to it.
+         * @param output The file to write the normalized specification to.
+         */
+        public Entry(Path spec, Map<String, String> rules, Path output) {
+            this.spec = spec;
+            this.rules = Map.copyOf(rules);
+            this.output = output;
+        }
+
+        /**
+         * Returns the specification to normalize.
+         *
+         * @return The specification to normalize.
+         */
+        public Path getSpec() {
+            return spec;
+        }
+
+        /**
+         * Returns the normalizer rules to apply, with any relative paths
+         * already resolved.
+         *
+         * @return The normalizer rules to apply to it.
+         */
+        public Map<String, String> getRules() {
+            return rules;
+        }
+
+        /**
+         * Returns the file to write the normalized specification to.
+         *
+         * @return The file to write the normalized specification to.
+         */
+        public Path getOutput() {
+            return output;
+        }
+    }
+}
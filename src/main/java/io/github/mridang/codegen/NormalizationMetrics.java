@@ -0,0 +1,128 @@
+package io.github.mridang.codegen;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.github.mridang.codegen.rules.RuleMetrics;
+import io.swagger.v3.core.util.Json;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the {@link RuleMetrics} of every custom rule applied during a
+ * single normalization and publishes them once normalization completes: as
+ * a JSON report when the {@code METRICS_REPORT} rule names a file, and as
+ * {@link RuleExecutionEvent}s whenever a Flight Recorder recording has that
+ * event enabled.
+ */
+final class NormalizationMetrics {
+
+    static final String RULE_METRICS_REPORT = "METRICS_REPORT";
+
+    @Nullable
+    private final Path reportPath;
+    private final Logger logger;
+    private final List<RuleMetrics> rules = new ArrayList<>();
+
+    /**
+     * Constructs a new NormalizationMetrics.
+     *
+     * @param reportPath The file to write the JSON report to, if any.
+     * @param logger     A logger instance for logging messages.
+     */
+    NormalizationMetrics(@Nullable Path reportPath, Logger logger) {
+        this.reportPath = reportPath;
+        this.logger = logger;
+    }
+
+    /**
+     * Creates a collector from the normalizer rules, if metrics were
+     * requested either through the rules or through Flight Recorder.
+     *
+     * @param rules  The normalizer rule map.
+     * @param logger A logger instance for logging messages.
+     * @return The collector, or null if nothing would consume the metrics.
+     */
+    @Nullable
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    static NormalizationMetrics fromRules(Map<String, String> rules, Logger logger) {
+        String report = rules.get(RULE_METRICS_REPORT);
+        Path reportPath = report == null || report.isBlank() ? null : Paths.get(report);
+        if (reportPath == null && !new RuleExecutionEvent().isEnabled()) {
+            return null;
+        }
+        return new NormalizationMetrics(reportPath, logger);
+    }
+
+    /**
+     * Creates and registers the metrics for a rule about to be applied.
+     *
+     * @param ruleKey The configuration key of the rule.
+     * @return The metrics to record the rule's execution in.
+     */
+    RuleMetrics forRule(String ruleKey) {
+        RuleMetrics metrics = new RuleMetrics(ruleKey);
+        rules.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * Logs a summary of every rule, emits the Flight Recorder events and
+     * writes the JSON report. Failing to write the report is logged and
+     * otherwise ignored.
+     */
+    void publish() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (RuleMetrics metrics : rules) {
+            logger.info(
+                "Rule {} took {} ms (CPU {} ms), allocated {} bytes, visited {} nodes and removed {}.",
+                metrics.getRuleKey(),
+                TimeUnit.NANOSECONDS.toMillis(metrics.getWallNanos()),
+                TimeUnit.NANOSECONDS.toMillis(metrics.getCpuNanos()),
+                metrics.getAllocatedBytes(), metrics.getNodesVisited(), metrics.getNodesRemoved()
+            );
+
+            RuleExecutionEvent event = new RuleExecutionEvent();
+            if (event.shouldCommit()) {
+                event.ruleKey = metrics.getRuleKey();
+                event.wallTime = metrics.getWallNanos();
+                event.cpuTime = metrics.getCpuNanos();
+                event.allocatedBytes = metrics.getAllocatedBytes();
+                event.nodesVisited = metrics.getNodesVisited();
+                event.nodesRemoved = metrics.getNodesRemoved();
+                event.commit();
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rule", metrics.getRuleKey());
+            entry.put("wallNanos", metrics.getWallNanos());
+            entry.put("cpuNanos", metrics.getCpuNanos());
+            entry.put("allocatedBytes", metrics.getAllocatedBytes());
+            entry.put("nodesVisited", metrics.getNodesVisited());
+            entry.put("nodesRemoved", metrics.getNodesRemoved());
+            entries.add(entry);
+        }
+
+        if (reportPath != null) {
+            try {
+                Path parent = reportPath.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Json.mapper().writerWithDefaultPrettyPrinter()
+                    .writeValue(reportPath.toFile(), Map.of("rules", entries));
+                logger.info("Wrote normalization metrics to {}", reportPath);
+            } catch (IOException e) {
+                logger.warn("Unable to write normalization metrics to {}", reportPath, e);
+            }
+        }
+    }
+}
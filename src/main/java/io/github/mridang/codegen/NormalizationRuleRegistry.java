@@ -0,0 +1,82 @@
+package io.github.mridang.codegen;
+
+import io.github.mridang.codegen.rules.CustomNormalizationRule;
+import io.github.mridang.codegen.rules.NormalizationRuleProvider;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The rules available to the normalizer, discovered once per JVM through
+ * {@link NormalizationRuleProvider} and shared by every normalization.
+ * <p>
+ * Each rule is instantiated the first time a normalization enables it and
+ * the instance is then reused, so that rules which are expensive to set up,
+ * such as scripts, only pay that cost once when many specifications are
+ * normalized in the same process.
+ */
+final class NormalizationRuleRegistry {
+
+    private final List<NormalizationRuleProvider> providers;
+    private final ConcurrentMap<String, CustomNormalizationRule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new NormalizationRuleRegistry.
+     *
+     * @param providers The rule providers, in any order.
+     * @throws IllegalStateException If two providers claim the same rule key.
+     */
+    NormalizationRuleRegistry(Iterable<NormalizationRuleProvider> providers) {
+        List<NormalizationRuleProvider> sorted = new ArrayList<>();
+        Set<String> ruleKeys = new HashSet<>();
+        for (NormalizationRuleProvider provider : providers) {
+            if (!ruleKeys.add(provider.getRuleKey())) {
+                throw new IllegalStateException(
+                    "More than one normalization rule is registered for the key: " + provider.getRuleKey()
+                );
+            }
+            sorted.add(provider);
+        }
+        sorted.sort(Comparator.comparingInt(NormalizationRuleProvider::getOrder));
+        this.providers = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns the registry shared by every normalizer in the JVM, which is
+     * only loaded once.
+     *
+     * @return The registry of every provider registered on the classpath.
+     */
+    static NormalizationRuleRegistry shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the providers of every rule, whether or not it is enabled.
+     *
+     * @return The providers, in the order their rules should run.
+     */
+    List<NormalizationRuleProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Returns the rule of the given provider, creating it on first use.
+     *
+     * @param provider One of the providers of this registry.
+     * @return The shared rule instance.
+     */
+    CustomNormalizationRule getRule(NormalizationRuleProvider provider) {
+        return rules.computeIfAbsent(provider.getRuleKey(), key -> provider.create());
+    }
+
+    /**
+     * Defers loading the providers until the registry is first used.
+     */
+    private static final class Holder {
+        static final NormalizationRuleRegistry INSTANCE = new NormalizationRuleRegistry(
+            ServiceLoader.load(NormalizationRuleProvider.class, NormalizationRuleProvider.class.getClassLoader())
+        );
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.mridang.codegen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.core.util.ObjectMapperFactory;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed, on-disk cache of normalized specifications.
+ * <p>
+ * Each entry is keyed by a SHA-256 hash of the version of this library, the
+ * parsed input specification, the normalizer rule map and the contents of
+ * any script referenced by the rules, and holds the normalized specification encoded as Jackson Smile.
+ * The total size of the cache directory is bounded; when it grows beyond
+ * the limit, the least recently used entries are evicted first.
+ */
+final class NormalizedSpecCache {
+
+    static final String RULE_CACHE_DIR = "CACHE_DIR";
+    static final String RULE_CACHE_MAX_SIZE = "CACHE_MAX_SIZE";
+    private static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+    private static final String FORMAT_VERSION = "1";
+    /**
+     * The version of this library, so that entries normalized by the rules
+     * of another release are never reused. It is only unknown when running
+     * from the classes rather than the jar.
+     */
+    private static final String IMPLEMENTATION_VERSION = Objects.requireNonNullElse(
+        NormalizedSpecCache.class.getPackage().getImplementationVersion(), "development");
+    private static final String ENTRY_SUFFIX = ".sml";
+    private static final Set<String> SETTINGS = Set.of(
+        RULE_CACHE_DIR, RULE_CACHE_MAX_SIZE,
+        AdvancedOpenAPINormalizer.RULE_PARALLELISM, AdvancedOpenAPINormalizer.RULE_SUMMARY_LOGGING
+    );
+
+    private final Path directory;
+    private final long maxSize;
+    private final ObjectMapper mapper;
+    private final Logger logger;
+
+    /**
+     * Constructs a new NormalizedSpecCache.
+     *
+     * @param directory   The directory holding the cache entries.
+     * @param maxSize     The maximum total size of all entries, in bytes.
+     * @param specVersion The version of the specifications being cached.
+     * @param logger      A logger instance for logging messages.
+     */
+    NormalizedSpecCache(Path directory, long maxSize, SpecVersion specVersion, Logger logger) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.mapper = specVersion == SpecVersion.V31
+            ? ObjectMapperFactory.createJson31(new SmileFactory())
+            : ObjectMapperFactory.createJson(new SmileFactory());
+        this.logger = logger;
+    }
+
+    /**
+     * Creates a cache from the normalizer rules, if caching was requested.
+     *
+     * @param rules       The normalizer rule map.
+     * @param specVersion The version of the specification being normalized.
+     * @param logger      A logger instance for logging messages.
+     * @return The cache, or null if the {@code CACHE_DIR} rule is absent.
+     */
+    @Nullable
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    static NormalizedSpecCache fromRules(Map<String, String> rules, SpecVersion specVersion, Logger logger) {
+        String directory = rules.get(RULE_CACHE_DIR);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+
+        long maxSize = DEFAULT_MAX_SIZE;
+        String maxSizeString = rules.get(RULE_CACHE_MAX_SIZE);
+        if (maxSizeString != null && !maxSizeString.isBlank()) {
+            maxSize = Long.parseLong(maxSizeString.trim());
+        }
+        return new NormalizedSpecCache(Paths.get(directory), maxSize, specVersion, logger);
+    }
+
+    /**
+     * Computes the cache key for a specification that has not yet been
+     * normalized.
+     *
+     * @param openAPI    The parsed, not yet normalized, specification.
+     * @param rules      The normalizer rule map. Settings that don't affect
+     *                   the result, such as the cache settings, are ignored.
+     * @param scriptPath The path of the script referenced by the rules, if any.
+     * @return The hex-encoded key, or null if it could not be computed.
+     */
+    @Nullable
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    String computeKey(OpenAPI openAPI, Map<String, String> rules, @Nullable String scriptPath) {
+        MessageDigest digest = Sha256.newDigest();
+        digest.update((FORMAT_VERSION + '\n' + IMPLEMENTATION_VERSION + '\n').getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<String, String> rule : new TreeMap<>(rules).entrySet()) {
+            if (SETTINGS.contains(rule.getKey())) {
+                continue;
+            }
+            digest.update((rule.getKey() + '=' + rule.getValue() + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+
+        try {
+            if (scriptPath != null && !scriptPath.isBlank()) {
+                Path script = Paths.get(scriptPath);
+                if (Files.isReadable(script)) {
+                    digest.update(Files.readAllBytes(script));
+                }
+            }
+            try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                mapper.writeValue(out, openAPI);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to compute normalizer cache key. Caching is disabled for this run.", e);
+            return null;
+        }
+
+        return Sha256.hex(digest);
+    }
+
+    /**
+     * Replaces the contents of the given specification with the cached,
+     * normalized specification for the key, if one exists.
+     *
+     * @param key    The cache key.
+     * @param target The specification to overwrite in place.
+     * @return true on a cache hit, false otherwise.
+     */
+    boolean load(String key, OpenAPI target) {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        if (!Files.isRegularFile(entry)) {
+            return false;
+        }
+
+        OpenAPI cached;
+        try (InputStream in = Files.newInputStream(entry)) {
+            cached = mapper.readValue(in, OpenAPI.class);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.warn("Discarding unreadable normalizer cache entry {}", entry, e);
+            deleteQuietly(entry);
+            return false;
+        }
+
+        target.setOpenapi(cached.getOpenapi());
+        target.setInfo(cached.getInfo());
+        target.setExternalDocs(cached.getExternalDocs());
+        target.setServers(cached.getServers());
+        target.setSecurity(cached.getSecurity());
+        target.setTags(cached.getTags());
+        target.setPaths(cached.getPaths());
+        target.setComponents(cached.getComponents());
+        target.setExtensions(cached.getExtensions());
+        target.setJsonSchemaDialect(cached.getJsonSchemaDialect());
+        target.setWebhooks(cached.getWebhooks());
+        return true;
+    }
+
+    /**
+     * Stores a normalized specification under the given key and evicts the
+     * least recently used entries if the cache has outgrown its size limit.
+     * Failures are logged and otherwise ignored.
+     *
+     * @param key     The cache key.
+     * @param openAPI The normalized specification.
+     */
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    void store(String key, OpenAPI openAPI) {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                mapper.writeValue(out, openAPI);
+            }
+            try {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            evict();
+        } catch (IOException e) {
+            logger.warn("Unable to write normalizer cache entry {}", entry, e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the total size of the
+     * cache fits within the configured limit.
+     *
+     * @throws IOException If the cache directory cannot be listed.
+     */
+    private void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files
+                .filter(file -> file.toString().endsWith(ENTRY_SUFFIX))
+                .collect(Collectors.toList());
+        }
+
+        List<Map.Entry<Path, FileTime>> byLastUse = new ArrayList<>();
+        long totalSize = 0;
+        for (Path file : entries) {
+            byLastUse.add(new AbstractMap.SimpleImmutableEntry<>(file, Files.getLastModifiedTime(file)));
+            totalSize += Files.size(file);
+        }
+
+        byLastUse.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<Path, FileTime> candidate : byLastUse) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            Path file = candidate.getKey();
+            long size = Files.size(file);
+            if (deleteQuietly(file)) {
+                logger.debug("Evicted normalizer cache entry {}", file);
+                totalSize -= size;
+            }
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Unable to delete normalizer cache entry {}", file, e);
+            return false;
+        }
+    }
+}
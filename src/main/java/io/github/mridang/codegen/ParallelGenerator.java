@@ -0,0 +1,258 @@
+package io.github.mridang.codegen;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.api.TemplateProcessor;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A generator that renders and writes the files of a specification on a
+ * bounded pool of threads, rather than one file at a time, for use with
+ * the {@code *-plus} generators on specifications with thousands of models.
+ * <p>
+ * The generator still prepares every model and operation in order, on the
+ * calling thread, exactly as {@link DefaultGenerator} does, and only hands
+ * the rendering and writing of each template off to the pool. The generated
+ * files and their contents are therefore identical to those of a serial
+ * run, and so is the returned list of files. Writes are awaited:
+ * <ul>
+ *     <li>before the operations are processed, as processing them may
+ *     update the models that are still being rendered;</li>
+ *     <li>before a file is written again, so that the last write wins;</li>
+ *     <li>before any file is copied rather than rendered, such as the
+ *     supporting files and the metadata; and</li>
+ *     <li>before generation completes.</li>
+ * </ul>
+ * If any write fails, generation fails with the first failure in the order
+ * the files would have been written serially.
+ * <p>
+ * When files are post-processed, such as with
+ * {@code --enable-post-process-file}, each file is post-processed as soon
+ * as it is written, so the files are then written serially instead.
+ */
+public final class ParallelGenerator extends DefaultGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelGenerator.class);
+
+    private final int threads;
+    @Nullable
+    private ParallelWrites writes;
+
+    /**
+     * Constructs a new ParallelGenerator that renders as many files at once
+     * as there are processors.
+     */
+    public ParallelGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new ParallelGenerator.
+     *
+     * @param threads The maximum number of files rendered concurrently.
+     */
+    public ParallelGenerator(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive, but was " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Generates the client described by the generator configuration file
+     * given as the first argument, which uses the same format as the
+     * configuration files of the {@code batch} command. The optional second
+     * argument bounds the number of files rendered concurrently.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java -cp <classpath> " + ParallelGenerator.class.getName()
+                + " <config> [threads]");
+            System.exit(2);
+        }
+
+        ClientOptInput input = CodegenConfigurator.fromFile(args[0]).toClientOptInput();
+        ParallelGenerator generator = args.length == 2
+            ? new ParallelGenerator(Integer.parseInt(args[1]))
+            : new ParallelGenerator();
+        List<File> files = generator.opts(input).generate();
+        LOGGER.info("Generated {} files.", files.size());
+    }
+
+    @Override
+    public List<File> generate() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "parallel-generator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        TemplateProcessor serial = templateProcessor;
+        ParallelWrites parallel = new ParallelWrites(serial, executor, threads,
+            // Read on every write, as the generator only reads the option once generation started.
+            () -> config.isEnablePostProcessFile());
+        templateProcessor = parallel;
+        writes = parallel;
+        try {
+            List<File> files = super.generate();
+            parallel.await();
+            return files;
+        } finally {
+            templateProcessor = serial;
+            writes = null;
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public Map<String, List<CodegenOperation>> processPaths(Paths paths) {
+        awaitWrites();
+        return super.processPaths(paths);
+    }
+
+    @Override
+    public Map<String, List<CodegenOperation>> processWebhooks(Map<String, PathItem> webhooks) {
+        awaitWrites();
+        return super.processWebhooks(webhooks);
+    }
+
+    private void awaitWrites() {
+        ParallelWrites parallel = writes;
+        if (parallel != null) {
+            parallel.await();
+        }
+    }
+
+    /**
+     * A template processor that renders and writes templates on a pool of
+     * threads, and everything else on the calling thread once all pending
+     * writes completed. It is only called from the generating thread.
+     */
+    private static final class ParallelWrites implements TemplateProcessor {
+
+        private final TemplateProcessor delegate;
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final BooleanSupplier postProcessed;
+        private final Map<File, Future<File>> pending = new LinkedHashMap<>();
+
+        ParallelWrites(TemplateProcessor delegate, ExecutorService executor, int threads,
+                       BooleanSupplier postProcessed) {
+            this.delegate = delegate;
+            this.executor = executor;
+            this.postProcessed = postProcessed;
+            // Bounds the renders queued ahead of the pool, and so the memory their output takes.
+            this.permits = new Semaphore(threads * 2);
+        }
+
+        @Override
+        @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+        public File write(Map<String, Object> data, String template, File target) throws IOException {
+            if (postProcessed.getAsBoolean()) {
+                // The file is post-processed as soon as this returns, so it has to be written by then.
+                await();
+                return delegate.write(data, template, target);
+            }
+            Future<File> previous = pending.remove(target);
+            if (previous != null) {
+                await(target, previous);
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while rendering " + template);
+            }
+            try {
+                pending.put(target, executor.submit(() -> {
+                    try {
+                        return delegate.write(data, template, target);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            // The delegate returns the file it was given, so the result is known before it is written.
+            return target;
+        }
+
+        @Override
+        public File writeToFile(String filename, byte[] contents) throws IOException {
+            await();
+            return delegate.writeToFile(filename, contents);
+        }
+
+        @Override
+        public void ignore(Path path, String context) {
+            delegate.ignore(path, context);
+        }
+
+        @Override
+        public void skip(Path path, String context) {
+            delegate.skip(path, context);
+        }
+
+        @Override
+        public void error(Path path, String context) {
+            delegate.error(path, context);
+        }
+
+        /**
+         * Waits for all pending writes, in the order they were started.
+         *
+         * @throws RuntimeException If any write failed, for the first one
+         *                          that did. The remaining writes are cancelled.
+         */
+        void await() {
+            try {
+                for (Map.Entry<File, Future<File>> write : pending.entrySet()) {
+                    await(write.getKey(), write.getValue());
+                }
+            } finally {
+                pending.values().forEach(write -> write.cancel(true));
+                pending.clear();
+            }
+        }
+
+        @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+        private static void await(File target, Future<File> write) {
+            try {
+                write.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Could not write " + target, e.getCause());
+            } catch (CancellationException e) {
+                throw new RuntimeException("Writing " + target + " was cancelled", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while writing " + target, e);
+            }
+        }
+    }
+}
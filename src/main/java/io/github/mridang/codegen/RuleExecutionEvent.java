@@ -0,0 +1,39 @@
+package io.github.mridang.codegen;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jdk.jfr.*;
+
+/**
+ * A JDK Flight Recorder event emitted once per normalization rule, carrying
+ * the metrics collected while the rule was running. The fields are read by
+ * the recorder when the event is committed.
+ */
+@Name("io.github.mridang.codegen.RuleExecution")
+@Label("Normalization Rule Execution")
+@Category({"OpenAPI Generator Plus", "Normalizer"})
+@Description("The cost and effect of a single custom normalization rule")
+@StackTrace(false)
+@SuppressFBWarnings("URF_UNREAD_FIELD")
+final class RuleExecutionEvent extends Event {
+
+    @Label("Rule")
+    String ruleKey = "";
+
+    @Label("Wall Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wallTime;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocatedBytes;
+
+    @Label("Nodes Visited")
+    long nodesVisited;
+
+    @Label("Nodes Removed")
+    long nodesRemoved;
+}
@@ -0,0 +1,65 @@
+package io.github.mridang.codegen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * SHA-256 hashing, as used for the keys of the normalizer cache and the
+ * manifests of generated files. Hashes are written as lowercase hex, in the
+ * format of {@code sha256sum}.
+ */
+public final class Sha256 {
+
+    private Sha256() {
+    }
+
+    /**
+     * Creates a digest to hash contents incrementally.
+     *
+     * @return A new SHA-256 digest.
+     * @throws IllegalStateException If SHA-256 is not supported by this JVM.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * Completes a digest and encodes its hash.
+     *
+     * @param digest The digest holding the hashed contents.
+     * @return The lowercase hex hash of the contents.
+     */
+    public static String hex(MessageDigest digest) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Hashes the contents of a file.
+     *
+     * @param file The file to hash.
+     * @return The lowercase hex hash of the file.
+     * @throws IOException If the file can't be read.
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return hex(digest);
+    }
+}
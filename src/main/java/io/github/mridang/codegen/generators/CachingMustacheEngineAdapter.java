@@ -0,0 +1,248 @@
+package io.github.mridang.codegen.generators;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.templating.MustacheEngineAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A mustache engine that compiles each template once per JVM rather than
+ * every time a file is rendered from it. The compiled templates are shared
+ * by every generator and every run in the JVM, such as the runs of a batch,
+ * of a daemon or of a {@code ParallelGenerator}, and the generators of
+ * several languages.
+ * <p>
+ * A compiled template is keyed by its path, its contents and the settings of
+ * the compiler, including the escaper and formatter it compiles in, so a
+ * template that was customised or changed between runs, or that a generator
+ * compiles differently, is compiled again. Templates are only cached for
+ * compilers that use the standard delimiters, as the delimiters of a
+ * compiler can't be read. The partials a template includes are compiled along with
+ * it, the first time they are included, and a compiled template is only
+ * reused while each of its partials still resolves to the same contents.
+ * Partials are resolved through the generator that renders the template, as
+ * they are by {@link MustacheEngineAdapter}, and are checked once per run of
+ * a generator rather than every time the template is rendered.
+ */
+public class CachingMustacheEngineAdapter extends MustacheEngineAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingMustacheEngineAdapter.class);
+
+    /**
+     * The number of compiled templates past which the cache is cleared, so
+     * that a long-lived JVM whose templates keep changing doesn't keep every
+     * version of them.
+     */
+    private static final int MAX_TEMPLATES = 1024;
+
+    private static final Map<Key, CompiledTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final AtomicLong COMPILATIONS = new AtomicLong();
+
+    /**
+     * The generator rendering a template on the current thread, through which
+     * the partials of the template are resolved.
+     */
+    private static final ThreadLocal<TemplatingExecutor> EXECUTOR = new ThreadLocal<>();
+
+    /**
+     * Whether each compiler seen so far uses the standard delimiters.
+     */
+    private static final Map<Mustache.Compiler, Boolean> STANDARD_DELIMS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Replaces the default mustache engine with a caching one, leaving any
+     * other engine, such as handlebars or a customised mustache engine, as is.
+     *
+     * @param adapter The engine configured for a generator.
+     * @return The engine to use instead.
+     */
+    public static TemplatingEngineAdapter wrap(TemplatingEngineAdapter adapter) {
+        return adapter.getClass() == MustacheEngineAdapter.class ? new CachingMustacheEngineAdapter() : adapter;
+    }
+
+    /**
+     * Returns how many templates and partials were compiled, which only
+     * grows while the compiled templates are being reused.
+     *
+     * @return The number of templates and partials compiled in this JVM so far.
+     */
+    public static long compilations() {
+        return COMPILATIONS.get();
+    }
+
+    /**
+     * Clears the compiled templates shared by the generators in this JVM.
+     */
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    @Override
+    public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle,
+                                  String templateFile) throws IOException {
+        Mustache.Compiler compiler = getCompiler();
+        if (!STANDARD_DELIMS.computeIfAbsent(compiler, CachingMustacheEngineAdapter::usesStandardDelims)) {
+            return super.compileTemplate(executor, bundle, templateFile);
+        }
+        String contents = executor.getFullTemplateContents(templateFile);
+        Key key = new Key(templateFile, contents, compiler);
+
+        CompiledTemplate compiled = TEMPLATES.get(key);
+        if (compiled == null || !compiled.isCurrent(executor)) {
+            if (TEMPLATES.size() >= MAX_TEMPLATES) {
+                TEMPLATES.clear();
+            }
+            compiled = new CompiledTemplate(compiler, contents, executor);
+            TEMPLATES.put(key, compiled);
+        }
+
+        Object parent = bundle.get("MUSTACHE_PARENT_CONTEXT");
+        if (parent == null) {
+            LOGGER.warn("Unexpected null parent context, rendering {} without one", templateFile);
+            parent = new Object();
+        }
+
+        TemplatingExecutor previous = EXECUTOR.get();
+        EXECUTOR.set(executor);
+        try {
+            StringWriter out = new StringWriter();
+            compiled.template.execute(bundle, parent, out);
+            return out.toString();
+        } finally {
+            if (previous == null) {
+                EXECUTOR.remove();
+            } else {
+                EXECUTOR.set(previous);
+            }
+        }
+    }
+
+    /**
+     * A compiled template, along with the contents of the partials it
+     * included so far. The partials are compiled by jmustache when they are
+     * first included, and are then kept with the template.
+     */
+    private final class CompiledTemplate {
+
+        private final Map<String, String> partials = new ConcurrentHashMap<>();
+        /**
+         * The generators whose partials were found to be the ones the
+         * template was compiled with. Each run of a generator renders through
+         * its own executor, which is dropped once the run completes.
+         */
+        private final Set<TemplatingExecutor> checked = Collections.newSetFromMap(
+            Collections.synchronizedMap(new WeakHashMap<>()));
+        private final Template template;
+
+        CompiledTemplate(Mustache.Compiler compiler, String contents, TemplatingExecutor executor) {
+            this.template = compiler.withLoader(this::loadPartial).defaultValue("").compile(contents);
+            this.checked.add(executor);
+            COMPILATIONS.incrementAndGet();
+        }
+
+        private Reader loadPartial(String name) throws IOException {
+            TemplatingExecutor executor = Objects.requireNonNull(EXECUTOR.get(),
+                "Partials can only be loaded while rendering a template");
+            String contents;
+            try (Reader reader = findTemplate(executor, name)) {
+                contents = read(reader);
+            }
+            partials.put(name, contents);
+            COMPILATIONS.incrementAndGet();
+            return new StringReader(contents);
+        }
+
+        /**
+         * Checks that every partial included so far still resolves to the
+         * contents it was compiled from, unless it was already checked for
+         * this generator.
+         *
+         * @param executor The generator about to render the template.
+         * @return true if the compiled template can be reused.
+         */
+        boolean isCurrent(TemplatingExecutor executor) {
+            if (checked.contains(executor)) {
+                return true;
+            }
+            for (Map.Entry<String, String> partial : partials.entrySet()) {
+                try (Reader reader = findTemplate(executor, partial.getKey())) {
+                    if (!partial.getValue().equals(read(reader))) {
+                        return false;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    return false;
+                }
+            }
+            checked.add(executor);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether a compiler uses the standard {@code {{ }}} delimiters,
+     * by rendering a variable with them.
+     */
+    private static boolean usesStandardDelims(Mustache.Compiler compiler) {
+        return !"{{probe}}".equals(compiler.compile("{{probe}}").execute(Map.of("probe", "")));
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringWriter contents = new StringWriter();
+        reader.transferTo(contents);
+        return contents.toString();
+    }
+
+    /**
+     * The path and contents of a template, and the settings of the compiler
+     * it is compiled with.
+     */
+    private static final class Key {
+
+        private final String templateFile;
+        private final String contents;
+        private final List<Object> settings;
+
+        Key(String templateFile, String contents, Mustache.Compiler compiler) {
+            this.templateFile = templateFile;
+            this.contents = contents;
+            // The formatter and the escaper are compiled into the template, and are compared by identity, as
+            // escapers made by Escapers.simple share a class. The library defaults are shared instances.
+            this.settings = Arrays.asList(compiler.standardsMode, compiler.strictSections, compiler.nullValue,
+                compiler.missingIsNull, compiler.emptyStringIsFalse, compiler.zeroIsFalse,
+                compiler.formatter, compiler.escaper, compiler.collector.getClass());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return templateFile.equals(key.templateFile) && contents.equals(key.contents)
+                && settings.equals(key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(templateFile, contents, settings);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.mridang.codegen.generators;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.github.mridang.codegen.Sha256;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.ignore.CodegenIgnoreProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a manifest of the SHA-256 hashes of the generated files in
+ * {@code .openapi-generator/SHA256SUMS}, in the format of {@code sha256sum}.
+ * Generators implementing this are expected to enable minimal updates, so
+ * that a file whose rendered content is unchanged isn't rewritten and keeps
+ * its modification time.
+ * <p>
+ * Once generation completes, the files listed in the previous manifest that
+ * weren't generated again, such as those of removed models, are deleted,
+ * along with any directories that are left empty. A stale file that was
+ * modified since it was generated is kept, as it may hold manual changes,
+ * and so is a file that is now excluded by the {@code .openapi-generator-ignore}
+ * file. Stale files are only deleted after a run that generated every kind
+ * of file, so a run limited to the models or the APIs with the global
+ * properties keeps the files it didn't generate, and their manifest entries.
+ * <p>
+ * The generated files are read from the {@code .openapi-generator/FILES}
+ * metadata, so the manifest is only updated when metadata is generated.
+ */
+public interface GeneratedFilesManifest {
+
+    /**
+     * The name of the manifest, within the metadata directory.
+     */
+    String MANIFEST_FILENAME = "SHA256SUMS";
+
+    /**
+     * The directory of the generator metadata, within the output folder.
+     */
+    String METADATA_DIR = ".openapi-generator";
+
+    /**
+     * The name of the ignore file, within the output folder. It is only
+     * generated if it doesn't exist yet, so it is never stale.
+     */
+    String IGNORE_FILENAME = ".openapi-generator-ignore";
+
+    /**
+     * Returns the folder the files are generated into, which holds the
+     * metadata directory.
+     *
+     * @return The folder the files are generated into.
+     */
+    String outputFolder();
+
+    /**
+     * Returns the name of the metadata file that lists the files of the last
+     * run.
+     *
+     * @return The name of the metadata file listing the generated files.
+     */
+    String getFilesMetadataFilename();
+
+    /**
+     * Returns the ignore file to use instead of the one in the output
+     * folder, if one was configured.
+     *
+     * @return The ignore file to use instead of the one in the output folder,
+     * if any.
+     */
+    @Nullable
+    String getIgnoreFilePathOverride();
+
+    /**
+     * Deletes the stale files of the previous generation and writes the
+     * manifest of the files generated this time. The manifest is only
+     * rewritten if it changed.
+     *
+     * @throws UncheckedIOException If the manifest can't be read or written.
+     */
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    default void updateManifest() {
+        Logger logger = LoggerFactory.getLogger(GeneratedFilesManifest.class);
+        Path outputDir = Paths.get(outputFolder()).toAbsolutePath().normalize();
+        Path filesMetadata = outputDir.resolve(METADATA_DIR).resolve(getFilesMetadataFilename());
+        Path manifestPath = outputDir.resolve(METADATA_DIR).resolve(MANIFEST_FILENAME);
+        if (!Files.isRegularFile(filesMetadata)) {
+            logger.info("No {} metadata in {}, so the manifest of generated files isn't updated.",
+                getFilesMetadataFilename(), outputDir);
+            return;
+        }
+
+        try {
+            Set<String> generated = new LinkedHashSet<>();
+            for (String line : Files.readAllLines(filesMetadata, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    generated.add(line.trim());
+                }
+            }
+
+            Map<String, String> previous = new LinkedHashMap<>();
+            if (Files.isRegularFile(manifestPath)) {
+                for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+                    int separator = line.indexOf("  ");
+                    if (separator > 0) {
+                        previous.put(line.substring(separator + 2), line.substring(0, separator));
+                    }
+                }
+            }
+
+            boolean fullRun = isFullRun();
+            String ignoreFile = getIgnoreFilePathOverride();
+            CodegenIgnoreProcessor ignoreProcessor = ignoreFile == null
+                ? new CodegenIgnoreProcessor(outputDir.toString())
+                : new CodegenIgnoreProcessor(new File(ignoreFile));
+            Set<String> kept = new LinkedHashSet<>();
+            for (Map.Entry<String, String> entry : previous.entrySet()) {
+                Path stale = outputDir.resolve(entry.getKey()).normalize();
+                if (generated.contains(entry.getKey()) || !stale.startsWith(outputDir) || !Files.isRegularFile(stale)
+                    || stale.equals(outputDir.resolve(IGNORE_FILENAME))) {
+                    continue;
+                }
+                if (!ignoreProcessor.allowsFile(stale.toFile())) {
+                    logger.info("Keeping {}, which is no longer generated but is ignored.", stale);
+                    continue;
+                }
+                if (!fullRun) {
+                    kept.add(entry.getKey());
+                    continue;
+                }
+                if (!entry.getValue().equals(Sha256.hash(stale))) {
+                    logger.warn("Keeping {}, which is no longer generated but was modified since.", stale);
+                    continue;
+                }
+                Files.delete(stale);
+                logger.info("Deleted {}, which is no longer generated.", stale);
+                for (Path dir = stale.getParent(); dir != null && !dir.equals(outputDir); dir = dir.getParent()) {
+                    try {
+                        Files.delete(dir);
+                    } catch (DirectoryNotEmptyException e) {
+                        break;
+                    }
+                }
+            }
+
+            StringBuilder manifest = new StringBuilder();
+            for (String file : kept) {
+                manifest.append(previous.get(file)).append("  ").append(file).append('\n');
+            }
+            for (String file : generated) {
+                Path path = outputDir.resolve(file).normalize();
+                if (path.startsWith(outputDir) && Files.isRegularFile(path)) {
+                    manifest.append(Sha256.hash(path)).append("  ").append(file).append('\n');
+                }
+            }
+            byte[] contents = manifest.toString().getBytes(StandardCharsets.UTF_8);
+            if (!Files.isRegularFile(manifestPath) || !Arrays.equals(Files.readAllBytes(manifestPath), contents)) {
+                Files.write(manifestPath, contents);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to update the manifest of generated files in " + outputDir, e);
+        }
+    }
+
+    /**
+     * Checks whether this run generated every kind of file, rather than only
+     * those selected with the {@code models}, {@code apis} or
+     * {@code supportingFiles} global properties, and didn't skip the tests or
+     * the documentation.
+     *
+     * @return true if the files that weren't generated are stale.
+     */
+    private static boolean isFullRun() {
+        for (String selection : List.of(CodegenConstants.MODELS, CodegenConstants.APIS,
+            CodegenConstants.SUPPORTING_FILES)) {
+            if (GlobalSettings.getProperty(selection) != null) {
+                return false;
+            }
+        }
+        for (String toggle : List.of(CodegenConstants.MODEL_TESTS, CodegenConstants.MODEL_DOCS,
+            CodegenConstants.API_TESTS, CodegenConstants.API_DOCS)) {
+            String value = GlobalSettings.getProperty(toggle);
+            if (value != null && !Boolean.parseBoolean(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,116 @@
 package io.github.mridang.codegen.generators;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
 import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface UnsupportedFeaturesValidator {
 
+    /**
+     * Checks every operation of a specification, paths, webhooks and
+     * callbacks alike, for unsupported features before any model is
+     * processed. Each operation is checked as the generator will see it,
+     * with the parameters of its path item that it doesn't override and
+     * with its parameters and request body references resolved. The
+     * operations are checked in parallel, and every violation is collected
+     * rather than only the first. Throws a RuntimeException listing all
+     * violations if any were found, halting the generation process before
+     * any templates are rendered.
+     *
+     * @param openAPI The OpenAPI specification to validate.
+     */
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+    default void validateSpec(OpenAPI openAPI) {
+        List<Operation> operations = new ArrayList<>();
+        Stream.of(openAPI.getPaths(), openAPI.getWebhooks())
+            .filter(Objects::nonNull)
+            .flatMap(pathItems -> pathItems.values().stream())
+            .forEach(pathItem -> collectOperations(openAPI, pathItem, operations));
+
+        List<String> violations = operations.parallelStream()
+            .flatMap(operation -> findUnsupportedFeatures(operation).stream())
+            .collect(Collectors.toList());
+        if (!violations.isEmpty()) {
+            throw new RuntimeException("The specification uses " + violations.size()
+                + " unsupported feature(s):\n - " + String.join("\n - ", violations));
+        }
+    }
+
+    /**
+     * Collects the operations of a path item, and those of their callbacks,
+     * as the generator will see them.
+     *
+     * @param openAPI    The OpenAPI specification the path item belongs to.
+     * @param pathItem   The path item.
+     * @param operations The collected operations.
+     */
+    private static void collectOperations(OpenAPI openAPI, PathItem pathItem, List<Operation> operations) {
+        for (Operation operation : pathItem.readOperations()) {
+            List<Parameter> parameters = new ArrayList<>();
+            Set<String> declared = new HashSet<>();
+            if (operation.getParameters() != null) {
+                for (Parameter parameter : operation.getParameters()) {
+                    Parameter resolved = resolve(openAPI, parameter);
+                    parameters.add(resolved);
+                    declared.add(resolved.getIn() + ":" + resolved.getName());
+                }
+            }
+            if (pathItem.getParameters() != null) {
+                for (Parameter parameter : pathItem.getParameters()) {
+                    Parameter resolved = resolve(openAPI, parameter);
+                    if (!declared.contains(resolved.getIn() + ":" + resolved.getName())) {
+                        parameters.add(resolved);
+                    }
+                }
+            }
+            operations.add(new Operation()
+                .operationId(operation.getOperationId())
+                .parameters(parameters)
+                .requestBody(resolve(openAPI, operation.getRequestBody())));
+
+            if (operation.getCallbacks() != null) {
+                for (Callback callback : operation.getCallbacks().values()) {
+                    callback.values().forEach(callbackPathItem -> collectOperations(openAPI, callbackPathItem, operations));
+                }
+            }
+        }
+    }
+
+    private static Parameter resolve(OpenAPI openAPI, Parameter parameter) {
+        String ref = parameter.get$ref();
+        Components components = openAPI.getComponents();
+        if (ref == null || components == null || components.getParameters() == null) {
+            return parameter;
+        }
+        Parameter resolved = components.getParameters().get(ref.substring(ref.lastIndexOf('/') + 1));
+        return resolved != null ? resolved : parameter;
+    }
+
+    @Nullable
+    private static RequestBody resolve(OpenAPI openAPI, @Nullable RequestBody requestBody) {
+        String ref = requestBody != null ? requestBody.get$ref() : null;
+        Components components = openAPI.getComponents();
+        if (ref == null || components == null || components.getRequestBodies() == null) {
+            return requestBody;
+        }
+        RequestBody resolved = components.getRequestBodies().get(ref.substring(ref.lastIndexOf('/') + 1));
+        return resolved != null ? resolved : requestBody;
+    }
+
     /**
      * Checks an operation for unsupported features like cookies, form parameters,
      * and file uploads. Throws a RuntimeException if an unsupported feature is
@@ -13,15 +118,33 @@ public interface UnsupportedFeaturesValidator {
      *
      * @param operation The OpenAPI Operation object to validate.
      */
-    @SuppressFBWarnings({"IMPROPER_UNICODE", "THROWS_METHOD_THROWS_RUNTIMEEXCEPTION"})
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
     default void validateOperation(Operation operation) {
+        List<String> violations = findUnsupportedFeatures(operation);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.get(0));
+        }
+    }
+
+    /**
+     * Finds the unsupported features an operation uses, such as cookies,
+     * form parameters and file uploads.
+     *
+     * @param operation The OpenAPI Operation object to check.
+     * @return A description of every unsupported feature, or an empty list.
+     */
+    @SuppressFBWarnings("IMPROPER_UNICODE")
+    default List<String> findUnsupportedFeatures(Operation operation) {
+        List<String> violations = new ArrayList<>();
+
         // Check for cookie parameters
         if (operation.getParameters() != null) {
             for (Parameter param : operation.getParameters()) {
                 if ("cookie".equalsIgnoreCase(param.getIn())) {
-                    throw new RuntimeException(
+                    violations.add(
                         "Operation '" + operation.getOperationId() + "' uses cookie parameters, which are not supported."
                     );
+                    break;
                 }
             }
         }
@@ -30,11 +153,12 @@ public interface UnsupportedFeaturesValidator {
         if (operation.getRequestBody() != null && operation.getRequestBody().getContent() != null) {
             for (String mediaType : operation.getRequestBody().getContent().keySet()) {
                 if ("application/x-www-form-urlencoded".equalsIgnoreCase(mediaType) || "multipart/form-data".equalsIgnoreCase(mediaType)) {
-                    throw new RuntimeException(
+                    violations.add(
                         "Operation '" + operation.getOperationId() + "' uses form parameters or file uploads ('" + mediaType + "'), which are not supported."
                     );
                 }
             }
         }
+        return violations;
     }
 }
@@ -1,13 +1,12 @@
 package io.github.mridang.codegen.generators.java;
 
+import io.github.mridang.codegen.generators.CachingMustacheEngineAdapter;
+import io.github.mridang.codegen.generators.GeneratedFilesManifest;
 import io.github.mridang.codegen.generators.UnsupportedFeaturesValidator;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.servers.Server;
-import org.openapitools.codegen.CodegenOperation;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.JavaClientCodegen;
 
-import java.util.List;
-
 /**
  * A custom Java code generator that provides sane defaults for generating a
  * minimal, modern Java client.
@@ -17,12 +16,13 @@ import java.util.List;
  * <li>Use the Apache HttpClient library for HTTP requests.</li>
  * <li>Use Jackson for JSON serialization.</li>
  * <li>Use the Java 8 Date/Time library (java.time.*).</li>
+ * <li>Omit the generation timestamp, so that unchanged files stay unchanged.</li>
  * <li>Generate only model and API files, excluding tests, docs, and
  * other supporting project files.</li>
  * </ul>
  */
 @SuppressWarnings("unused")
-public class BetterJavaCodegen extends JavaClientCodegen implements UnsupportedFeaturesValidator {
+public class BetterJavaCodegen extends JavaClientCodegen implements UnsupportedFeaturesValidator, GeneratedFilesManifest {
 
     /**
      * Initializes a new instance of the {@code BetterJavaCodegen} class,
@@ -34,8 +34,11 @@ public class BetterJavaCodegen extends JavaClientCodegen implements UnsupportedF
         this.setLibrary(APACHE);
         this.setSerializationLibrary(SERIALIZATION_LIBRARY_JACKSON);
         this.setDateLibrary("java8");
+        // A timestamp would change every generated file on every run.
+        this.setHideGenerationTimestamp(true);
 
         setTemplateDir("templates/java");
+        setTemplatingEngine(new CachingMustacheEngineAdapter());
 
         apiDocTemplateFiles.clear();
         modelDocTemplateFiles.clear();
@@ -69,9 +72,48 @@ public class BetterJavaCodegen extends JavaClientCodegen implements UnsupportedF
         this.supportingFiles.clear();
     }
 
+    /**
+     * Preprocesses the specification and then checks all of its operations
+     * for unsupported features, so that generation fails before any model is
+     * processed or any template is rendered.
+     *
+     * @param openAPI The OpenAPI specification to generate from.
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        super.preprocessOpenAPI(openAPI);
+        validateSpec(openAPI);
+    }
+
+    /**
+     * Replaces the default mustache engine with one that shares compiled
+     * templates across generators and runs.
+     *
+     * @param templatingEngine The templating engine to use.
+     */
+    @Override
+    public void setTemplatingEngine(TemplatingEngineAdapter templatingEngine) {
+        super.setTemplatingEngine(CachingMustacheEngineAdapter.wrap(templatingEngine));
+    }
+
+    /**
+     * Always enables minimal updates, so that generated files whose content
+     * is unchanged are not rewritten and keep their modification time.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEnableMinimalUpdate() {
+        return true;
+    }
+
+    /**
+     * Deletes the files of the previous generation that were not generated
+     * again, and updates the manifest of generated files.
+     */
     @Override
-    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, List<Server> servers) {
-        validateOperation(operation);
-        return super.fromOperation(path, httpMethod, operation, servers);
+    public void postProcess() {
+        super.postProcess();
+        updateManifest();
     }
 }
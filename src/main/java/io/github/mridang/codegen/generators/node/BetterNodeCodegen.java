@@ -1,13 +1,13 @@
 package io.github.mridang.codegen.generators.node;
 
+import io.github.mridang.codegen.generators.CachingMustacheEngineAdapter;
+import io.github.mridang.codegen.generators.GeneratedFilesManifest;
 import io.github.mridang.codegen.generators.UnsupportedFeaturesValidator;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.OpenAPI;
 import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.TypeScriptFetchClientCodegen;
 
-import java.util.List;
-
 /**
  * A custom TypeScript code generator that provides sane defaults for generating
  * a minimal, modern TypeScript client using the Fetch API.
@@ -24,7 +24,7 @@ import java.util.List;
  * </ul>
  */
 @SuppressWarnings("unused")
-public class BetterNodeCodegen extends TypeScriptFetchClientCodegen implements UnsupportedFeaturesValidator {
+public class BetterNodeCodegen extends TypeScriptFetchClientCodegen implements UnsupportedFeaturesValidator, GeneratedFilesManifest {
 
     /**
      * Initializes a new instance of the {@code BetterNodeCodegen} class,
@@ -45,6 +45,7 @@ public class BetterNodeCodegen extends TypeScriptFetchClientCodegen implements U
         additionalProperties.put(USE_SQUARE_BRACKETS_IN_ARRAY_NAMES, true);
 
         setTemplateDir("templates/node");
+        setTemplatingEngine(new CachingMustacheEngineAdapter());
 
         apiDocTemplateFiles.clear();
         modelDocTemplateFiles.clear();
@@ -78,9 +79,48 @@ public class BetterNodeCodegen extends TypeScriptFetchClientCodegen implements U
         this.supportingFiles.clear();
     }
 
+    /**
+     * Preprocesses the specification and then checks all of its operations
+     * for unsupported features, so that generation fails before any model is
+     * processed or any template is rendered.
+     *
+     * @param openAPI The OpenAPI specification to generate from.
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        super.preprocessOpenAPI(openAPI);
+        validateSpec(openAPI);
+    }
+
+    /**
+     * Replaces the default mustache engine with one that shares compiled
+     * templates across generators and runs.
+     *
+     * @param templatingEngine The templating engine to use.
+     */
+    @Override
+    public void setTemplatingEngine(TemplatingEngineAdapter templatingEngine) {
+        super.setTemplatingEngine(CachingMustacheEngineAdapter.wrap(templatingEngine));
+    }
+
+    /**
+     * Always enables minimal updates, so that generated files whose content
+     * is unchanged are not rewritten and keep their modification time.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEnableMinimalUpdate() {
+        return true;
+    }
+
+    /**
+     * Deletes the files of the previous generation that were not generated
+     * again, and updates the manifest of generated files.
+     */
     @Override
-    public ExtendedCodegenOperation fromOperation(String path, String httpMethod, Operation operation, List<Server> servers) {
-        validateOperation(operation);
-        return super.fromOperation(path, httpMethod, operation, servers);
+    public void postProcess() {
+        super.postProcess();
+        updateManifest();
     }
 }
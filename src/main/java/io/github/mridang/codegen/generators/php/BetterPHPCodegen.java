@@ -1,14 +1,13 @@
 package io.github.mridang.codegen.generators.php;
 
+import io.github.mridang.codegen.generators.CachingMustacheEngineAdapter;
+import io.github.mridang.codegen.generators.GeneratedFilesManifest;
 import io.github.mridang.codegen.generators.UnsupportedFeaturesValidator;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.servers.Server;
-import org.openapitools.codegen.CodegenOperation;
+import io.swagger.v3.oas.models.OpenAPI;
 import org.openapitools.codegen.SupportingFile;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.PhpClientCodegen;
 
-import java.util.List;
-
 /**
  * A custom PHP code generator that provides sane defaults for generating a
  * minimal, modern PHP client.
@@ -22,7 +21,7 @@ import java.util.List;
  * </ul>
  */
 @SuppressWarnings("unused")
-public class BetterPHPCodegen extends PhpClientCodegen implements UnsupportedFeaturesValidator {
+public class BetterPHPCodegen extends PhpClientCodegen implements UnsupportedFeaturesValidator, GeneratedFilesManifest {
 
     /**
      * Initializes a new instance of the {@code BetterPHPCodegen} class,
@@ -37,6 +36,7 @@ public class BetterPHPCodegen extends PhpClientCodegen implements UnsupportedFea
         additionalProperties.put(VARIABLE_NAMING_CONVENTION, "camelCase");
 
         setTemplateDir("templates/php");
+        setTemplatingEngine(new CachingMustacheEngineAdapter());
 
         apiDocTemplateFiles.clear();
         modelDocTemplateFiles.clear();
@@ -71,9 +71,48 @@ public class BetterPHPCodegen extends PhpClientCodegen implements UnsupportedFea
         supportingFiles.add(new SupportingFile("ModelInterface.mustache", toSrcPath(modelPackage, srcBasePath), "ModelInterface.php"));
     }
 
+    /**
+     * Preprocesses the specification and then checks all of its operations
+     * for unsupported features, so that generation fails before any model is
+     * processed or any template is rendered.
+     *
+     * @param openAPI The OpenAPI specification to generate from.
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        super.preprocessOpenAPI(openAPI);
+        validateSpec(openAPI);
+    }
+
+    /**
+     * Replaces the default mustache engine with one that shares compiled
+     * templates across generators and runs.
+     *
+     * @param templatingEngine The templating engine to use.
+     */
+    @Override
+    public void setTemplatingEngine(TemplatingEngineAdapter templatingEngine) {
+        super.setTemplatingEngine(CachingMustacheEngineAdapter.wrap(templatingEngine));
+    }
+
+    /**
+     * Always enables minimal updates, so that generated files whose content
+     * is unchanged are not rewritten and keep their modification time.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEnableMinimalUpdate() {
+        return true;
+    }
+
+    /**
+     * Deletes the files of the previous generation that were not generated
+     * again, and updates the manifest of generated files.
+     */
     @Override
-    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, List<Server> servers) {
-        validateOperation(operation);
-        return super.fromOperation(path, httpMethod, operation, servers);
+    public void postProcess() {
+        super.postProcess();
+        updateManifest();
     }
 }
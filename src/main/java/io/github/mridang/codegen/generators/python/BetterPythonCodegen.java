@@ -1,14 +1,14 @@
 package io.github.mridang.codegen.generators.python;
 
+import io.github.mridang.codegen.generators.CachingMustacheEngineAdapter;
+import io.github.mridang.codegen.generators.GeneratedFilesManifest;
 import io.github.mridang.codegen.generators.UnsupportedFeaturesValidator;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.servers.Server;
-import org.openapitools.codegen.CodegenOperation;
+import io.swagger.v3.oas.models.OpenAPI;
 import org.openapitools.codegen.SupportingFile;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.PythonClientCodegen;
 
 import java.io.File;
-import java.util.List;
 
 /**
  * A custom Python code generator that provides sane defaults for generating a
@@ -25,7 +25,7 @@ import java.util.List;
  * </ul>
  */
 @SuppressWarnings("unused")
-public class BetterPythonCodegen extends PythonClientCodegen implements UnsupportedFeaturesValidator {
+public class BetterPythonCodegen extends PythonClientCodegen implements UnsupportedFeaturesValidator, GeneratedFilesManifest {
 
     /**
      * Initializes a new instance of the {@code BetterPythonCodegen} class,
@@ -39,6 +39,7 @@ public class BetterPythonCodegen extends PythonClientCodegen implements Unsuppor
         this.setUseOneOfDiscriminatorLookup(true);
 
         setTemplateDir("templates/python");
+        setTemplatingEngine(new CachingMustacheEngineAdapter());
 
         apiDocTemplateFiles.clear();
         modelDocTemplateFiles.clear();
@@ -78,9 +79,48 @@ public class BetterPythonCodegen extends PythonClientCodegen implements Unsuppor
 
     }
 
+    /**
+     * Preprocesses the specification and then checks all of its operations
+     * for unsupported features, so that generation fails before any model is
+     * processed or any template is rendered.
+     *
+     * @param openAPI The OpenAPI specification to generate from.
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        super.preprocessOpenAPI(openAPI);
+        validateSpec(openAPI);
+    }
+
+    /**
+     * Replaces the default mustache engine with one that shares compiled
+     * templates across generators and runs.
+     *
+     * @param templatingEngine The templating engine to use.
+     */
+    @Override
+    public void setTemplatingEngine(TemplatingEngineAdapter templatingEngine) {
+        super.setTemplatingEngine(CachingMustacheEngineAdapter.wrap(templatingEngine));
+    }
+
+    /**
+     * Always enables minimal updates, so that generated files whose content
+     * is unchanged are not rewritten and keep their modification time.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEnableMinimalUpdate() {
+        return true;
+    }
+
+    /**
+     * Deletes the files of the previous generation that were not generated
+     * again, and updates the manifest of generated files.
+     */
     @Override
-    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, List<Server> servers) {
-        validateOperation(operation);
-        return super.fromOperation(path, httpMethod, operation, servers);
+    public void postProcess() {
+        super.postProcess();
+        updateManifest();
     }
 }
@@ -1,16 +1,16 @@
 package io.github.mridang.codegen.generators.ruby;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.github.mridang.codegen.generators.CachingMustacheEngineAdapter;
+import io.github.mridang.codegen.generators.GeneratedFilesManifest;
 import io.github.mridang.codegen.generators.UnsupportedFeaturesValidator;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.OpenAPI;
 import org.apache.commons.lang3.StringUtils;
-import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.RubyClientCodegen;
 
 import java.io.File;
 import java.nio.file.Paths;
-import java.util.List;
 import java.util.Locale;
 
 import static org.openapitools.codegen.utils.StringUtils.underscore;
@@ -29,7 +29,7 @@ import static org.openapitools.codegen.utils.StringUtils.underscore;
  * </ul>
  */
 @SuppressWarnings("unused")
-public class BetterRubyCodegen extends RubyClientCodegen implements UnsupportedFeaturesValidator {
+public class BetterRubyCodegen extends RubyClientCodegen implements UnsupportedFeaturesValidator, GeneratedFilesManifest {
 
     /**
      * Initializes a new instance of the {@code BetterRubyCodegen} class,
@@ -43,6 +43,7 @@ public class BetterRubyCodegen extends RubyClientCodegen implements UnsupportedF
         this.setDisallowAdditionalPropertiesIfNotPresent(false);
 
         setTemplateDir("templates/ruby");
+        setTemplatingEngine(new CachingMustacheEngineAdapter());
 
         apiDocTemplateFiles.clear();
         modelDocTemplateFiles.clear();
@@ -158,9 +159,48 @@ public class BetterRubyCodegen extends RubyClientCodegen implements UnsupportedF
         return result.toLowerCase(Locale.ROOT);
     }
 
+    /**
+     * Preprocesses the specification and then checks all of its operations
+     * for unsupported features, so that generation fails before any model is
+     * processed or any template is rendered.
+     *
+     * @param openAPI The OpenAPI specification to generate from.
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        super.preprocessOpenAPI(openAPI);
+        validateSpec(openAPI);
+    }
+
+    /**
+     * Replaces the default mustache engine with one that shares compiled
+     * templates across generators and runs.
+     *
+     * @param templatingEngine The templating engine to use.
+     */
+    @Override
+    public void setTemplatingEngine(TemplatingEngineAdapter templatingEngine) {
+        super.setTemplatingEngine(CachingMustacheEngineAdapter.wrap(templatingEngine));
+    }
+
+    /**
+     * Always enables minimal updates, so that generated files whose content
+     * is unchanged are not rewritten and keep their modification time.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isEnableMinimalUpdate() {
+        return true;
+    }
+
+    /**
+     * Deletes the files of the previous generation that were not generated
+     * again, and updates the manifest of generated files.
+     */
     @Override
-    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation, List<Server> servers) {
-        validateOperation(operation);
-        return super.fromOperation(path, httpMethod, operation, servers);
+    public void postProcess() {
+        super.postProcess();
+        updateManifest();
     }
 }
@@ -3,15 +3,19 @@ package io.github.mridang.codegen.rules;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Implements a custom rule to handle empty request bodies in an OpenAPI specification.
@@ -21,109 +25,235 @@ import java.util.Map;
  * 2.  <b>Remove:</b> Deletes any request body that is both optional (not required)
  * and effectively empty.
  */
-public class CleanEmptyRequestBodiesRule implements CustomNormalizationRule {
+public class CleanEmptyRequestBodiesRule implements TraversableRule {
 
     /**
-     * Checks if a schema is "effectively empty". An empty schema is one that is
-     * null, a broken reference, defines an object with no properties, or is a
-     * blank schema with no defining characteristics.
+     * Creates a visitor that tags or removes empty request bodies. The mode is
+     * determined by the 'value' key in ruleConfig, defaulting to "Tag".
      *
-     * @param schema  The schema to inspect, which may be a reference.
-     * @param openAPI The full OpenAPI model, used to resolve references.
-     * @return true if the schema is effectively empty, false otherwise.
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig Configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     * @return The visitor performing the rule.
      */
-    private boolean isSchemaEffectivelyEmpty(@Nullable Schema<?> schema, OpenAPI openAPI) {
-        if (schema == null) {
-            return true;
+    @Override
+    @SuppressFBWarnings("IMPROPER_UNICODE")
+    public SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        // Determine the operating mode, defaulting to "Tag".
+        String mode = ruleConfig.getOrDefault(RULE_VALUE_KEY, "Tag");
+        boolean removeMode = "Remove".equalsIgnoreCase(mode);
+
+        return new Visitor(mode, removeMode, new EmptinessAnalysis(),
+            RuleReport.fromConfig("CLEAN_EMPTY_REQUEST_BODIES", ruleConfig), logger);
+    }
+
+    /**
+     * Tags or removes every visited request body that is effectively empty.
+     */
+    private static final class Visitor implements SpecVisitor {
+
+        private final String mode;
+        private final boolean removeMode;
+        private final EmptinessAnalysis emptiness;
+        private final RuleReport report;
+        private final Logger logger;
+
+        Visitor(String mode, boolean removeMode, EmptinessAnalysis emptiness, RuleReport report, Logger logger) {
+            this.mode = mode;
+            this.removeMode = removeMode;
+            this.emptiness = emptiness;
+            this.report = report;
+            this.logger = logger;
         }
 
-        // If the schema is a reference ($ref), resolve it from the components.
-        if (schema.get$ref() != null) {
-            String ref = schema.get$ref();
-            // Assumes a simple local reference like '#/components/schemas/MySchema'
-            String componentName = ref.substring(ref.lastIndexOf('/') + 1);
-            if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
-                schema = openAPI.getComponents().getSchemas().get(componentName);
-                if (schema == null) {
-                    return true; // The reference is broken or points to null.
+        @Override
+        public boolean supportsParallelTraversal() {
+            // Request bodies may be shared between path items, and are modified in place.
+            return false;
+        }
+
+        @Override
+        public void beforeTraversal(OpenAPI openAPI) {
+            logger.info("Starting rule to handle empty request bodies in '{}' mode.", mode);
+
+            if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
+                throw new NoPathsException(
+                    "Error: Paths object is null or empty, cannot process request " +
+                        "bodies for empty request body removal."
+                );
+            }
+        }
+
+        @Override
+        public boolean visitRequestBody(TraversalContext context, RequestBody requestBody) {
+            RequestBody resolved = resolve(requestBody, context.getIndex());
+            if (resolved == null) {
+                // A body whose reference can't be followed can't be judged either, so it is left as is.
+                return true;
+            }
+            Content content = resolved.getContent();
+            Schema<?> schema = null;
+            // Get the schema from the first available media type.
+            if (content != null && !content.isEmpty()) {
+                MediaType mediaType = content.values().iterator().next();
+                schema = mediaType.getSchema();
+            }
+
+            if (emptiness.isEmpty(schema, context.getIndex())) {
+                Operation operation = context.getOperation();
+                // In "Remove" mode, only remove the body if it's optional.
+                if (removeMode) {
+                    if (!Boolean.TRUE.equals(resolved.getRequired())) {
+                        report.record(context.getLogger(), Level.INFO, "request bodies removed",
+                            context.getMethod() + " " + context.getPath(),
+                            "Removing optional empty request body for operation '{}'", operation.getOperationId());
+                        return false;
+                    }
+                }
+                // In "Tag" mode, only tag the body if it's required.
+                else {
+                    if (Boolean.TRUE.equals(resolved.getRequired())) {
+                        report.record(context.getLogger(), Level.INFO, "request bodies tagged",
+                            context.getMethod() + " " + context.getPath(),
+                            "Tagging required empty request body for operation '{}' with 'x-is-empty-body: true'",
+                            operation.getOperationId());
+                        resolved.addExtension("x-is-empty-body", true);
+                    }
                 }
             }
+            return true;
         }
 
-        // An object schema is empty if it has no properties and doesn't allow additional ones.
-        if ("object".equals(schema.getType())) {
-            boolean hasNoProperties = schema.getProperties() == null || schema.getProperties().isEmpty();
-            Object additionalProps = schema.getAdditionalProperties();
-            boolean allowsAdditional = additionalProps instanceof Schema || Boolean.TRUE.equals(additionalProps);
-            return hasNoProperties && !allowsAdditional;
+        /**
+         * Follows the chain of references of a request body to the body that
+         * defines its content.
+         *
+         * @param requestBody The request body, which may be a reference.
+         * @param index       The index of the OpenAPI model, used to resolve references.
+         * @return The body defining the content, or null if a reference is
+         * broken or the chain is a cycle.
+         */
+        @Nullable
+        private static RequestBody resolve(RequestBody requestBody, SpecIndex index) {
+            RequestBody resolved = requestBody;
+            Set<String> seen = new HashSet<>();
+            while (resolved != null && resolved.get$ref() != null) {
+                if (!seen.add(resolved.get$ref())) {
+                    return null;
+                }
+                resolved = index.resolveRequestBody(resolved.get$ref());
+            }
+            return resolved;
         }
 
-        // A schema is also empty if it has no type and no other structural keywords.
-        // This catches cases like a completely blank `new Schema<>()`.
-        return schema.getType() == null &&
-            schema.getProperties() == null &&
-            schema.getItems() == null &&
-            schema.getAllOf() == null &&
-            schema.getAnyOf() == null &&
-            schema.getOneOf() == null;
+        @Override
+        public void afterTraversal(OpenAPI openAPI) {
+            report.publish(logger);
+            logger.info("Rule for handling empty request bodies completed.");
+        }
     }
 
     /**
-     * Applies the rule to tag or remove empty request bodies from the OpenAPI object.
-     * The mode is determined by the 'value' key in ruleConfig, defaulting to "Tag".
-     *
-     * @param openAPI    The OpenAPI object to be modified.
-     * @param ruleConfig Configuration for this rule.
-     * @param logger     A logger instance for logging messages.
+     * Decides whether schemas are "effectively empty", i.e. whether they
+     * describe no content at all. A schema is empty if it is null, a broken
+     * reference, a reference to an empty schema, or if it defines neither
+     * properties nor any other structural keyword and all the schemas it is
+     * composed of with {@code allOf} are empty in turn.
+     * <p>
+     * Results are memoized by schema identity, so that the component shared
+     * by many request bodies is analysed only once. Reference and
+     * {@code allOf} cycles are detected, and a schema that is only composed
+     * of itself is considered empty. Instances may be shared between threads.
      */
-    @Override
-    @SuppressFBWarnings("IMPROPER_UNICODE")
-    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
-        // Determine the operating mode, defaulting to "Tag".
-        String mode = ruleConfig.getOrDefault(RULE_VALUE_KEY, "Tag");
-        logger.info("Starting rule to handle empty request bodies in '{}' mode.", mode);
+    private static final class EmptinessAnalysis {
 
-        if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
-            throw new NoPathsException(
-                "Error: Paths object is null or empty, cannot process request " +
-                    "bodies for empty request body removal."
-            );
-        }
+        private final Map<Schema<?>, Boolean> memo = Collections.synchronizedMap(new IdentityHashMap<>());
 
-        for (PathItem pathItem : openAPI.getPaths().values()) {
-            for (Operation operation : pathItem.readOperations()) {
-                RequestBody requestBody = operation.getRequestBody();
-                if (requestBody == null) {
-                    continue;
-                }
+        /**
+         * Checks if a schema is effectively empty.
+         *
+         * @param schema The schema to inspect, which may be a reference.
+         * @param index  The index of the OpenAPI model, used to resolve references.
+         * @return true if the schema is effectively empty, false otherwise.
+         */
+        boolean isEmpty(@Nullable Schema<?> schema, SpecIndex index) {
+            if (schema == null) {
+                return true;
+            }
+            Boolean known = memo.get(schema);
+            if (known != null) {
+                return known;
+            }
 
-                Content content = requestBody.getContent();
-                Schema<?> schema = null;
-                // Get the schema from the first available media type.
-                if (content != null && !content.isEmpty()) {
-                    MediaType mediaType = content.values().iterator().next();
-                    schema = mediaType.getSchema();
+            IdentityHashMap<Schema<?>, Boolean> results = new IdentityHashMap<>();
+            boolean empty = analyse(schema, index, Collections.newSetFromMap(new IdentityHashMap<>()), results);
+            // Schemas on a cycle were assumed to be empty while their analysis was still in progress. If the
+            // root turned out to be empty, that assumption held for every schema visited; otherwise, only the
+            // schemas found to be non-empty are certain, since adding content can never make a schema empty.
+            results.forEach((visited, result) -> {
+                if (empty || !result) {
+                    memo.put(visited, result);
                 }
+            });
+            return empty;
+        }
 
-                if (isSchemaEffectivelyEmpty(schema, openAPI)) {
-                    // In "Remove" mode, only remove the body if it's optional.
-                    if ("Remove".equalsIgnoreCase(mode)) {
-                        if (!Boolean.TRUE.equals(requestBody.getRequired())) {
-                            logger.info("Removing optional empty request body for operation '{}'", operation.getOperationId());
-                            operation.setRequestBody(null);
-                        }
-                    }
-                    // In "Tag" mode, only tag the body if it's required.
-                    else {
-                        if (Boolean.TRUE.equals(requestBody.getRequired())) {
-                            logger.info("Tagging required empty request body for operation '{}' with 'x-is-empty-body: true'", operation.getOperationId());
-                            requestBody.addExtension("x-is-empty-body", true);
+        private boolean analyse(Schema<?> schema, SpecIndex index, Set<Schema<?>> inProgress,
+                                IdentityHashMap<Schema<?>, Boolean> results) {
+            Boolean known = memo.get(schema);
+            if (known == null) {
+                known = results.get(schema);
+            }
+            if (known != null) {
+                return known;
+            }
+            if (!inProgress.add(schema)) {
+                return true;
+            }
+
+            boolean empty;
+            if (schema.get$ref() != null) {
+                Schema<?> target = index.resolveSchema(schema.get$ref());
+                // A broken reference, or one that points to null, is empty.
+                empty = target == null || analyse(target, index, inProgress, results);
+            } else {
+                empty = hasNoOwnContent(schema);
+                if (empty && schema.getAllOf() != null) {
+                    for (Schema<?> part : schema.getAllOf()) {
+                        if (part != null && !analyse(part, index, inProgress, results)) {
+                            empty = false;
+                            break;
                         }
                     }
                 }
             }
+
+            inProgress.remove(schema);
+            results.put(schema, empty);
+            return empty;
+        }
+
+        /**
+         * Checks if a schema itself, disregarding its {@code allOf}
+         * composition, describes no content. An object schema is empty if it
+         * has no properties and doesn't allow additional ones. A schema
+         * without a type is empty if it has no other structural keywords,
+         * like a completely blank {@code new Schema<>()}.
+         */
+        private static boolean hasNoOwnContent(Schema<?> schema) {
+            if ("object".equals(schema.getType())) {
+                boolean hasNoProperties = schema.getProperties() == null || schema.getProperties().isEmpty();
+                Object additionalProps = schema.getAdditionalProperties();
+                boolean allowsAdditional = additionalProps instanceof Schema || Boolean.TRUE.equals(additionalProps);
+                return hasNoProperties && !allowsAdditional;
+            }
+
+            return schema.getType() == null &&
+                schema.getProperties() == null &&
+                schema.getItems() == null &&
+                schema.getAnyOf() == null &&
+                schema.getOneOf() == null;
         }
-        logger.info("Rule for handling empty request bodies completed.");
     }
 
     /**
@@ -142,4 +272,26 @@ public class CleanEmptyRequestBodiesRule implements CustomNormalizationRule {
             super(message);
         }
     }
+
+    /**
+     * Registers the rule for cleaning empty request bodies under the
+     * {@code CLEAN_EMPTY_REQUEST_BODIES} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "CLEAN_EMPTY_REQUEST_BODIES";
+        }
+
+        @Override
+        public int getOrder() {
+            return 200;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new CleanEmptyRequestBodiesRule();
+        }
+    }
 }
@@ -14,6 +14,13 @@ public interface CustomNormalizationRule {
 
     String RULE_VALUE_KEY = "value";
 
+    /**
+     * The configuration key that is set to "true" when the rule should report
+     * its changes through a {@link RuleReport} summary rather than logging
+     * every changed element.
+     */
+    String RULE_SUMMARY_KEY = "summary";
+
     /**
      * Applies the specific normalization rule to the given OpenAPI object.
      * Implementations should modify the {@code openAPI} object in place.
@@ -24,4 +31,36 @@ public interface CustomNormalizationRule {
      * @param logger     A logger instance for logging messages within the rule.
      */
     void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger);
+
+    /**
+     * Applies the rule while recording its cost and effect. The caller
+     * measures the time and allocations of the whole call, so rules only
+     * need to override this to report the nodes they visited and removed.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this specific rule.
+     * @param logger     A logger instance for logging messages within the rule.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     */
+    default void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics) {
+        apply(openAPI, ruleConfig, logger);
+    }
+
+    /**
+     * Applies the rule with access to the index shared by all rules of a
+     * normalization. Rules that override this must keep the index up to date
+     * with the changes they make. By default, the rule is applied on its own
+     * and the whole index is rebuilt afterwards.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this specific rule.
+     * @param logger     A logger instance for logging messages within the rule.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     * @param index      The index of the OpenAPI object.
+     */
+    default void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics,
+                       SpecIndex index) {
+        apply(openAPI, ruleConfig, logger, metrics);
+        index.rebuild();
+    }
 }
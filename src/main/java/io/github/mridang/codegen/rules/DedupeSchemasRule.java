@@ -0,0 +1,326 @@
+package io.github.mridang.codegen.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Implements a custom rule that merges structurally identical schema
+ * components, such as {@code Address}, {@code Address1} and
+ * {@code OrderAddress}, into a single component, and rewrites every
+ * {@code $ref} to the merged components to point to the one that is kept.
+ * <p>
+ * Two schemas are identical if they are equal in every keyword, enums,
+ * titles and descriptions included, and their references to other schema
+ * components point to identical schemas in turn. This is decided by
+ * partition refinement:
+ * 1. Every schema is serialized into a canonical form in which the names
+ * of the schema components it references are replaced by a placeholder,
+ * and schemas with the same form are put into the same class.
+ * 2. Each class is split by the classes of the schemas its members
+ * reference, until no class splits any further.
+ * <p>
+ * Every round is linear in the size of the schemas, and the number of
+ * rounds is bounded by the depth of the reference chains, so that even
+ * recursive schemas such as two identical linked lists are merged. Of every
+ * class of identical schemas, the one declared first is kept.
+ * <p>
+ * Schemas that take part in polymorphism are never merged, as the
+ * discriminator tells them apart by name even when they are identical.
+ * These are the schemas a discriminator mapping names, the oneOf, anyOf and
+ * allOf children of a schema with a discriminator, and the schemas that
+ * extend a schema with a discriminator through allOf.
+ */
+public class DedupeSchemasRule implements CustomNormalizationRule {
+
+    private static final String SCHEMAS_PREFIX = "#/components/schemas/";
+
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        apply(openAPI, ruleConfig, logger, RuleMetrics.NONE);
+    }
+
+    /**
+     * Merges identical schemas, recording every schema component inspected
+     * as a visited node and every schema merged into another one as a
+     * removed node.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule (unused).
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     */
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics) {
+        logger.info("Starting DEDUPE_SCHEMAS rule.");
+
+        if (openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null
+            || openAPI.getComponents().getSchemas().size() < 2) {
+            logger.info("Fewer than two schema components found. Skipping schema deduplication.");
+            return;
+        }
+
+        @SuppressWarnings("rawtypes")
+        Map<String, Schema> schemas = openAPI.getComponents().getSchemas();
+        List<String> names = new ArrayList<>(schemas.keySet());
+        metrics.addVisited(names.size());
+
+        // Pass 1: Partition the schemas into classes of identical schemas.
+        int[] classes = partition(names, schemas, findPolymorphicSchemas(openAPI));
+
+        // Pass 2: Keep the first schema of every class and merge the others into it.
+        Map<Integer, String> kept = new HashMap<>();
+        Map<String, String> merged = new HashMap<>();
+        RuleReport report = RuleReport.fromConfig("DEDUPE_SCHEMAS", ruleConfig);
+        for (int i = 0; i < names.size(); i++) {
+            String canonical = kept.putIfAbsent(classes[i], names.get(i));
+            if (canonical != null) {
+                merged.put(names.get(i), canonical);
+                schemas.remove(names.get(i));
+                report.record(logger, Level.INFO, "schemas merged", names.get(i),
+                    "Merging schema '{}' into identical schema '{}'", names.get(i), canonical);
+            }
+        }
+        metrics.addRemoved(merged.size());
+
+        // Pass 3: Point every reference to a merged schema to the kept one.
+        if (!merged.isEmpty()) {
+            new ReferenceWalker(ref -> {
+            }, schema -> rewrite(schema, merged)).walk(openAPI);
+        }
+
+        report.publish(logger);
+        logger.info("DEDUPE_SCHEMAS rule completed. Merged {} schemas.", merged.size());
+    }
+
+    /**
+     * Assigns every schema a class, such that two schemas share a class
+     * exactly when they are identical.
+     *
+     * @param names       The names of the schema components.
+     * @param schemas     The schema components.
+     * @param polymorphic The names of the schemas that must not be merged.
+     * @return The class of every schema, by the index of its name.
+     */
+    @SuppressWarnings("rawtypes")
+    private static int[] partition(List<String> names, Map<String, Schema> schemas, Set<String> polymorphic) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(names.get(i), i);
+        }
+
+        int[] classes = new int[names.size()];
+        int[][] edges = new int[names.size()][];
+        Map<String, Integer> shapes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            List<Integer> targets = new ArrayList<>();
+            StringBuilder shape = new StringBuilder();
+            canonicalize(Json.mapper().valueToTree(schemas.get(names.get(i))), positions, targets, shape);
+            if (polymorphic.contains(names.get(i))) {
+                // A name is not valid JSON, so no other schema has this form.
+                shape.append(names.get(i));
+            }
+            classes[i] = shapes.computeIfAbsent(shape.toString(), key -> shapes.size());
+            edges[i] = targets.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int classCount = shapes.size();
+        while (true) {
+            Map<List<Integer>, Integer> signatures = new HashMap<>();
+            int[] refined = new int[names.size()];
+            for (int i = 0; i < names.size(); i++) {
+                List<Integer> signature = new ArrayList<>(edges[i].length + 1);
+                signature.add(classes[i]);
+                for (int target : edges[i]) {
+                    signature.add(classes[target]);
+                }
+                refined[i] = signatures.computeIfAbsent(signature, key -> signatures.size());
+            }
+            classes = refined;
+            if (signatures.size() == classCount) {
+                return classes;
+            }
+            classCount = signatures.size();
+        }
+    }
+
+    /**
+     * Finds the schema components that a discriminator tells apart by name,
+     * anywhere in the specification.
+     *
+     * @param openAPI The specification.
+     * @return The names of the schemas that must not be merged.
+     */
+    private static Set<String> findPolymorphicSchemas(OpenAPI openAPI) {
+        Set<Schema<?>> discriminated = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> polymorphic = new HashSet<>();
+        List<Schema<?>> all = new ArrayList<>();
+        new ReferenceWalker(ref -> {
+        }, all::add).walk(openAPI);
+
+        for (Schema<?> schema : all) {
+            if (schema.getDiscriminator() == null) {
+                continue;
+            }
+            discriminated.add(schema);
+            if (schema.getDiscriminator().getMapping() != null) {
+                for (String target : schema.getDiscriminator().getMapping().values()) {
+                    polymorphic.add(target.startsWith(SCHEMAS_PREFIX) ? componentName(target) : target);
+                }
+            }
+            addReferencedNames(schema.getOneOf(), polymorphic);
+            addReferencedNames(schema.getAnyOf(), polymorphic);
+            addReferencedNames(schema.getAllOf(), polymorphic);
+        }
+
+        // The schemas extending a schema with a discriminator, e.g. Cat with allOf: [Pet].
+        @SuppressWarnings("rawtypes")
+        Map<String, Schema> schemas = openAPI.getComponents().getSchemas();
+        schemas.forEach((name, schema) -> {
+            if (schema.getAllOf() == null) {
+                return;
+            }
+            for (Object allOf : schema.getAllOf()) {
+                Schema<?> parent = (Schema<?>) allOf;
+                Schema<?> resolved = parent.get$ref() != null && parent.get$ref().startsWith(SCHEMAS_PREFIX)
+                    ? schemas.get(componentName(parent.get$ref()))
+                    : parent;
+                if (resolved != null && discriminated.contains(resolved)) {
+                    polymorphic.add(name);
+                }
+            }
+        });
+        return polymorphic;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void addReferencedNames(@Nullable List<Schema> children, Set<String> names) {
+        if (children != null) {
+            for (Schema<?> child : children) {
+                if (child.get$ref() != null && child.get$ref().startsWith(SCHEMAS_PREFIX)) {
+                    names.add(componentName(child.get$ref()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the schema component a reference points into, e.g.
+     * "Pet" for both "#/components/schemas/Pet" and
+     * "#/components/schemas/Pet/properties/id".
+     *
+     * @param ref A reference starting with {@code #/components/schemas/}.
+     * @return The name of the schema component.
+     */
+    private static String componentName(String ref) {
+        int end = ref.indexOf('/', SCHEMAS_PREFIX.length());
+        return end < 0 ? ref.substring(SCHEMAS_PREFIX.length()) : ref.substring(SCHEMAS_PREFIX.length(), end);
+    }
+
+    /**
+     * Writes a canonical form of a JSON tree, with object fields sorted by
+     * name, and with references to schema components replaced by a
+     * placeholder. The referenced components are collected in the order they
+     * appear in the canonical form.
+     *
+     * @param node      The JSON tree.
+     * @param positions The index of every schema component by its name.
+     * @param targets   The collected indices of the referenced components.
+     * @param shape     The canonical form being written.
+     */
+    private static void canonicalize(JsonNode node, Map<String, Integer> positions, List<Integer> targets,
+                                     StringBuilder shape) {
+        if (node.isObject()) {
+            List<String> fields = new ArrayList<>();
+            node.fieldNames().forEachRemaining(fields::add);
+            Collections.sort(fields);
+            shape.append('{');
+            for (String field : fields) {
+                shape.append(Json.mapper().getNodeFactory().textNode(field)).append(':');
+                JsonNode value = node.get(field);
+                Integer target = "$ref".equals(field) && value.isTextual() && value.asText().startsWith(SCHEMAS_PREFIX)
+                    ? positions.get(value.asText().substring(SCHEMAS_PREFIX.length()))
+                    : null;
+                if (target != null) {
+                    targets.add(target);
+                    shape.append("#ref");
+                } else {
+                    canonicalize(value, positions, targets, shape);
+                }
+                shape.append(',');
+            }
+            shape.append('}');
+        } else if (node.isArray()) {
+            shape.append('[');
+            for (JsonNode item : node) {
+                canonicalize(item, positions, targets, shape);
+                shape.append(',');
+            }
+            shape.append(']');
+        } else {
+            shape.append(node);
+        }
+    }
+
+    /**
+     * Points the reference and the discriminator mapping of a schema to the
+     * kept schemas instead of the merged ones, including references into a
+     * merged schema, such as "#/components/schemas/Address1/properties/zip".
+     *
+     * @param schema The schema to rewrite.
+     * @param merged The kept schema name for every merged schema name.
+     */
+    private static void rewrite(Schema<?> schema, Map<String, String> merged) {
+        if (schema.get$ref() != null) {
+            schema.set$ref(rewrite(schema.get$ref(), merged));
+        }
+        if (schema.getDiscriminator() != null && schema.getDiscriminator().getMapping() != null) {
+            schema.getDiscriminator().getMapping().replaceAll((value, target) -> {
+                if (target.startsWith(SCHEMAS_PREFIX)) {
+                    return rewrite(target, merged);
+                }
+                String canonical = merged.get(target);
+                return canonical == null ? target : canonical;
+            });
+        }
+    }
+
+    private static String rewrite(String ref, Map<String, String> merged) {
+        if (!ref.startsWith(SCHEMAS_PREFIX)) {
+            return ref;
+        }
+        String name = componentName(ref);
+        String canonical = merged.get(name);
+        return canonical == null
+            ? ref
+            : SCHEMAS_PREFIX + canonical + ref.substring(SCHEMAS_PREFIX.length() + name.length());
+    }
+
+    /**
+     * Registers the rule for deduplicating schemas under the
+     * {@code DEDUPE_SCHEMAS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "DEDUPE_SCHEMAS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 550;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new DedupeSchemasRule();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.Map;
+
+/**
+ * Implements a custom rule to keep only the operations selected by an
+ * {@link OperationSelector} expression, e.g.
+ * {@code method:GET|POST tag:orders !x-internal:true}. All other operations
+ * are removed, and paths left without any operation are removed entirely.
+ * <p>
+ * The expression is compiled once, so that every operation is checked with
+ * a few hash lookups rather than by parsing the expression again.
+ */
+public class FilterOperationsRule implements TraversableRule {
+
+    /**
+     * Creates a visitor that removes the operations not selected by the
+     * expression in the rule's configuration.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule.
+     *                   It expects a key defined by {@code RULE_VALUE_KEY}
+     *                   whose value is the selector expression.
+     * @param logger     A logger instance for logging messages.
+     * @return The visitor performing the rule.
+     * @throws IllegalArgumentException If the selector expression is invalid.
+     */
+    @Override
+    public SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        String expression = ruleConfig.get(RULE_VALUE_KEY);
+        if (expression == null || expression.isBlank()) {
+            logger.warn("FILTER_OPERATIONS rule enabled, but no selector provided. Skipping.");
+            return SpecVisitor.NONE;
+        }
+
+        return new Visitor(OperationSelector.compile(expression),
+            RuleReport.fromConfig("FILTER_OPERATIONS", ruleConfig), logger);
+    }
+
+    /**
+     * Removes every visited operation that is not selected, and every path
+     * none of whose operations are selected.
+     */
+    private static final class Visitor implements SpecVisitor {
+
+        private final OperationSelector selector;
+        private final RuleReport report;
+        private final Logger logger;
+
+        Visitor(OperationSelector selector, RuleReport report, Logger logger) {
+            this.selector = selector;
+            this.report = report;
+            this.logger = logger;
+        }
+
+        @Override
+        public boolean supportsParallelTraversal() {
+            return true;
+        }
+
+        @Override
+        public void beforeTraversal(OpenAPI openAPI) {
+            logger.info("Starting FILTER_OPERATIONS rule. Selector: {}", selector);
+        }
+
+        @Override
+        public boolean visitPath(TraversalContext context) {
+            Map<PathItem.HttpMethod, Operation> operations = context.getPathItem().readOperationsMap();
+            for (Map.Entry<PathItem.HttpMethod, Operation> entry : operations.entrySet()) {
+                if (selector.matches(entry.getKey(), entry.getValue())) {
+                    return true;
+                }
+            }
+            if (!operations.isEmpty()) {
+                report.record(context.getLogger(), Level.INFO, "paths removed", context.getPath(),
+                    "Removing path '{}' as none of its operations are selected.", context.getPath());
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean visitOperation(TraversalContext context) {
+            if (selector.matches(context.getMethod(), context.getOperation())) {
+                return true;
+            }
+            report.record(context.getLogger(), Level.INFO, "operations removed",
+                context.getMethod() + " " + context.getPath(),
+                "Removing operation '{} {}' as it is not selected.", context.getMethod(), context.getPath());
+            return false;
+        }
+
+        @Override
+        public void afterTraversal(OpenAPI openAPI) {
+            report.publish(logger);
+            logger.info("FILTER_OPERATIONS rule completed.");
+        }
+    }
+
+    /**
+     * Registers the rule for filtering operations under the
+     * {@code FILTER_OPERATIONS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "FILTER_OPERATIONS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 420;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new FilterOperationsRule();
+        }
+    }
+}
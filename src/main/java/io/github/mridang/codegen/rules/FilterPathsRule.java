@@ -1,83 +1,111 @@
 package io.github.mridang.codegen.rules;
 
 import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Implements a custom rule to filter API paths based on regular expressions.
  * Only paths that match at least one of the provided regex patterns will be kept
  * in the OpenAPI specification. Paths that do not match any pattern are removed.
+ * A pattern matches a path if it is found anywhere in it, as with
+ * {@link java.util.regex.Matcher#find()}.
  * <p>
  * If the OpenAPI object's paths are null or empty, a {@code NoPathsException}
  * is thrown to indicate a critical issue.
  */
-public class FilterPathsRule implements CustomNormalizationRule {
+public class FilterPathsRule implements TraversableRule {
 
     /**
-     * Applies the rule to filter API paths based on regular expressions.
+     * Creates a visitor that filters API paths based on regular expressions.
      *
      * @param openAPI    The OpenAPI object to be modified.
      * @param ruleConfig A map containing the configuration for this rule.
      *                   It expects a key defined by {@code RULE_VALUE_KEY}
      *                   whose value is a comma-separated string of regex patterns.
      * @param logger     A logger instance for logging messages.
+     * @return The visitor performing the rule.
      * @throws NoPathsException If the OpenAPI object's paths are null or empty,
      *                          preventing filtering.
-     * @throws RuntimeException If no regex patterns are provided in the rule config.
      */
     @Override
-    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+    public SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
         String regexPatternsString = ruleConfig.get(RULE_VALUE_KEY);
         if (regexPatternsString == null || regexPatternsString.isEmpty()) {
             logger.warn("FILTER_PATHS rule enabled, but no regex value provided. Skipping.");
-            return;
+            return SpecVisitor.NONE;
         }
 
         List<String> regexPatterns = Arrays.asList(regexPatternsString.split(","));
+        PathMatcher matcher = new PathMatcher(regexPatterns);
+        return new Visitor(regexPatterns, matcher, RuleReport.fromConfig("FILTER_PATHS", ruleConfig), logger);
+    }
+
+    /**
+     * Removes every visited path that does not match any of the patterns.
+     * The patterns are compiled once into a {@link PathMatcher}, and the
+     * number of paths decided by each of its tiers is added to the report.
+     */
+    private static final class Visitor implements SpecVisitor {
+
+        private final List<String> regexPatterns;
+        private final PathMatcher matcher;
+        private final RuleReport report;
+        private final Logger logger;
 
-        logger.info("Starting FILTER_PATHS rule. Patterns: {}", regexPatterns);
+        Visitor(List<String> regexPatterns, PathMatcher matcher, RuleReport report, Logger logger) {
+            this.regexPatterns = regexPatterns;
+            this.matcher = matcher;
+            this.report = report;
+            this.logger = logger;
+        }
 
-        Paths originalPaths = openAPI.getPaths();
-        if (originalPaths == null || originalPaths.isEmpty()) {
-            throw new NoPathsException(
-                "Error: Paths object is null or empty, cannot perform route regex " +
-                    "filtering."
-            );
+        @Override
+        public boolean supportsParallelTraversal() {
+            return true;
         }
 
-        Paths newPaths = new Paths();
-        for (Map.Entry<String, PathItem> entry : originalPaths.entrySet()) {
-            String path = entry.getKey();
-            PathItem pathItem = entry.getValue();
-
-            boolean matchesAnyRegex = false;
-            for (String regex : regexPatterns) {
-                Pattern pattern = Pattern.compile(regex);
-                Matcher matcher = pattern.matcher(path);
-                if (matcher.find()) {
-                    matchesAnyRegex = true;
-                    break;
-                }
+        @Override
+        public void beforeTraversal(OpenAPI openAPI) {
+            logger.info("Starting FILTER_PATHS rule. Patterns: {}", regexPatterns);
+            logger.debug("Compiled the patterns into {}.", matcher);
+
+            Paths originalPaths = openAPI.getPaths();
+            if (originalPaths == null || originalPaths.isEmpty()) {
+                throw new NoPathsException(
+                    "Error: Paths object is null or empty, cannot perform route regex " +
+                        "filtering."
+                );
             }
+        }
 
+        @Override
+        public boolean visitPath(TraversalContext context) {
+            String path = context.getPath();
+
+            PathMatcher.Match match = matcher.match(path);
+            boolean matchesAnyRegex = match != PathMatcher.Match.NONE;
             if (matchesAnyRegex) {
-                newPaths.addPathItem(path, pathItem);
-                logger.debug("Keeping path '{}' as it matches a regex pattern.", path);
+                report.addStatistic("paths matched by " + match.name().toLowerCase(Locale.ENGLISH), 1);
+                context.getLogger().debug("Keeping path '{}' as it matches a regex pattern.", path);
             } else {
-                logger.info("Removing path '{}' as it does not match any regex pattern.", path);
+                report.record(context.getLogger(), Level.INFO, "paths removed", path,
+                    "Removing path '{}' as it does not match any regex pattern.", path);
             }
+            return matchesAnyRegex;
         }
 
-        openAPI.setPaths(newPaths);
-        logger.info("FILTER_PATHS rule completed.");
+        @Override
+        public void afterTraversal(OpenAPI openAPI) {
+            report.publish(logger);
+            logger.info("FILTER_PATHS rule completed.");
+        }
     }
 
     /**
@@ -96,4 +124,26 @@ public class FilterPathsRule implements CustomNormalizationRule {
             super(message);
         }
     }
+
+    /**
+     * Registers the rule for filtering paths under the
+     * {@code FILTER_PATHS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "FILTER_PATHS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 400;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new FilterPathsRule();
+        }
+    }
 }
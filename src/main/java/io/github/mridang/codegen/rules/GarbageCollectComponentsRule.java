@@ -1,25 +1,71 @@
 package io.github.mridang.codegen.rules;
 
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
 /**
  * Implements a "garbage collection" rule for an OpenAPI specification.
- * This rule runs in two passes:
- * 1. It traverses the entire OpenAPI object to find all active `$ref` values.
+ * This rule is a mark-and-sweep collector:
+ * 1. It marks every component reachable from the roots of the specification,
+ * i.e. the paths, the webhooks and the document level extensions, by
+ * following `$ref` values transitively over a worklist.
  * 2. It then iterates through all the definitions in the `components`
- * section and removes any that are not actively referenced.
+ * section and removes any that were not marked.
+ * <p>
+ * A component that is only referenced by other unreachable components is
+ * therefore removed as well. Every component is walked at most once, so the
+ * rule runs in time linear in the size of the specification. Path items and
+ * security schemes in the `components` section are never removed, so they
+ * are treated as roots too.
  * <p>
  * This should be run *after* other rules that might remove references.
  */
 public class GarbageCollectComponentsRule implements CustomNormalizationRule {
 
+    private static final String COMPONENTS_PREFIX = "#/components/";
+    private static final List<String> COLLECTED_PREFIXES = List.of(
+        "#/components/schemas/", "#/components/responses/", "#/components/parameters/",
+        "#/components/examples/", "#/components/requestBodies/", "#/components/headers/",
+        "#/components/links/", "#/components/callbacks/"
+    );
+
     @Override
     public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        apply(openAPI, ruleConfig, logger, RuleMetrics.NONE);
+    }
+
+    /**
+     * Removes unused components, recording every component inspected as a
+     * visited node and every component deleted as a removed node.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule (unused).
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     */
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics) {
+        apply(openAPI, ruleConfig, logger, metrics, SpecIndex.build(openAPI));
+    }
+
+    /**
+     * Removes unused components, following the references recorded in the
+     * shared index and removing the collected components from it.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule (unused).
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     * @param index      The index of the OpenAPI object.
+     */
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics,
+                      SpecIndex index) {
         logger.info("Starting garbage collection of unused components.");
 
         if (openAPI.getComponents() == null) {
@@ -27,78 +73,150 @@ public class GarbageCollectComponentsRule implements CustomNormalizationRule {
             return;
         }
 
-        // Pass 1: Collect all active $ref values from the entire spec.
-        Set<String> activeRefs = new HashSet<>();
-        @SuppressWarnings("unchecked")
-        Map<String, Object> specAsMap = Json.mapper().convertValue(openAPI, Map.class);
-        collectRefs(specAsMap, activeRefs);
+        // Pass 1: Mark every component reachable from the roots of the spec.
+        Components components = openAPI.getComponents();
+        Set<String> activeRefs = markReachable(index);
         logger.info("Found {} active component references.", activeRefs.size());
 
-        // Pass 2: Remove any component that is not in the active set.
-        Components components = openAPI.getComponents();
-        int schemasRemoved = removeUnused(components.getSchemas(), "#/components/schemas/", activeRefs, logger);
-        int responsesRemoved = removeUnused(components.getResponses(), "#/components/responses/", activeRefs, logger);
-        int paramsRemoved = removeUnused(components.getParameters(), "#/components/parameters/", activeRefs, logger);
-        int examplesRemoved = removeUnused(components.getExamples(), "#/components/examples/", activeRefs, logger);
-        int bodiesRemoved = removeUnused(components.getRequestBodies(), "#/components/requestBodies/", activeRefs, logger);
-        int headersRemoved = removeUnused(components.getHeaders(), "#/components/headers/", activeRefs, logger);
-        int linksRemoved = removeUnused(components.getLinks(), "#/components/links/", activeRefs, logger);
-        int callbacksRemoved = removeUnused(components.getCallbacks(), "#/components/callbacks/", activeRefs, logger);
+        // Pass 2: Remove any component that was not marked.
+        RuleReport report = RuleReport.fromConfig("GARBAGE_COLLECT_COMPONENTS", ruleConfig);
+        Sweep sweep = new Sweep(activeRefs, index, logger, report, metrics);
+        int schemasRemoved = sweep.removeUnused(components.getSchemas(), "#/components/schemas/");
+        int responsesRemoved = sweep.removeUnused(components.getResponses(), "#/components/responses/");
+        int paramsRemoved = sweep.removeUnused(components.getParameters(), "#/components/parameters/");
+        int examplesRemoved = sweep.removeUnused(components.getExamples(), "#/components/examples/");
+        int bodiesRemoved = sweep.removeUnused(components.getRequestBodies(), "#/components/requestBodies/");
+        int headersRemoved = sweep.removeUnused(components.getHeaders(), "#/components/headers/");
+        int linksRemoved = sweep.removeUnused(components.getLinks(), "#/components/links/");
+        int callbacksRemoved = sweep.removeUnused(components.getCallbacks(), "#/components/callbacks/");
 
         int totalRemoved = schemasRemoved + responsesRemoved + paramsRemoved + examplesRemoved +
             bodiesRemoved + headersRemoved + linksRemoved + callbacksRemoved;
+        report.publish(logger);
         logger.info("Garbage collection complete. Removed {} unused components.", totalRemoved);
     }
 
     /**
-     * Recursively traverses a map/list structure to find all values for the "$ref" key.
+     * Marks every component that is reachable from the roots of the
+     * specification, i.e. from every indexed location that is not a
+     * collectable component. Each newly found reference is pushed onto a
+     * worklist and the references of the component it names are followed in
+     * turn, so every edge of the reference graph is followed at most once.
      *
-     * @param node       The current node (can be a Map, List, or other type).
-     * @param activeRefs The set where active $ref strings will be stored.
+     * @param index The index of the specification.
+     * @return The references, e.g. "#/components/schemas/Pet", of all
+     * reachable components.
      */
-    @SuppressWarnings("unchecked")
-    private void collectRefs(Object node, Set<String> activeRefs) {
-        if (node instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) node;
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                if ("$ref".equals(entry.getKey()) && entry.getValue() instanceof String) {
-                    activeRefs.add((String) entry.getValue());
-                } else {
-                    collectRefs(entry.getValue(), activeRefs);
-                }
+    private Set<String> markReachable(SpecIndex index) {
+        Set<String> marked = new HashSet<>();
+        Deque<String> worklist = new ArrayDeque<>();
+        for (String location : index.getLocations()) {
+            if (!isCollectable(location)) {
+                mark(index.getReferences(location), marked, worklist);
             }
-        } else if (node instanceof List) {
-            for (Object item : (List<Object>) node) {
-                collectRefs(item, activeRefs);
+        }
+        while (!worklist.isEmpty()) {
+            mark(index.getReferences(worklist.pop()), marked, worklist);
+        }
+        return marked;
+    }
+
+    private static void mark(Set<String> componentRefs, Set<String> marked, Deque<String> worklist) {
+        for (String componentRef : componentRefs) {
+            if (marked.add(componentRef)) {
+                worklist.push(componentRef);
             }
         }
     }
 
     /**
-     * A generic method to iterate through a component map and remove unused entries.
+     * Checks if a location is a component this rule may remove. Path items
+     * and security schemes are never removed, and so act as roots.
      *
-     * @param componentMap The map of components (e.g., schemas, parameters).
-     * @param prefix       The $ref prefix for this component type (e.g., "#/components/schemas/").
-     * @param activeRefs   The set of all active references in the spec.
-     * @param logger       The logger instance.
-     * @return The number of components removed.
+     * @param location The location.
+     * @return true if the location is a collectable component.
      */
-    private <T> int removeUnused(Map<String, T> componentMap, String prefix, Set<String> activeRefs, Logger logger) {
-        if (componentMap == null || componentMap.isEmpty()) {
-            return 0;
+    private static boolean isCollectable(String location) {
+        for (String prefix : COLLECTED_PREFIXES) {
+            if (location.startsWith(prefix)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Removes the components that were not marked, one component map at a
+     * time.
+     */
+    private static final class Sweep {
+
+        private final Set<String> activeRefs;
+        private final SpecIndex index;
+        private final Logger logger;
+        private final RuleReport report;
+        private final RuleMetrics metrics;
 
-        int removedCount = 0;
-        Iterator<Map.Entry<String, T>> iterator = componentMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, T> entry = iterator.next();
-            String refPath = prefix + entry.getKey();
-            if (!activeRefs.contains(refPath)) {
-                logger.info("Removing unused component: {}", refPath);
-                iterator.remove();
-                removedCount++;
+        Sweep(Set<String> activeRefs, SpecIndex index, Logger logger, RuleReport report, RuleMetrics metrics) {
+            this.activeRefs = activeRefs;
+            this.index = index;
+            this.logger = logger;
+            this.report = report;
+            this.metrics = metrics;
+        }
+
+        /**
+         * A generic method to iterate through a component map and remove unused entries.
+         *
+         * @param componentMap The map of components (e.g., schemas, parameters).
+         * @param prefix       The $ref prefix for this component type (e.g., "#/components/schemas/").
+         * @return The number of components removed.
+         */
+        <T> int removeUnused(@Nullable Map<String, T> componentMap, String prefix) {
+            if (componentMap == null || componentMap.isEmpty()) {
+                return 0;
+            }
+
+            // e.g. "schemas removed" for "#/components/schemas/"
+            String kind = prefix.substring(COMPONENTS_PREFIX.length(), prefix.length() - 1) + " removed";
+            int removedCount = 0;
+            Iterator<Map.Entry<String, T>> iterator = componentMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, T> entry = iterator.next();
+                String refPath = prefix + entry.getKey();
+                if (!activeRefs.contains(refPath)) {
+                    report.record(logger, Level.INFO, kind, entry.getKey(),
+                        "Removing unused component: {}", refPath);
+                    iterator.remove();
+                    index.removeComponent(refPath);
+                    removedCount++;
+                }
             }
+            metrics.addVisited(componentMap.size() + removedCount);
+            metrics.addRemoved(removedCount);
+            return removedCount;
+        }
+    }
+
+    /**
+     * Registers the rule for garbage collecting components under the
+     * {@code GARBAGE_COLLECT_COMPONENTS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "GARBAGE_COLLECT_COMPONENTS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 600;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new GarbageCollectComponentsRule();
         }
-        return removedCount;
     }
 }
@@ -0,0 +1,237 @@
+package io.github.mridang.codegen.rules;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Implements a custom rule that moves inline parameters that are defined
+ * identically in several places into the {@code components/parameters}
+ * section, and replaces every copy with a {@code $ref} to the shared
+ * component.
+ * <p>
+ * Two parameters are identical if their canonical JSON forms, with all map
+ * entries sorted by key, are equal. Parameters declared on path items and on
+ * operations are both considered. A duplicate is hoisted into an existing
+ * component if that component is identical to it, and into a new component
+ * named after the parameter otherwise. The rule value is the minimum number
+ * of copies for a parameter to be hoisted, which defaults to two.
+ * <p>
+ * Run after {@code STRIP_PARAMS}, so that stripped parameters are not hoisted.
+ */
+public class HoistParametersRule implements CustomNormalizationRule {
+
+    private static final String PARAMETERS_PREFIX = "#/components/parameters/";
+    private static final ObjectWriter CANONICAL_WRITER = Json.mapper().writer()
+        .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        apply(openAPI, ruleConfig, logger, RuleMetrics.NONE);
+    }
+
+    /**
+     * Hoists duplicate inline parameters, recording every inline parameter
+     * inspected as a visited node and every copy replaced by a reference as
+     * a removed node.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     */
+    @Override
+    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics) {
+        int minCopies = parseMinCopies(ruleConfig.get(RULE_VALUE_KEY));
+        logger.info("Starting HOIST_PARAMETERS rule. Hoisting parameters with at least {} copies.", minCopies);
+
+        if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
+            logger.info("No paths found. Skipping parameter hoisting.");
+            return;
+        }
+
+        // Pass 1: Group every inline parameter list slot by its canonical form.
+        Map<String, List<Occurrence>> occurrences = new LinkedHashMap<>();
+        for (PathItem pathItem : openAPI.getPaths().values()) {
+            collect(pathItem.getParameters(), occurrences);
+            for (Operation operation : pathItem.readOperations()) {
+                collect(operation.getParameters(), occurrences);
+            }
+        }
+        metrics.addVisited(occurrences.values().stream().mapToLong(List::size).sum());
+
+        // Pass 2: Move every group with enough copies into the components.
+        if (openAPI.getComponents() == null) {
+            openAPI.setComponents(new Components());
+        }
+        Components components = openAPI.getComponents();
+        Map<String, String> existing = canonicalComponents(components.getParameters());
+        RuleReport report = RuleReport.fromConfig("HOIST_PARAMETERS", ruleConfig);
+        int hoisted = 0;
+        for (Map.Entry<String, List<Occurrence>> entry : occurrences.entrySet()) {
+            List<Occurrence> copies = entry.getValue();
+            if (copies.size() < minCopies) {
+                continue;
+            }
+
+            Parameter parameter = copies.get(0).parameter();
+            String componentName = existing.get(entry.getKey());
+            if (componentName == null) {
+                componentName = uniqueName(parameter, components.getParameters());
+                components.addParameters(componentName, parameter);
+                existing.put(entry.getKey(), componentName);
+            }
+
+            for (Occurrence copy : copies) {
+                copy.replaceWith(new Parameter().$ref(PARAMETERS_PREFIX + componentName));
+            }
+            report.record(logger, Level.INFO, "parameters hoisted", componentName,
+                "Hoisting {} copies of parameter '{}' in '{}' into '{}{}'",
+                copies.size(), parameter.getName(), parameter.getIn(), PARAMETERS_PREFIX, componentName);
+            metrics.addRemoved(copies.size());
+            hoisted++;
+        }
+
+        report.publish(logger);
+        logger.info("HOIST_PARAMETERS rule completed. Hoisted {} parameters.", hoisted);
+    }
+
+    private static int parseMinCopies(@Nullable String value) {
+        if (value == null || value.isBlank() || Boolean.parseBoolean(value.trim())) {
+            return 2;
+        }
+        try {
+            int minCopies = Integer.parseInt(value.trim());
+            if (minCopies >= 2) {
+                return minCopies;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, together with values that are too small.
+        }
+        throw new IllegalArgumentException(
+            "The HOIST_PARAMETERS rule requires \"true\" or a number of at least 2, but was: " + value
+        );
+    }
+
+    private static void collect(@Nullable List<Parameter> parameters, Map<String, List<Occurrence>> occurrences) {
+        if (parameters == null) {
+            return;
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            if (parameter != null && parameter.get$ref() == null) {
+                occurrences.computeIfAbsent(canonicalize(parameter), key -> new ArrayList<>())
+                    .add(new Occurrence(parameters, i));
+            }
+        }
+    }
+
+    private static Map<String, String> canonicalComponents(@Nullable Map<String, Parameter> componentParameters) {
+        Map<String, String> canonical = new HashMap<>();
+        if (componentParameters != null) {
+            componentParameters.forEach((name, parameter) -> {
+                if (parameter != null && parameter.get$ref() == null) {
+                    canonical.putIfAbsent(canonicalize(parameter), name);
+                }
+            });
+        }
+        return canonical;
+    }
+
+    /**
+     * Serializes a parameter into a canonical form, so that two parameters
+     * that are equal in content have the same form regardless of the order
+     * their maps were populated in.
+     *
+     * @param parameter The parameter.
+     * @return The canonical JSON form.
+     */
+    private static String canonicalize(Parameter parameter) {
+        try {
+            return CANONICAL_WRITER.writeValueAsString(parameter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize parameter '" + parameter.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Picks a component name for a parameter that is not yet taken, e.g.
+     * "limit", then "limit_query", then "limit_query_2".
+     *
+     * @param parameter           The parameter.
+     * @param componentParameters The existing parameter components.
+     * @return The component name.
+     */
+    private static String uniqueName(Parameter parameter, @Nullable Map<String, Parameter> componentParameters) {
+        String base = sanitize(parameter.getName() != null ? parameter.getName() : "parameter");
+        if (componentParameters == null || !componentParameters.containsKey(base)) {
+            return base;
+        }
+        String qualified = base + "_" + sanitize(parameter.getIn() != null ? parameter.getIn() : "inline");
+        String candidate = qualified;
+        for (int i = 2; componentParameters.containsKey(candidate); i++) {
+            candidate = qualified + "_" + i;
+        }
+        return candidate;
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return sanitized.isEmpty() ? "parameter" : sanitized;
+    }
+
+    /**
+     * A slot in a parameter list holding an inline parameter.
+     */
+    private static final class Occurrence {
+
+        private final List<Parameter> parameters;
+        private final int index;
+
+        Occurrence(List<Parameter> parameters, int index) {
+            this.parameters = parameters;
+            this.index = index;
+        }
+
+        Parameter parameter() {
+            return parameters.get(index);
+        }
+
+        void replaceWith(Parameter reference) {
+            parameters.set(index, reference);
+        }
+    }
+
+    /**
+     * Registers the rule for hoisting parameters under the
+     * {@code HOIST_PARAMETERS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "HOIST_PARAMETERS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 150;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new HoistParametersRule();
+        }
+    }
+}
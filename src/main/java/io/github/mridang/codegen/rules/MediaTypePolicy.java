@@ -0,0 +1,155 @@
+package io.github.mridang.codegen.rules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.*;
+
+/**
+ * A compiled set of media ranges that decides which content types are
+ * allowed in request bodies and in responses.
+ * <p>
+ * A policy is a list of media ranges separated by commas or whitespace, e.g.
+ * {@code application/json application/*+json request:multipart/form-data}.
+ * Each range is one of:
+ * <ul>
+ *     <li>{@code type/subtype}, matching exactly that media type.</li>
+ *     <li>{@code type/*}, matching any subtype of the type.</li>
+ *     <li>{@code type/*+suffix}, matching any subtype of the type with the
+ *     structured syntax suffix, e.g. {@code application/vnd.api+json}.</li>
+ *     <li>{@code *}{@code /*} and {@code *}{@code /*+suffix}, matching any type.</li>
+ * </ul>
+ * A range prefixed with {@code request:} or {@code response:} only applies
+ * to request bodies or to responses, while all other ranges apply to both.
+ * Media type parameters such as {@code ;charset=utf-8} are ignored, and
+ * matching is case-insensitive.
+ * <p>
+ * Every range is compiled into a hash lookup, so that checking a content
+ * type costs at most four lookups regardless of the size of the policy.
+ * Instances are immutable and may be shared between threads.
+ */
+final class MediaTypePolicy {
+
+    /**
+     * The policy allowing only {@code application/json} in both directions.
+     */
+    static final String JSON_ONLY = "application/json";
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * The direction of the content a media type is declared for.
+     */
+    enum Direction {
+        REQUEST, RESPONSE
+    }
+
+    private final String expression;
+    private final Set<String> requestRanges = new HashSet<>();
+    private final Set<String> responseRanges = new HashSet<>();
+
+    private MediaTypePolicy(String expression) {
+        this.expression = expression;
+    }
+
+    private Set<String> rangesFor(Direction direction) {
+        return direction == Direction.REQUEST ? requestRanges : responseRanges;
+    }
+
+    /**
+     * Compiles a policy expression.
+     *
+     * @param expression The media ranges to allow.
+     * @return The compiled policy.
+     * @throws IllegalArgumentException If the expression is empty or any of
+     *                                  its media ranges is malformed.
+     */
+    static MediaTypePolicy compile(String expression) {
+        MediaTypePolicy policy = new MediaTypePolicy(expression.trim());
+        for (String token : expression.split("[,\\s]+", -1)) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            String range = token.toLowerCase(Locale.ROOT);
+            Collection<Direction> directions = EnumSet.allOf(Direction.class);
+            if (range.startsWith("request:")) {
+                directions = EnumSet.of(Direction.REQUEST);
+                range = range.substring("request:".length());
+            } else if (range.startsWith("response:")) {
+                directions = EnumSet.of(Direction.RESPONSE);
+                range = range.substring("response:".length());
+            }
+            String key = toKey(range, token);
+            for (Direction direction : directions) {
+                policy.rangesFor(direction).add(key);
+            }
+        }
+        if (policy.requestRanges.isEmpty() && policy.responseRanges.isEmpty()) {
+            throw new IllegalArgumentException("The media type policy doesn't allow any media type: " + expression);
+        }
+        return policy;
+    }
+
+    /**
+     * Validates a media range and turns it into its lookup key, which is the
+     * range itself, with the {@code *} before a suffix dropped, e.g.
+     * {@code application/+json} for {@code application/*+json}.
+     */
+    private static String toKey(String range, String token) {
+        int slash = range.indexOf('/');
+        if (slash <= 0 || slash == range.length() - 1 || range.indexOf('/', slash + 1) >= 0) {
+            throw new IllegalArgumentException("Invalid media range in media type policy: " + token);
+        }
+        String type = range.substring(0, slash);
+        String subtype = range.substring(slash + 1);
+        if (subtype.startsWith("*+") && subtype.length() > 2) {
+            subtype = subtype.substring(1);
+        } else if (subtype.contains(WILDCARD) && !subtype.equals(WILDCARD)) {
+            throw new IllegalArgumentException("Invalid media range in media type policy: " + token);
+        }
+        if ((type.contains(WILDCARD) && !type.equals(WILDCARD))
+            || (type.equals(WILDCARD) && !subtype.equals(WILDCARD) && !subtype.startsWith("+"))) {
+            throw new IllegalArgumentException("Invalid media range in media type policy: " + token);
+        }
+        return type + "/" + subtype;
+    }
+
+    /**
+     * Checks if a content type is allowed in the given direction.
+     *
+     * @param direction   Whether the content type is declared for a request
+     *                    body or a response.
+     * @param contentType The content type, which may carry parameters.
+     * @return true if the content type is allowed, false otherwise.
+     */
+    @SuppressFBWarnings("IMPROPER_UNICODE")
+    boolean allows(Direction direction, String contentType) {
+        Set<String> allowed = rangesFor(direction);
+        if (allowed.contains("*/*")) {
+            return true;
+        }
+        String mediaType = contentType;
+        int parameters = mediaType.indexOf(';');
+        if (parameters >= 0) {
+            mediaType = mediaType.substring(0, parameters);
+        }
+        mediaType = mediaType.trim().toLowerCase(Locale.ROOT);
+        int slash = mediaType.indexOf('/');
+        if (slash <= 0) {
+            return false;
+        }
+        if (allowed.contains(mediaType) || allowed.contains(mediaType.substring(0, slash + 1) + WILDCARD)) {
+            return true;
+        }
+        int plus = mediaType.lastIndexOf('+');
+        if (plus > slash) {
+            String suffix = mediaType.substring(plus);
+            return allowed.contains(mediaType.substring(0, slash + 1) + suffix) || allowed.contains("*/" + suffix);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
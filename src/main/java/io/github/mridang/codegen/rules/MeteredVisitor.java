@@ -0,0 +1,126 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * Decorates a visitor so that the time spent in each of its callbacks, and
+ * the nodes it keeps or removes, are recorded in a {@link RuleMetrics}.
+ */
+final class MeteredVisitor implements SpecVisitor {
+
+    private final SpecVisitor delegate;
+    private final RuleMetrics metrics;
+
+    MeteredVisitor(SpecVisitor delegate, RuleMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean supportsParallelTraversal() {
+        return delegate.supportsParallelTraversal();
+    }
+
+    @Override
+    public void beforeTraversal(OpenAPI openAPI) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            delegate.beforeTraversal(openAPI);
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitPath(TraversalContext context) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitPath(context));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitOperation(TraversalContext context) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitOperation(context));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitParameter(TraversalContext context, Parameter parameter) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitParameter(context, parameter));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitRequestBody(TraversalContext context, RequestBody requestBody) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitRequestBody(context, requestBody));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean leaveRequestBody(TraversalContext context, RequestBody requestBody) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            boolean kept = delegate.leaveRequestBody(context, requestBody);
+            if (!kept) {
+                metrics.addRemoved(1);
+            }
+            return kept;
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitResponse(TraversalContext context, ApiResponse response) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitResponse(context, response));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public boolean visitMediaType(TraversalContext context, String contentType, MediaType mediaType) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            return visited(delegate.visitMediaType(context, contentType, mediaType));
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    @Override
+    public void afterTraversal(OpenAPI openAPI) {
+        RuleMetrics.Measurement measurement = metrics.start();
+        try {
+            delegate.afterTraversal(openAPI);
+        } finally {
+            measurement.stop();
+        }
+    }
+
+    private boolean visited(boolean kept) {
+        metrics.recordVisit(kept);
+        return kept;
+    }
+}
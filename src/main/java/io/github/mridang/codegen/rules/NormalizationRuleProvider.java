@@ -0,0 +1,52 @@
+package io.github.mridang.codegen.rules;
+
+import java.util.Set;
+
+/**
+ * A service provider for a custom normalization rule, discovered through
+ * {@link java.util.ServiceLoader} from
+ * {@code META-INF/services/io.github.mridang.codegen.rules.NormalizationRuleProvider}.
+ * <p>
+ * Providers are deliberately lightweight: they only describe the rule, and
+ * the rule itself, along with everything it depends on, is only loaded once
+ * {@link #create()} is called, which happens only if the rule's key is
+ * present in the normalizer rules.
+ */
+public interface NormalizationRuleProvider {
+
+    /**
+     * Returns the key of the rule in the normalizer rules.
+     *
+     * @return The normalizer rule key that enables the rule, e.g. "FILTER_PATHS".
+     */
+    String getRuleKey();
+
+    /**
+     * Returns the position of the rule in the normalization pipeline. Rules
+     * with a lower order run first. The built-in rules use multiples of 100,
+     * so that additional rules can be placed between them.
+     *
+     * @return The order of the rule.
+     */
+    int getOrder();
+
+    /**
+     * Returns the keys of the normalizer rules that configure this rule
+     * beyond its own value, e.g. limits. The normalizer passes those that
+     * are present on to the rule in its configuration, under the same keys.
+     *
+     * @return The keys of the rule's options.
+     */
+    default Set<String> getOptionKeys() {
+        return Set.of();
+    }
+
+    /**
+     * Creates a new instance of the rule. The normalizer creates the rule once
+     * and reuses it for every specification, possibly from several threads at
+     * once, so the rule must not keep state between calls to apply.
+     *
+     * @return The rule.
+     */
+    CustomNormalizationRule create();
+}
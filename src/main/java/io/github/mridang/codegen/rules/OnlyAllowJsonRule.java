@@ -1,214 +1,204 @@
 package io.github.mridang.codegen.rules;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.parameters.RequestBody;
-import io.swagger.v3.oas.models.responses.ApiResponse;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
-import java.util.Collections;
+import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * Implements a custom rule to enforce "application/json" as the only allowed
- * content type within request bodies and responses in the OpenAPI specification.
+ * Implements a custom rule to restrict the content types of request bodies
+ * and responses to those allowed by a {@link MediaTypePolicy}. With a blank
+ * or boolean rule value, such as {@code true} or {@code false}, only
+ * "application/json" is allowed, as the rule always did when it was enabled;
+ * otherwise the value is the policy, e.g.
+ * {@code application/json application/*+json response:text/event-stream}.
  * <p>
- * This rule first filters out all content types other than "application/json".
- * After filtering, it performs a validation step, throwing a {@code RuntimeException}
- * if any content type that is not "application/json" is still found,
- * indicating a failure in the filtering or an unexpected spec structure.
+ * The policy is compiled once, and content types that aren't allowed are
+ * removed from the request bodies and responses under
+ * {@code components/requestBodies} and {@code components/responses} before
+ * the paths are walked, and from the inline ones as each request body and
+ * response is visited, so no content type that isn't allowed can remain
+ * once the traversal completes. A request body whose content becomes empty
+ * is removed, as is every reference to a request body component whose
+ * content became empty. The emptied components themselves are left for
+ * {@code GARBAGE_COLLECT_COMPONENTS} to sweep.
  */
-public class OnlyAllowJsonRule implements CustomNormalizationRule {
+public class OnlyAllowJsonRule implements TraversableRule {
+
+    private static final String REQUEST_BODIES_PREFIX = "#/components/requestBodies/";
+
+    /**
+     * The values that enabled the rule before it accepted a policy, all of
+     * which allow only JSON.
+     */
+    private static final Set<String> FLAGS = Set.of("true", "false", "yes", "no", "on", "off", "1", "0");
 
     /**
-     * Applies the rule to enforce "application/json" content type and validate.
+     * Creates a visitor that enforces the configured media type policy.
      *
      * @param openAPI    The OpenAPI object to be modified.
-     * @param ruleConfig Configuration specific to this rule (not directly used here,
-     *                   but part of the interface).
+     * @param ruleConfig A map containing the configuration for this rule.
+     *                   The value defined by {@code RULE_VALUE_KEY} is either
+     *                   a boolean or a media type policy.
      * @param logger     A logger instance for logging messages.
+     * @return The visitor performing the rule.
+     * @throws IllegalArgumentException If the media type policy is invalid.
      */
     @Override
-    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
-        List<String> allowedTypes = Collections.singletonList("application/json");
-        logger.info("Starting ONLY_ALLOW_JSON rule for JSON content only and validation.");
-
-        // Step 1: Filter out non-JSON content types.
-        filterContentType(openAPI, allowedTypes, logger);
-
-        // Step 2: Validate that no other content types remain after filtering.
-        validateOnlyJsonPresent(openAPI, allowedTypes, logger);
-
-        logger.info("ONLY_ALLOW_JSON rule completed. All content types are 'application/json'.");
+    public SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        String expression = ruleConfig.get(RULE_VALUE_KEY);
+        if (expression == null || expression.isBlank()
+            || FLAGS.contains(expression.trim().toLowerCase(Locale.ROOT))) {
+            expression = MediaTypePolicy.JSON_ONLY;
+        }
+        return new Visitor(MediaTypePolicy.compile(expression),
+            RuleReport.fromConfig("ONLY_ALLOW_JSON", ruleConfig), logger);
     }
 
     /**
-     * Filters the OpenAPI spec to keep only specified content types in request
-     * bodies and responses.
-     *
-     * @param openAPI          The OpenAPI object to be modified.
-     * @param allowedMimeTypes List of allowed MIME types (e.g.,
-     *                         "application/json").
-     * @param logger           A logger instance for logging messages.
+     * Removes every visited media type that isn't allowed.
      */
-    private void filterContentType(OpenAPI openAPI, List<String> allowedMimeTypes, Logger logger) {
-        logger.info("Starting content type filtering. Allowed types: {}",
-            allowedMimeTypes
-        );
-
-        Paths paths = openAPI.getPaths();
-        if (paths == null || paths.isEmpty()) {
-            logger.info("No paths found for content type filtering.");
-            return;
+    private static final class Visitor implements SpecVisitor {
+
+        private final MediaTypePolicy policy;
+        private final RuleReport report;
+        private final Logger logger;
+        private final Set<String> emptiedRequestBodies = new HashSet<>();
+
+        Visitor(MediaTypePolicy policy, RuleReport report, Logger logger) {
+            this.policy = policy;
+            this.report = report;
+            this.logger = logger;
+        }
+
+        @Override
+        public boolean supportsParallelTraversal() {
+            // Content maps may be shared between path items, and are modified in place.
+            return false;
         }
 
-        for (Map.Entry<String, PathItem> pathEntry : paths.entrySet()) {
-            String path = pathEntry.getKey();
-            PathItem pathItem = pathEntry.getValue();
-
-            for (Operation operation : pathItem.readOperations()) {
-                // Filter RequestBody content
-                RequestBody requestBody = operation.getRequestBody();
-                if (requestBody != null && requestBody.getContent() != null) {
-                    Content content = requestBody.getContent();
-                    Iterator<Map.Entry<String, MediaType>> contentIterator =
-                        content.entrySet().iterator();
-                    while (contentIterator.hasNext()) {
-                        Map.Entry<String, MediaType> entry =
-                            contentIterator.next();
-                        String contentType = entry.getKey();
-                        if (!allowedMimeTypes.contains(contentType)) {
-                            logger.warn(
-                                "Content type '{}' in request body for operation " +
-                                    "'{}' (Path: {}) isn't allowed. Removing it.",
-                                contentType, operation.getOperationId(), path
-                            );
-                            contentIterator.remove();
-                        }
+        @Override
+        public void beforeTraversal(OpenAPI openAPI) {
+            logger.info("Starting ONLY_ALLOW_JSON rule. Allowed types: {}", policy);
+
+            Paths paths = openAPI.getPaths();
+            if (paths == null || paths.isEmpty()) {
+                throw new NoPathsException(
+                    "Error: Paths object is null or empty, cannot perform JSON content " +
+                        "validation."
+                );
+            }
+
+            Components components = openAPI.getComponents();
+            if (components == null) {
+                return;
+            }
+            if (components.getRequestBodies() != null) {
+                components.getRequestBodies().forEach((name, requestBody) -> {
+                    if (requestBody != null && filterComponent(requestBody.getContent(),
+                        MediaTypePolicy.Direction.REQUEST, REQUEST_BODIES_PREFIX + name)) {
+                        emptiedRequestBodies.add(REQUEST_BODIES_PREFIX + name);
                     }
-                    if (content.isEmpty()) {
-                        operation.setRequestBody(null);
-                        logger.info(
-                            "Request body for operation '{}' (Path: {}) became " +
-                                "empty after filtering and was removed.",
-                            operation.getOperationId(), path
-                        );
+                });
+            }
+            if (components.getResponses() != null) {
+                components.getResponses().forEach((name, response) -> {
+                    if (response != null) {
+                        filterComponent(response.getContent(), MediaTypePolicy.Direction.RESPONSE,
+                            "#/components/responses/" + name);
                     }
-                }
+                });
+            }
+        }
 
-                // Filter Responses content
-                if (operation.getResponses() != null) {
-                    for (Map.Entry<String, ApiResponse> responseEntry :
-                        operation.getResponses().entrySet()) {
-                        ApiResponse apiResponse = responseEntry.getValue();
-                        if (apiResponse != null && apiResponse.getContent() != null) {
-                            Content content = apiResponse.getContent();
-                            Iterator<Map.Entry<String, MediaType>> contentIterator =
-                                content.entrySet().iterator();
-                            while (contentIterator.hasNext()) {
-                                Map.Entry<String, MediaType> entry =
-                                    contentIterator.next();
-                                String contentType = entry.getKey();
-                                if (!allowedMimeTypes.contains(contentType)) {
-                                    logger.warn(
-                                        "Content type '{}' in response for operation " +
-                                            "'{}' (Path: {}) - Status: {} isn't " +
-                                            "allowed. Removing it.",
-                                        contentType, operation.getOperationId(), path,
-                                        responseEntry.getKey()
-                                    );
-                                    contentIterator.remove();
-                                }
-                            }
-                        }
-                    }
+        /**
+         * Removes the content types that aren't allowed from the content of
+         * a component.
+         *
+         * @param content   The content of the component.
+         * @param direction Whether the component is a request body or a response.
+         * @param location  The location of the component, for reporting.
+         * @return true if content types were removed and none remain.
+         */
+        private boolean filterComponent(@Nullable Content content, MediaTypePolicy.Direction direction,
+                                        String location) {
+            if (content == null || content.isEmpty()) {
+                return false;
+            }
+            Iterator<String> contentTypes = content.keySet().iterator();
+            while (contentTypes.hasNext()) {
+                String contentType = contentTypes.next();
+                if (!policy.allows(direction, contentType)) {
+                    report.record(logger, Level.WARN, direction == MediaTypePolicy.Direction.REQUEST
+                            ? "request content types removed" : "response content types removed",
+                        location + " " + contentType,
+                        "Content type '{}' in '{}' isn't allowed. Removing it.", contentType, location);
+                    contentTypes.remove();
                 }
             }
+            return content.isEmpty();
         }
-        logger.info("Content type filtering completed.");
-    }
 
-    /**
-     * Validates that no content types other than those in {@code allowedTypes}
-     * are present in the OpenAPI specification's request bodies or responses.
-     * This method is typically called after a filtering step.
-     *
-     * @param openAPI      The OpenAPI object to validate.
-     * @param allowedTypes The list of MIME types that are considered valid.
-     * @param logger       A logger instance for logging messages.
-     * @throws RuntimeException If any content type not in {@code allowedTypes} is found.
-     */
-    @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
-    private void validateOnlyJsonPresent(OpenAPI openAPI, List<String> allowedTypes, Logger logger) {
-        Paths paths = openAPI.getPaths();
-        if (paths == null || paths.isEmpty()) {
-            throw new NoPathsException(
-                "Error: Paths object is null or empty, cannot perform JSON content " +
-                    "validation."
-            );
-        }
+        @Override
+        public boolean visitMediaType(TraversalContext context, String contentType, MediaType mediaType) {
+            String statusCode = context.getStatusCode();
+            if (policy.allows(statusCode == null ? MediaTypePolicy.Direction.REQUEST
+                : MediaTypePolicy.Direction.RESPONSE, contentType)) {
+                return true;
+            }
 
-        for (Map.Entry<String, PathItem> pathEntry : paths.entrySet()) {
-            String path = pathEntry.getKey();
-            PathItem pathItem = pathEntry.getValue();
-
-            for (Operation operation : pathItem.readOperations()) {
-                // Check RequestBody content
-                RequestBody requestBody = operation.getRequestBody();
-                if (requestBody != null && requestBody.getContent() != null) {
-                    for (String contentType : requestBody.getContent().keySet()) {
-                        if (!allowedTypes.contains(contentType)) {
-                            logger.error(
-                                "Validation Error: Non-JSON content type '{}' " +
-                                    "found in request body for operation '{}' " +
-                                    "(Path: {}) after filtering.",
-                                contentType, operation.getOperationId(), path
-                            );
-                            throw new RuntimeException(
-                                "Validation Error: Non-JSON content type '" +
-                                    contentType + "' found in request body " +
-                                    "for path '" + path + "' [" +
-                                    operation.getOperationId() + "] after filtering."
-                            );
-                        }
-                    }
-                }
+            Operation operation = context.getOperation();
+            String element = context.getMethod() + " " + context.getPath() + " " + contentType;
+            if (statusCode == null) {
+                report.record(context.getLogger(), Level.WARN, "request content types removed", element,
+                    "Content type '{}' in request body for operation " +
+                        "'{}' (Path: {}) isn't allowed. Removing it.",
+                    contentType, operation.getOperationId(), context.getPath()
+                );
+            } else {
+                report.record(context.getLogger(), Level.WARN, "response content types removed",
+                    element + " " + statusCode,
+                    "Content type '{}' in response for operation " +
+                        "'{}' (Path: {}) - Status: {} isn't " +
+                        "allowed. Removing it.",
+                    contentType, operation.getOperationId(), context.getPath(), statusCode
+                );
+            }
+            return false;
+        }
 
-                // Check Responses content
-                if (operation.getResponses() != null) {
-                    for (Map.Entry<String, ApiResponse> responseEntry :
-                        operation.getResponses().entrySet()) {
-                        ApiResponse apiResponse = responseEntry.getValue();
-                        if (apiResponse != null && apiResponse.getContent() != null) {
-                            for (String contentType : apiResponse.getContent().keySet()) {
-                                if (!allowedTypes.contains(contentType)) {
-                                    logger.error(
-                                        "Validation Error: Non-JSON content type '{}' " +
-                                            "found in response for operation '{}' " +
-                                            "(Path: {}) - Status: {} after filtering.",
-                                        contentType, operation.getOperationId(), path,
-                                        responseEntry.getKey()
-                                    );
-                                    throw new RuntimeException(
-                                        "Validation Error: Non-JSON content type '" +
-                                            contentType + "' found in response " +
-                                            "for path '" + path + "' [" +
-                                            operation.getOperationId() + "] - Status: " +
-                                            responseEntry.getKey() + " after filtering."
-                                    );
-                                }
-                            }
-                        }
-                    }
-                }
+        @Override
+        public boolean leaveRequestBody(TraversalContext context, RequestBody requestBody) {
+            Content content = requestBody.getContent();
+            boolean emptied = content != null && content.isEmpty();
+            if (emptied || (requestBody.get$ref() != null && emptiedRequestBodies.contains(requestBody.get$ref()))) {
+                report.record(context.getLogger(), Level.INFO, "request bodies removed",
+                    context.getMethod() + " " + context.getPath(),
+                    "Request body for operation '{}' (Path: {}) became " +
+                        "empty after filtering and was removed.",
+                    context.getOperation().getOperationId(), context.getPath()
+                );
+                return false;
             }
+            return true;
+        }
+
+        @Override
+        public void afterTraversal(OpenAPI openAPI) {
+            report.publish(logger);
+            logger.info("ONLY_ALLOW_JSON rule completed. All content types are allowed by: {}", policy);
         }
     }
 
@@ -228,4 +218,26 @@ public class OnlyAllowJsonRule implements CustomNormalizationRule {
             super(message);
         }
     }
+
+    /**
+     * Registers the rule for restricting content types to JSON under the
+     * {@code ONLY_ALLOW_JSON} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "ONLY_ALLOW_JSON";
+        }
+
+        @Override
+        public int getOrder() {
+            return 300;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new OnlyAllowJsonRule();
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Selects operations with a small expression language, compiled once into
+ * predicates backed by hash lookups.
+ * <p>
+ * The grammar is:
+ * <pre>
+ * selector := clause (';' clause)*
+ * clause   := term (' ' term)*
+ * term     := ['!'] field ':' value ('|' value)*
+ * field    := 'method' | 'tag' | 'operationId' | 'x-' name
+ * </pre>
+ * An operation is selected if it matches any clause, and it matches a clause
+ * if it matches all of the clause's terms. A term matches if:
+ * <ul>
+ *     <li>{@code method}: the HTTP method is one of the values, ignoring case.</li>
+ *     <li>{@code tag}: any of the operation's tags is one of the values.</li>
+ *     <li>{@code operationId}: the operation id is one of the values, which
+ *     may be globs using {@code *} and {@code ?}.</li>
+ *     <li>{@code x-name}: the operation has the vendor extension, and its
+ *     value, as a string, is one of the values.</li>
+ * </ul>
+ * A term prefixed with {@code !} matches if the term without it doesn't.
+ * For example, {@code method:GET tag:orders|users; operationId:health*}
+ * selects all GET operations tagged "orders" or "users", and every
+ * operation whose id starts with "health", while
+ * {@code !x-internal:true} selects all operations not marked internal.
+ */
+final class OperationSelector {
+
+    private final String expression;
+    private final List<List<BiPredicate<PathItem.HttpMethod, Operation>>> clauses;
+
+    private OperationSelector(String expression, List<List<BiPredicate<PathItem.HttpMethod, Operation>>> clauses) {
+        this.expression = expression;
+        this.clauses = clauses;
+    }
+
+    /**
+     * Compiles a selector expression.
+     *
+     * @param expression The expression.
+     * @return The compiled selector.
+     * @throws IllegalArgumentException If the expression is not valid.
+     */
+    static OperationSelector compile(String expression) {
+        List<List<BiPredicate<PathItem.HttpMethod, Operation>>> clauses = new ArrayList<>();
+        for (String clause : expression.split(";", -1)) {
+            List<BiPredicate<PathItem.HttpMethod, Operation>> terms = new ArrayList<>();
+            for (String term : clause.trim().split("\\s+", -1)) {
+                if (!term.isEmpty()) {
+                    terms.add(compileTerm(term));
+                }
+            }
+            if (terms.isEmpty()) {
+                throw new IllegalArgumentException("Empty clause in operation selector: " + expression);
+            }
+            clauses.add(terms);
+        }
+        return new OperationSelector(expression, clauses);
+    }
+
+    /**
+     * Checks whether an operation matches any clause of the selector.
+     *
+     * @param method    The HTTP method of the operation.
+     * @param operation The operation.
+     * @return true if the operation is selected.
+     */
+    boolean matches(PathItem.HttpMethod method, Operation operation) {
+        for (List<BiPredicate<PathItem.HttpMethod, Operation>> clause : clauses) {
+            boolean matchesAll = true;
+            for (BiPredicate<PathItem.HttpMethod, Operation> term : clause) {
+                if (!term.test(method, operation)) {
+                    matchesAll = false;
+                    break;
+                }
+            }
+            if (matchesAll) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static BiPredicate<PathItem.HttpMethod, Operation> compileTerm(String term) {
+        boolean negated = term.startsWith("!");
+        String body = negated ? term.substring(1) : term;
+        int colon = body.indexOf(':');
+        if (colon <= 0 || colon == body.length() - 1) {
+            throw new IllegalArgumentException("Expected 'field:value' in operation selector, but was: " + term);
+        }
+        String field = body.substring(0, colon);
+        Set<String> values = new HashSet<>(Arrays.asList(body.substring(colon + 1).split("\\|")));
+
+        BiPredicate<PathItem.HttpMethod, Operation> predicate;
+        if ("method".equals(field)) {
+            predicate = compileMethods(values);
+        } else if ("tag".equals(field)) {
+            predicate = (method, operation) -> containsAny(values, operation.getTags());
+        } else if ("operationId".equals(field)) {
+            predicate = compileOperationIds(values);
+        } else if (field.startsWith("x-")) {
+            predicate = (method, operation) -> operation.getExtensions() != null
+                && operation.getExtensions().containsKey(field)
+                && values.contains(String.valueOf(operation.getExtensions().get(field)));
+        } else {
+            throw new IllegalArgumentException("Unknown field '" + field + "' in operation selector. "
+                + "Expected one of method, tag, operationId or an x- extension.");
+        }
+        return negated ? predicate.negate() : predicate;
+    }
+
+    private static BiPredicate<PathItem.HttpMethod, Operation> compileMethods(Set<String> values) {
+        Set<PathItem.HttpMethod> methods = EnumSet.noneOf(PathItem.HttpMethod.class);
+        for (String value : values) {
+            try {
+                methods.add(PathItem.HttpMethod.valueOf(value.toUpperCase(Locale.ENGLISH)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown HTTP method '" + value + "' in operation selector.", e);
+            }
+        }
+        return (method, operation) -> methods.contains(method);
+    }
+
+    private static BiPredicate<PathItem.HttpMethod, Operation> compileOperationIds(Set<String> values) {
+        Set<String> exact = new HashSet<>();
+        StringJoiner globs = new StringJoiner("|");
+        for (String value : values) {
+            if (value.indexOf('*') >= 0 || value.indexOf('?') >= 0) {
+                globs.add(globToRegex(value));
+            } else {
+                exact.add(value);
+            }
+        }
+        Pattern pattern = globs.length() > 0 ? Pattern.compile(globs.toString()) : null;
+        return (method, operation) -> matchesOperationId(operation.getOperationId(), exact, pattern);
+    }
+
+    private static boolean matchesOperationId(@Nullable String operationId, Set<String> exact,
+                                              @Nullable Pattern pattern) {
+        if (operationId == null) {
+            return false;
+        }
+        return exact.contains(operationId) || (pattern != null && pattern.matcher(operationId).matches());
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return "(?:" + regex + ")";
+    }
+
+    private static boolean containsAny(Set<String> values, @Nullable List<String> candidates) {
+        if (candidates != null) {
+            for (String candidate : candidates) {
+                if (values.contains(candidate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
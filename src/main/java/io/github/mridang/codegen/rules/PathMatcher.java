@@ -0,0 +1,205 @@
+package io.github.mridang.codegen.rules;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Matches paths against many regular expressions at once, with the same
+ * result as calling {@link java.util.regex.Matcher#find()} for every pattern
+ * and keeping the path if any of them matched.
+ * <p>
+ * The patterns are compiled once, into three tiers that are tried in order:
+ * <ol>
+ *     <li>Anchored literal patterns such as {@code ^/v2/orders} or
+ *     {@code ^/v2/orders.*} are stored in a prefix trie, so that all of them
+ *     are checked in a single pass over the path.</li>
+ *     <li>Unanchored literal patterns such as {@code /internal/} are checked
+ *     with {@link String#contains(CharSequence)}.</li>
+ *     <li>All other patterns are joined into a single alternation and
+ *     searched with one regex scan. Patterns that can't be joined without
+ *     changing their meaning, i.e. those with back references or inline
+ *     flags, are searched on their own.</li>
+ * </ol>
+ * Instances are immutable and may be shared between threads.
+ */
+final class PathMatcher {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final TrieNode prefixes = new TrieNode();
+    private final List<String> literals = new ArrayList<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final int prefixCount;
+    private final int regexCount;
+
+    /**
+     * Compiles the patterns into a matcher.
+     *
+     * @param regexes The regular expressions to match paths against.
+     * @throws java.util.regex.PatternSyntaxException If any of the regular
+     *                                                expressions is invalid.
+     */
+    PathMatcher(List<String> regexes) {
+        List<String> joinable = new ArrayList<>();
+        int prefixes = 0;
+        for (String regex : regexes) {
+            // Compile every pattern on its own first, so that an invalid one is reported by itself.
+            Pattern pattern = Pattern.compile(regex);
+            boolean anchored = regex.startsWith("^");
+            String body = regex.substring(anchored ? 1 : 0);
+            if (body.endsWith(".*") && !body.endsWith("\\.*")) {
+                body = body.substring(0, body.length() - 2);
+            }
+            String literal = toLiteral(body);
+            if (literal != null && anchored) {
+                this.prefixes.insert(literal);
+                prefixes++;
+            } else if (literal != null) {
+                literals.add(literal);
+            } else if (isJoinable(regex)) {
+                joinable.add(regex);
+            } else {
+                patterns.add(pattern);
+            }
+        }
+
+        this.regexCount = joinable.size() + patterns.size();
+        if (joinable.size() == 1) {
+            patterns.add(0, Pattern.compile(joinable.get(0)));
+        } else if (!joinable.isEmpty()) {
+            patterns.add(0, Pattern.compile(joinable.stream()
+                .map(regex -> "(?:" + regex + ")")
+                .collect(Collectors.joining("|"))));
+        }
+        this.prefixCount = prefixes;
+    }
+
+    /**
+     * Checks a path against all patterns.
+     *
+     * @param path The path to match.
+     * @return How the path matched.
+     */
+    Match match(String path) {
+        if (prefixes.matchesPrefixOf(path)) {
+            return Match.PREFIX;
+        }
+        for (String literal : literals) {
+            if (path.contains(literal)) {
+                return Match.LITERAL;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(path).find()) {
+                return Match.REGEX;
+            }
+        }
+        return Match.NONE;
+    }
+
+    @Override
+    public String toString() {
+        return prefixCount + " prefix, " + literals.size() + " literal and " + regexCount
+            + " regex patterns in " + patterns.size() + " regex scans";
+    }
+
+    /**
+     * Returns the literal a pattern matches, if the pattern contains no
+     * metacharacters other than escaped punctuation.
+     *
+     * @param regex The pattern, without any leading anchor.
+     * @return The literal, or null if the pattern is not a literal.
+     */
+    @Nullable
+    private static String toLiteral(String regex) {
+        if (regex.isEmpty()) {
+            return null;
+        }
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Checks if a pattern can be wrapped in a group and joined with others.
+     * Back references would refer to the wrong group once the patterns are
+     * joined, inline flags could leak into the patterns after them, named
+     * groups could clash and an unterminated quote would swallow them.
+     *
+     * @param regex The pattern.
+     * @return true if the pattern can be joined.
+     */
+    private static boolean isJoinable(String regex) {
+        for (int i = 0; i < regex.length() - 1; i++) {
+            char c = regex.charAt(i);
+            char next = regex.charAt(i + 1);
+            if (c == '\\') {
+                if (Character.isDigit(next) || next == 'k' || next == 'Q') {
+                    return false;
+                }
+                i++;
+            } else if (c == '(' && next == '?' && i + 2 < regex.length()) {
+                char flag = regex.charAt(i + 2);
+                if (Character.isLetter(flag) || flag == '-') {
+                    return false;
+                }
+                if (flag == '<' && i + 3 < regex.length() && Character.isLetter(regex.charAt(i + 3))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How a path matched.
+     */
+    enum Match {
+        PREFIX, LITERAL, REGEX, NONE
+    }
+
+    /**
+     * A node of the prefix trie. A terminal node marks the end of a prefix.
+     */
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private boolean terminal;
+
+        void insert(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), key -> new TrieNode());
+            }
+            node.terminal = true;
+        }
+
+        boolean matchesPrefixOf(String path) {
+            TrieNode node = this;
+            for (int i = 0; i < path.length(); i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                node = node.children.get(path.charAt(i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package io.github.mridang.codegen.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.*;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.Encoding;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.tags.Tag;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Finds every {@code $ref} in an OpenAPI specification by walking the
+ * swagger model directly, rather than by converting the specification into
+ * a generic tree first.
+ * <p>
+ * Every model object that can carry a reference is inspected: path items,
+ * operations, parameters, request bodies, responses, headers, media types,
+ * examples, links, callbacks, security schemes and schemas, including all
+ * of their nested schemas. Untyped values such as extensions and example
+ * values are searched for {@code "$ref"} keys as well, and the targets of
+ * discriminator mappings are reported as references, as a subtype is often
+ * only reached through the mapping of its parent. Each schema instance
+ * is only walked once, so schemas that refer to themselves by object
+ * identity are handled.
+ */
+public final class ReferenceWalker {
+
+    private final Consumer<String> onReference;
+    private final Consumer<Schema<?>> onSchema;
+    private final Set<Schema<?>> visitedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Constructs a new ReferenceWalker.
+     *
+     * @param onReference Invoked with every {@code $ref} value encountered.
+     */
+    public ReferenceWalker(Consumer<String> onReference) {
+        this(onReference, schema -> {
+        });
+    }
+
+    /**
+     * Constructs a new ReferenceWalker that also reports every schema it
+     * walks, e.g. so that the references of the schemas can be rewritten.
+     *
+     * @param onReference Invoked with every {@code $ref} value encountered.
+     * @param onSchema    Invoked once with every schema encountered, after
+     *                    its own {@code $ref} value was reported.
+     */
+    public ReferenceWalker(Consumer<String> onReference, Consumer<Schema<?>> onSchema) {
+        this.onReference = onReference;
+        this.onSchema = onSchema;
+    }
+
+    /**
+     * Collects every {@code $ref} value used anywhere in the specification.
+     *
+     * @param openAPI The specification to search.
+     * @return The distinct references.
+     */
+    public static Set<String> collectReferences(OpenAPI openAPI) {
+        Set<String> references = new HashSet<>();
+        new ReferenceWalker(references::add).walk(openAPI);
+        return references;
+    }
+
+    /**
+     * Walks the whole specification, including its components.
+     *
+     * @param openAPI The specification to walk.
+     */
+    public void walk(OpenAPI openAPI) {
+        walkRoots(openAPI);
+        walkComponents(openAPI.getComponents());
+    }
+
+    /**
+     * Walks everything in the specification outside of its components: the
+     * paths, the webhooks and the document level metadata. These are the
+     * roots from which components are reached.
+     *
+     * @param openAPI The specification to walk.
+     */
+    public void walkRoots(OpenAPI openAPI) {
+        walkDocument(openAPI);
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().values().forEach(this::walkPathItem);
+        }
+        if (openAPI.getWebhooks() != null) {
+            openAPI.getWebhooks().values().forEach(this::walkPathItem);
+        }
+    }
+
+    /**
+     * Walks the document level metadata of the specification, i.e. its info,
+     * tags, servers and extensions, but neither its paths, its webhooks nor
+     * its components.
+     *
+     * @param openAPI The specification to walk.
+     */
+    public void walkDocument(OpenAPI openAPI) {
+        if (openAPI.getInfo() != null) {
+            walkExtensions(openAPI.getInfo().getExtensions());
+        }
+        walkExternalDocs(openAPI.getExternalDocs());
+        walkServers(openAPI.getServers());
+        if (openAPI.getTags() != null) {
+            for (Tag tag : openAPI.getTags()) {
+                walkExtensions(tag.getExtensions());
+                walkExternalDocs(tag.getExternalDocs());
+            }
+        }
+        if (openAPI.getPaths() != null) {
+            walkExtensions(openAPI.getPaths().getExtensions());
+        }
+        walkExtensions(openAPI.getExtensions());
+    }
+
+    /**
+     * Walks every component definition.
+     *
+     * @param components The components to walk.
+     */
+    public void walkComponents(@Nullable Components components) {
+        if (components == null) {
+            return;
+        }
+        forEachValue(components.getSchemas(), this::walkSchema);
+        forEachValue(components.getResponses(), this::walkResponse);
+        forEachValue(components.getParameters(), this::walkParameter);
+        forEachValue(components.getExamples(), this::walkExample);
+        forEachValue(components.getRequestBodies(), this::walkRequestBody);
+        forEachValue(components.getHeaders(), this::walkHeader);
+        forEachValue(components.getSecuritySchemes(), this::walkSecurityScheme);
+        forEachValue(components.getLinks(), this::walkLink);
+        forEachValue(components.getCallbacks(), this::walkCallback);
+        forEachValue(components.getPathItems(), this::walkPathItem);
+        walkExtensions(components.getExtensions());
+    }
+
+    /**
+     * Walks a path item and all of its operations.
+     *
+     * @param pathItem The path item to walk.
+     */
+    public void walkPathItem(@Nullable PathItem pathItem) {
+        if (pathItem == null) {
+            return;
+        }
+        reference(pathItem.get$ref());
+        walkServers(pathItem.getServers());
+        forEachItem(pathItem.getParameters(), this::walkParameter);
+        pathItem.readOperations().forEach(this::walkOperation);
+        walkExtensions(pathItem.getExtensions());
+    }
+
+    /**
+     * Walks an operation.
+     *
+     * @param operation The operation to walk.
+     */
+    public void walkOperation(@Nullable Operation operation) {
+        if (operation == null) {
+            return;
+        }
+        walkExternalDocs(operation.getExternalDocs());
+        forEachItem(operation.getParameters(), this::walkParameter);
+        walkRequestBody(operation.getRequestBody());
+        if (operation.getResponses() != null) {
+            operation.getResponses().values().forEach(this::walkResponse);
+            walkExtensions(operation.getResponses().getExtensions());
+        }
+        forEachValue(operation.getCallbacks(), this::walkCallback);
+        walkServers(operation.getServers());
+        walkExtensions(operation.getExtensions());
+    }
+
+    /**
+     * Walks a parameter.
+     *
+     * @param parameter The parameter to walk.
+     */
+    public void walkParameter(@Nullable Parameter parameter) {
+        if (parameter == null) {
+            return;
+        }
+        reference(parameter.get$ref());
+        walkSchema(parameter.getSchema());
+        forEachValue(parameter.getExamples(), this::walkExample);
+        walkValue(parameter.getExample());
+        walkContent(parameter.getContent());
+        walkExtensions(parameter.getExtensions());
+    }
+
+    /**
+     * Walks a request body.
+     *
+     * @param requestBody The request body to walk.
+     */
+    public void walkRequestBody(@Nullable RequestBody requestBody) {
+        if (requestBody == null) {
+            return;
+        }
+        reference(requestBody.get$ref());
+        walkContent(requestBody.getContent());
+        walkExtensions(requestBody.getExtensions());
+    }
+
+    /**
+     * Walks a response.
+     *
+     * @param response The response to walk.
+     */
+    public void walkResponse(@Nullable ApiResponse response) {
+        if (response == null) {
+            return;
+        }
+        reference(response.get$ref());
+        forEachValue(response.getHeaders(), this::walkHeader);
+        walkContent(response.getContent());
+        forEachValue(response.getLinks(), this::walkLink);
+        walkExtensions(response.getExtensions());
+    }
+
+    /**
+     * Walks a header.
+     *
+     * @param header The header to walk.
+     */
+    public void walkHeader(@Nullable Header header) {
+        if (header == null) {
+            return;
+        }
+        reference(header.get$ref());
+        walkSchema(header.getSchema());
+        forEachValue(header.getExamples(), this::walkExample);
+        walkValue(header.getExample());
+        walkContent(header.getContent());
+        walkExtensions(header.getExtensions());
+    }
+
+    /**
+     * Walks every media type of a content map.
+     *
+     * @param content The content to walk.
+     */
+    public void walkContent(@Nullable Content content) {
+        if (content == null) {
+            return;
+        }
+        content.values().forEach(this::walkMediaType);
+    }
+
+    /**
+     * Walks a media type.
+     *
+     * @param mediaType The media type to walk.
+     */
+    public void walkMediaType(@Nullable MediaType mediaType) {
+        if (mediaType == null) {
+            return;
+        }
+        walkSchema(mediaType.getSchema());
+        forEachValue(mediaType.getExamples(), this::walkExample);
+        walkValue(mediaType.getExample());
+        if (mediaType.getEncoding() != null) {
+            for (Encoding encoding : mediaType.getEncoding().values()) {
+                if (encoding != null) {
+                    forEachValue(encoding.getHeaders(), this::walkHeader);
+                    walkExtensions(encoding.getExtensions());
+                }
+            }
+        }
+        walkExtensions(mediaType.getExtensions());
+    }
+
+    /**
+     * Walks an example.
+     *
+     * @param example The example to walk.
+     */
+    public void walkExample(@Nullable Example example) {
+        if (example == null) {
+            return;
+        }
+        reference(example.get$ref());
+        walkValue(example.getValue());
+        walkExtensions(example.getExtensions());
+    }
+
+    /**
+     * Walks a link.
+     *
+     * @param link The link to walk.
+     */
+    // Link headers aren't part of OpenAPI 3, but the parser still reads them into the model.
+    @SuppressWarnings("deprecation")
+    public void walkLink(@Nullable Link link) {
+        if (link == null) {
+            return;
+        }
+        reference(link.get$ref());
+        walkValue(link.getRequestBody());
+        forEachValue(link.getHeaders(), this::walkHeader);
+        if (link.getServer() != null) {
+            walkExtensions(link.getServer().getExtensions());
+        }
+        walkExtensions(link.getExtensions());
+    }
+
+    /**
+     * Walks a callback and the path items it declares.
+     *
+     * @param callback The callback to walk.
+     */
+    public void walkCallback(@Nullable Callback callback) {
+        if (callback == null) {
+            return;
+        }
+        reference(callback.get$ref());
+        callback.values().forEach(this::walkPathItem);
+        walkExtensions(callback.getExtensions());
+    }
+
+    /**
+     * Walks a security scheme.
+     *
+     * @param securityScheme The security scheme to walk.
+     */
+    public void walkSecurityScheme(@Nullable SecurityScheme securityScheme) {
+        if (securityScheme == null) {
+            return;
+        }
+        reference(securityScheme.get$ref());
+        walkExtensions(securityScheme.getExtensions());
+    }
+
+    /**
+     * Walks a schema and every schema nested in it.
+     *
+     * @param schema The schema to walk.
+     */
+    public void walkSchema(@Nullable Schema<?> schema) {
+        if (schema == null || !visitedSchemas.add(schema)) {
+            return;
+        }
+        reference(schema.get$ref());
+        onSchema.accept(schema);
+
+        forEachValue(schema.getProperties(), this::walkSchema);
+        walkSchema(schema.getItems());
+        forEachItem(schema.getAllOf(), this::walkSchema);
+        forEachItem(schema.getAnyOf(), this::walkSchema);
+        forEachItem(schema.getOneOf(), this::walkSchema);
+        walkSchema(schema.getNot());
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            walkSchema((Schema<?>) schema.getAdditionalProperties());
+        }
+
+        // JSON Schema 2020-12 keywords, only present in OpenAPI 3.1 documents
+        forEachItem(schema.getPrefixItems(), this::walkSchema);
+        forEachValue(schema.getPatternProperties(), this::walkSchema);
+        forEachValue(schema.getDependentSchemas(), this::walkSchema);
+        walkSchema(schema.getContains());
+        walkSchema(schema.getContentSchema());
+        walkSchema(schema.getPropertyNames());
+        walkSchema(schema.getUnevaluatedProperties());
+        walkSchema(schema.getAdditionalItems());
+        walkSchema(schema.getUnevaluatedItems());
+        walkSchema(schema.getIf());
+        walkSchema(schema.getThen());
+        walkSchema(schema.getElse());
+
+        walkValue(schema.getDefault());
+        walkValue(schema.getEnum());
+        walkValue(schema.getConst());
+        walkValue(schema.getExample());
+        walkValue(schema.getExamples());
+        walkExternalDocs(schema.getExternalDocs());
+        if (schema.getXml() != null) {
+            walkExtensions(schema.getXml().getExtensions());
+        }
+        if (schema.getDiscriminator() != null) {
+            forEachValue(schema.getDiscriminator().getMapping(), this::mappingReference);
+            walkExtensions(schema.getDiscriminator().getExtensions());
+        }
+        walkExtensions(schema.getExtensions());
+    }
+
+    private void walkServers(@Nullable List<Server> servers) {
+        if (servers != null) {
+            for (Server server : servers) {
+                walkExtensions(server.getExtensions());
+            }
+        }
+    }
+
+    private void walkExternalDocs(@Nullable ExternalDocumentation externalDocs) {
+        if (externalDocs != null) {
+            walkExtensions(externalDocs.getExtensions());
+        }
+    }
+
+    /**
+     * Searches the values of a set of specification extensions.
+     *
+     * @param extensions The extensions to walk.
+     */
+    public void walkExtensions(@Nullable Map<String, Object> extensions) {
+        if (extensions != null) {
+            extensions.values().forEach(this::walkValue);
+        }
+    }
+
+    /**
+     * Searches an untyped value, such as an extension or an example, for
+     * {@code "$ref"} keys in any of its nested maps. The parser reads these
+     * values as Jackson nodes, while models built in code tend to use plain
+     * maps and collections, so both are searched.
+     *
+     * @param value The value to search.
+     */
+    private void walkValue(@Nullable Object value) {
+        if (value instanceof JsonNode) {
+            JsonNode node = (JsonNode) value;
+            if (node.isObject()) {
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+                        onReference.accept(field.getValue().textValue());
+                    } else {
+                        walkValue(field.getValue());
+                    }
+                }
+            } else if (node.isArray()) {
+                node.forEach(this::walkValue);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if ("$ref".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                    onReference.accept((String) entry.getValue());
+                } else {
+                    walkValue(entry.getValue());
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                walkValue(item);
+            }
+        }
+    }
+
+    private void reference(@Nullable String ref) {
+        if (ref != null) {
+            onReference.accept(ref);
+        }
+    }
+
+    /**
+     * Reports the target of a discriminator mapping, which is either a
+     * reference or the bare name of a schema component.
+     *
+     * @param target The mapped schema.
+     */
+    private void mappingReference(@Nullable String target) {
+        if (target != null) {
+            onReference.accept(target.indexOf('/') >= 0 || target.indexOf('#') >= 0
+                ? target
+                : "#/components/schemas/" + target);
+        }
+    }
+
+    private static <T> void forEachValue(@Nullable Map<String, T> map, Consumer<T> action) {
+        if (map != null) {
+            map.values().forEach(action);
+        }
+    }
+
+    private static <T> void forEachItem(@Nullable List<T> list, Consumer<T> action) {
+        if (list != null) {
+            list.forEach(action);
+        }
+    }
+}
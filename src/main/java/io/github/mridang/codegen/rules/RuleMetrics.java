@@ -0,0 +1,206 @@
+package io.github.mridang.codegen.rules;
+
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the cost and the effect of running a single normalization
+ * rule: the wall-clock time, the CPU time and the bytes allocated by the
+ * calling thread while the rule was running, and the number of nodes of
+ * the specification it visited and removed.
+ * <p>
+ * Rules that share a {@link SpecTraversal} are only charged for the time
+ * spent inside their own visitor callbacks, not for the walk itself. The
+ * metrics may be recorded from several threads at once, in which case the
+ * times are the sum over all threads.
+ */
+public final class RuleMetrics {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Metrics that record nothing, shared by all rules that run while
+     * metrics are disabled.
+     */
+    public static final RuleMetrics NONE = new RuleMetrics("", false);
+
+    private final String ruleKey;
+    private final boolean enabled;
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder nodesVisited = new LongAdder();
+    private final LongAdder nodesRemoved = new LongAdder();
+
+    /**
+     * Constructs a new RuleMetrics.
+     *
+     * @param ruleKey The configuration key of the rule being measured.
+     */
+    public RuleMetrics(String ruleKey) {
+        this(ruleKey, true);
+    }
+
+    private RuleMetrics(String ruleKey, boolean enabled) {
+        this.ruleKey = ruleKey;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts measuring a section of work performed by the rule on the
+     * current thread. The section must be stopped on the same thread.
+     *
+     * @return The running measurement.
+     */
+    public Measurement start() {
+        return enabled ? new Measurement(this) : Measurement.NONE;
+    }
+
+    /**
+     * Records that the rule was offered a node of the specification.
+     *
+     * @param kept false if the rule removed the node.
+     */
+    public void recordVisit(boolean kept) {
+        if (!enabled) {
+            return;
+        }
+        nodesVisited.increment();
+        if (!kept) {
+            nodesRemoved.increment();
+        }
+    }
+
+    /**
+     * Records nodes that the rule inspected on its own, outside a traversal.
+     *
+     * @param count The number of nodes visited.
+     */
+    public void addVisited(long count) {
+        if (enabled) {
+            nodesVisited.add(count);
+        }
+    }
+
+    /**
+     * Records nodes that the rule removed on its own, outside a traversal.
+     *
+     * @param count The number of nodes removed.
+     */
+    public void addRemoved(long count) {
+        if (enabled) {
+            nodesRemoved.add(count);
+        }
+    }
+
+    /**
+     * Returns the key of the rule these metrics were collected for.
+     *
+     * @return The configuration key of the measured rule.
+     */
+    public String getRuleKey() {
+        return ruleKey;
+    }
+
+    /**
+     * Returns the total wall-clock time spent in the rule.
+     *
+     * @return The wall-clock time spent in the rule, in nanoseconds.
+     */
+    public long getWallNanos() {
+        return wallNanos.sum();
+    }
+
+    /**
+     * Returns the total CPU time spent in the rule.
+     *
+     * @return The CPU time spent in the rule, in nanoseconds, or zero if the
+     * JVM does not support measuring thread CPU time.
+     */
+    public long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    /**
+     * Returns the memory allocated by the rule.
+     *
+     * @return The number of bytes allocated while the rule was running, or
+     * zero if the JVM does not support measuring thread allocations.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * Returns the number of nodes the rule visited.
+     *
+     * @return The number of nodes the rule visited.
+     */
+    public long getNodesVisited() {
+        return nodesVisited.sum();
+    }
+
+    /**
+     * Returns the number of nodes the rule removed.
+     *
+     * @return The number of nodes the rule removed.
+     */
+    public long getNodesRemoved() {
+        return nodesRemoved.sum();
+    }
+
+    private static long currentCpuNanos() {
+        if (THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()) {
+            return THREADS.getCurrentThreadCpuTime();
+        }
+        return 0;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A running measurement of the current thread, started by
+     * {@link RuleMetrics#start()}.
+     */
+    public static final class Measurement {
+
+        private static final Measurement NONE = new Measurement(null);
+
+        @Nullable
+        private final RuleMetrics metrics;
+        private final long wallStart;
+        private final long cpuStart;
+        private final long allocatedStart;
+
+        Measurement(@Nullable RuleMetrics metrics) {
+            this.metrics = metrics;
+            this.allocatedStart = metrics != null ? currentAllocatedBytes() : 0;
+            this.cpuStart = metrics != null ? currentCpuNanos() : 0;
+            this.wallStart = metrics != null ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Stops the measurement and adds the elapsed time and allocations
+         * to the rule's metrics.
+         */
+        public void stop() {
+            RuleMetrics metrics = this.metrics;
+            if (metrics == null) {
+                return;
+            }
+            metrics.wallNanos.add(System.nanoTime() - wallStart);
+            metrics.cpuNanos.add(currentCpuNanos() - cpuStart);
+            metrics.allocatedBytes.add(currentAllocatedBytes() - allocatedStart);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.mridang.codegen.rules;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the changes a rule makes to the specification, so that a rule
+ * touching thousands of elements can report them as a single summary rather
+ * than as one log line per element.
+ * <p>
+ * In the default, detailed mode every change is logged as it happens, at the
+ * level the rule chose. In summary mode, which is enabled by the
+ * {@code SUMMARY_LOGGING} normalizer rule, the individual changes are only
+ * logged at DEBUG, and {@link #publish(Logger)} logs one line per rule with
+ * the number of changes of each kind and a small sample of the affected
+ * elements. Rules may also add statistics about their own work, e.g. how
+ * many elements were decided by a fast path, which are included in the
+ * summary, or logged at DEBUG in detailed mode. Changes may be recorded
+ * from several threads at once; the sample
+ * holds the lexicographically smallest elements, so that it is the same no
+ * matter in which order the changes were recorded.
+ */
+public final class RuleReport {
+
+    private static final int SAMPLE_SIZE = 5;
+
+    private final String ruleKey;
+    private final boolean summary;
+    private final Map<String, Changes> changes = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> statistics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs a new RuleReport.
+     *
+     * @param ruleKey The configuration key of the reporting rule.
+     * @param summary true to log a summary instead of every change.
+     */
+    public RuleReport(String ruleKey, boolean summary) {
+        this.ruleKey = ruleKey;
+        this.summary = summary;
+    }
+
+    /**
+     * Creates a report for a rule, in summary mode if its configuration has
+     * {@link CustomNormalizationRule#RULE_SUMMARY_KEY} set to "true".
+     *
+     * @param ruleKey    The configuration key of the reporting rule.
+     * @param ruleConfig The configuration of the rule.
+     * @return The report.
+     */
+    public static RuleReport fromConfig(String ruleKey, Map<String, String> ruleConfig) {
+        return new RuleReport(ruleKey, Boolean.parseBoolean(ruleConfig.get(CustomNormalizationRule.RULE_SUMMARY_KEY)));
+    }
+
+    /**
+     * Records a change to an element of the specification and logs it,
+     * at the given level in detailed mode or at DEBUG in summary mode.
+     *
+     * @param logger    The logger to log the change to.
+     * @param level     The level to log the change at in detailed mode.
+     * @param kind      The kind of change, e.g. "paths removed".
+     * @param element   The affected element, e.g. the path.
+     * @param format    The log message format.
+     * @param arguments The log message arguments.
+     */
+    public void record(Logger logger, Level level, String kind, String element, String format, Object... arguments) {
+        Changes counted = changes.computeIfAbsent(kind, key -> new Changes());
+        counted.add(element);
+
+        if (summary) {
+            logger.debug(format, arguments);
+            return;
+        }
+
+        switch (level) {
+            case ERROR:
+                logger.error(format, arguments);
+                break;
+            case WARN:
+                logger.warn(format, arguments);
+                break;
+            case INFO:
+                logger.info(format, arguments);
+                break;
+            case DEBUG:
+                logger.debug(format, arguments);
+                break;
+            default:
+                logger.trace(format, arguments);
+                break;
+        }
+    }
+
+    /**
+     * Returns how many changes of a kind the rule made.
+     *
+     * @param kind The kind of change.
+     * @return The number of changes of that kind recorded so far.
+     */
+    public long getCount(String kind) {
+        Changes counted = changes.get(kind);
+        return counted == null ? 0 : counted.count.sum();
+    }
+
+    /**
+     * Adds to a statistic about the rule's work.
+     *
+     * @param name  The name of the statistic, e.g. "paths matched by prefix".
+     * @param delta The amount to add.
+     */
+    public void addStatistic(String name, long delta) {
+        statistics.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Returns a statistic about the rule's work.
+     *
+     * @param name The name of the statistic.
+     * @return The value of the statistic, zero if nothing was added to it.
+     */
+    public long getStatistic(String name) {
+        LongAdder value = statistics.get(name);
+        return value == null ? 0 : value.sum();
+    }
+
+    /**
+     * Logs the summary of all recorded changes and statistics at INFO, if in
+     * summary mode. In detailed mode, only the statistics are logged, at DEBUG.
+     *
+     * @param logger The logger to log the summary to.
+     */
+    public void publish(Logger logger) {
+        StringJoiner statisticsJoiner = new StringJoiner(", ");
+        for (Map.Entry<String, LongAdder> entry : statistics.entrySet()) {
+            statisticsJoiner.add(entry.getKey() + "=" + entry.getValue().sum());
+        }
+
+        if (!summary) {
+            if (!statistics.isEmpty()) {
+                logger.debug("{} statistics: {}", ruleKey, statisticsJoiner);
+            }
+            return;
+        }
+        if (changes.isEmpty() && statistics.isEmpty()) {
+            logger.info("{} summary: no changes.", ruleKey);
+            return;
+        }
+
+        StringJoiner joiner = new StringJoiner("; ");
+        for (Map.Entry<String, Changes> entry : changes.entrySet()) {
+            joiner.add(entry.getKey() + "=" + entry.getValue().count.sum()
+                + " (e.g. " + String.join(", ", entry.getValue().sample()) + ")");
+        }
+        if (changes.isEmpty()) {
+            joiner.add("no changes");
+        }
+        if (!statistics.isEmpty()) {
+            joiner.add(statisticsJoiner.toString());
+        }
+        logger.info("{} summary: {}", ruleKey, joiner);
+    }
+
+    /**
+     * The number of changes of a single kind and a bounded sample of the
+     * elements they affected.
+     */
+    private static final class Changes {
+
+        private final LongAdder count = new LongAdder();
+        private final TreeSet<String> sample = new TreeSet<>();
+
+        void add(String element) {
+            count.increment();
+            synchronized (sample) {
+                sample.add(element);
+                if (sample.size() > SAMPLE_SIZE) {
+                    sample.pollLast();
+                }
+            }
+        }
+
+        List<String> sample() {
+            synchronized (sample) {
+                return new ArrayList<>(sample);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.graalvm.polyglot.Value;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * The node handlers exported by a script module, as an alternative to a
+ * single {@code apply} function that walks the whole model through host
+ * interop. The Java side walks the specification and only calls into the
+ * script for the nodes it has handlers for:
+ * <ul>
+ *     <li>{@code onPath(pathItem, context)}</li>
+ *     <li>{@code onOperation(operation, context)}</li>
+ *     <li>{@code onParameter(parameter, context)}</li>
+ *     <li>{@code onRequestBody(requestBody, context)}</li>
+ *     <li>{@code onResponse(response, context)}</li>
+ *     <li>{@code onSchema(schema)}</li>
+ * </ul>
+ * The context is the {@link TraversalContext}, giving the path, method and
+ * status code of the node. A handler that returns {@code false} removes its
+ * node, except for {@code onSchema}, whose result is ignored. Schema handlers
+ * are called once for every schema, nested and component schemas included,
+ * after all other handlers. The parameters shared by all operations of a
+ * path item are passed to {@code onParameter} once, right after
+ * {@code onPath}, with a context that has no operation.
+ * <p>
+ * A module can restrict the nodes it is called for by exporting a
+ * {@code select} object, e.g.
+ * {@code export const select = { paths: ['^/orders'], tags: ['orders'] }}.
+ * Paths are matched like {@code FILTER_PATHS} patterns and operations must
+ * have at least one of the tags. Schema handlers are then only called for
+ * the schemas of the selected operations and the components they reference.
+ */
+final class ScriptHandlers {
+
+    private static final List<String> HANDLERS = List.of(
+        "onPath", "onOperation", "onParameter", "onRequestBody", "onResponse", "onSchema"
+    );
+
+    private final Map<String, Value> handlers;
+    @Nullable
+    private final PathMatcher paths;
+    @Nullable
+    private final Set<String> tags;
+
+    private ScriptHandlers(Map<String, Value> handlers, @Nullable PathMatcher paths, @Nullable Set<String> tags) {
+        this.handlers = handlers;
+        this.paths = paths;
+        this.tags = tags;
+    }
+
+    /**
+     * Reads the handlers exported by a module.
+     *
+     * @param module The exports of the module.
+     * @return The handlers, or null if the module exports none.
+     * @throws IllegalStateException If the module's {@code select} export is malformed.
+     */
+    @Nullable
+    static ScriptHandlers fromModule(Value module) {
+        Map<String, Value> handlers = new HashMap<>();
+        for (String name : HANDLERS) {
+            Value handler = module.getMember(name);
+            if (handler != null && handler.canExecute()) {
+                handlers.put(name, handler);
+            }
+        }
+        if (handlers.isEmpty()) {
+            return null;
+        }
+
+        Value select = module.getMember("select");
+        if (select == null || select.isNull()) {
+            return new ScriptHandlers(handlers, null, null);
+        }
+        List<String> pathPatterns = readStrings(select, "paths");
+        List<String> selectedTags = readStrings(select, "tags");
+        return new ScriptHandlers(handlers,
+            pathPatterns != null ? new PathMatcher(pathPatterns) : null,
+            selectedTags != null ? new HashSet<>(selectedTags) : null);
+    }
+
+    @Nullable
+    private static List<String> readStrings(Value select, String member) {
+        Value values = select.getMember(member);
+        if (values == null || values.isNull()) {
+            return null;
+        }
+        if (!values.hasArrayElements()) {
+            throw new IllegalStateException("The script's select." + member + " export must be an array of strings");
+        }
+        List<String> strings = new ArrayList<>();
+        for (long i = 0; i < values.getArraySize(); i++) {
+            Value value = values.getArrayElement(i);
+            if (!value.isString()) {
+                throw new IllegalStateException("The script's select." + member + " export must be an array of strings");
+            }
+            strings.add(value.asString());
+        }
+        return strings;
+    }
+
+    /**
+     * Walks the specification and calls the handlers for the selected nodes.
+     *
+     * @param openAPI The OpenAPI object to be modified.
+     * @param logger  A logger instance for logging messages.
+     */
+    void apply(OpenAPI openAPI, Logger logger) {
+        Visitor visitor = new Visitor();
+        new SpecTraversal(logger, 1, null).add(visitor).walk(openAPI);
+
+        Value onSchema = handlers.get("onSchema");
+        if (onSchema == null) {
+            return;
+        }
+        if (paths == null && tags == null) {
+            new ReferenceWalker(ref -> {
+            }, onSchema::executeVoid).walk(openAPI);
+            return;
+        }
+
+        // Only walk the selected operations, and the components they reference, transitively.
+        SpecIndex index = SpecIndex.lazy(openAPI);
+        Deque<String> references = new ArrayDeque<>();
+        ReferenceWalker walker = new ReferenceWalker(references::add, onSchema::executeVoid);
+        for (Operation operation : visitor.selectedOperations) {
+            walker.walkOperation(operation);
+        }
+        Set<String> followed = new HashSet<>();
+        while (!references.isEmpty()) {
+            String ref = references.poll();
+            if (followed.add(ref)) {
+                walker.walkSchema(index.resolveSchema(ref));
+                walker.walkParameter(index.resolveParameter(ref));
+                walker.walkRequestBody(index.resolveRequestBody(ref));
+                walker.walkResponse(index.resolveResponse(ref));
+                walker.walkHeader(index.resolveHeader(ref));
+            }
+        }
+    }
+
+    /**
+     * Calls a handler, if the module exports it.
+     *
+     * @return false if the handler returned false, to remove the node.
+     */
+    private boolean call(String name, Object node, TraversalContext context) {
+        Value handler = handlers.get(name);
+        if (handler == null) {
+            return true;
+        }
+        Value result = handler.execute(node, context);
+        return !(result.isBoolean() && !result.asBoolean());
+    }
+
+    /**
+     * Calls the handlers for the nodes of the selected paths and operations,
+     * and collects the operations that were selected and kept.
+     */
+    private final class Visitor implements SpecVisitor {
+
+        private final List<Operation> selectedOperations = new ArrayList<>();
+        private boolean pathSelected;
+        private boolean operationSelected;
+
+        @Override
+        public boolean visitPath(TraversalContext context) {
+            pathSelected = paths == null || paths.match(context.getPath()) != PathMatcher.Match.NONE;
+            if (!pathSelected || !call("onPath", context.getPathItem(), context)) {
+                return !pathSelected;
+            }
+            // The traversal only visits the parameters of operations.
+            List<Parameter> parameters = context.getPathItem().getParameters();
+            if (parameters != null && context.getPathItem().readOperations().stream().anyMatch(this::isSelected)) {
+                parameters.removeIf(parameter -> !call("onParameter", parameter, context));
+            }
+            return true;
+        }
+
+        private boolean isSelected(Operation operation) {
+            return tags == null || (operation.getTags() != null && operation.getTags().stream().anyMatch(tags::contains));
+        }
+
+        @Override
+        public boolean visitOperation(TraversalContext context) {
+            Operation operation = context.getOperation();
+            operationSelected = pathSelected && isSelected(operation);
+            if (!operationSelected) {
+                return true;
+            }
+            if (!call("onOperation", operation, context)) {
+                return false;
+            }
+            selectedOperations.add(operation);
+            return true;
+        }
+
+        @Override
+        public boolean visitParameter(TraversalContext context, Parameter parameter) {
+            return !operationSelected || call("onParameter", parameter, context);
+        }
+
+        @Override
+        public boolean visitRequestBody(TraversalContext context, RequestBody requestBody) {
+            return !operationSelected || call("onRequestBody", requestBody, context);
+        }
+
+        @Override
+        public boolean visitResponse(TraversalContext context, ApiResponse response) {
+            return !operationSelected || call("onResponse", response, context);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.mridang.codegen.rules;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.ResourceLimits;
+
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The execution limits of a script run, configured through the
+ * {@code SCRIPT_TIMEOUT_SECONDS}, {@code SCRIPT_MAX_STATEMENTS} and
+ * {@code SCRIPT_MAX_ALLOCATED_MB} rules. A limit that isn't configured is
+ * unbounded.
+ * <ul>
+ *     <li>The statement limit is enforced by GraalVM itself, through the
+ *     {@link ResourceLimits} of the context, and is reset before every run.</li>
+ *     <li>The timeout and the allocation limit are enforced by a watchdog that
+ *     checks the wall-clock time and the bytes allocated by the running thread
+ *     every few milliseconds, and cancels the context once either is
+ *     exceeded.</li>
+ * </ul>
+ * A run that exceeds any limit fails with an {@link IllegalStateException}
+ * naming the limit, and its context is closed.
+ */
+final class ScriptLimits {
+
+    /**
+     * The rule setting the wall-clock time a script run may take, in seconds.
+     */
+    static final String TIMEOUT_KEY = "SCRIPT_TIMEOUT_SECONDS";
+
+    /**
+     * The rule setting the number of statements a script run may execute.
+     */
+    static final String MAX_STATEMENTS_KEY = "SCRIPT_MAX_STATEMENTS";
+
+    /**
+     * The rule setting the memory a script run may allocate, in megabytes.
+     */
+    static final String MAX_ALLOCATED_KEY = "SCRIPT_MAX_ALLOCATED_MB";
+
+    /**
+     * The limits of a script run that is not bounded at all.
+     */
+    static final ScriptLimits NONE = new ScriptLimits(0, 0, 0);
+
+    private static final long CHECK_INTERVAL_MILLIS = 10;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long timeoutNanos;
+    private final long maxStatements;
+    private final long maxAllocatedBytes;
+
+    private ScriptLimits(long timeoutNanos, long maxStatements, long maxAllocatedBytes) {
+        this.timeoutNanos = timeoutNanos;
+        this.maxStatements = maxStatements;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    /**
+     * Reads the limits from a rule's configuration.
+     *
+     * @param ruleConfig The configuration of the rule.
+     * @return The limits.
+     * @throws IllegalArgumentException If a limit isn't a positive number.
+     * @throws IllegalStateException    If an allocation limit is set, but the
+     *                                  JVM can't measure thread allocations.
+     */
+    static ScriptLimits fromConfig(Map<String, String> ruleConfig) {
+        long timeoutSeconds = parse(ruleConfig, TIMEOUT_KEY);
+        long maxStatements = parse(ruleConfig, MAX_STATEMENTS_KEY);
+        long maxAllocatedMegabytes = parse(ruleConfig, MAX_ALLOCATED_KEY);
+        if (maxAllocatedMegabytes > 0 && allocatedBytes(Thread.currentThread().getId()) < 0) {
+            throw new IllegalStateException(
+                "The " + MAX_ALLOCATED_KEY + " rule requires a JVM that measures thread allocations."
+            );
+        }
+        if (timeoutSeconds == 0 && maxStatements == 0 && maxAllocatedMegabytes == 0) {
+            return NONE;
+        }
+        return new ScriptLimits(TimeUnit.SECONDS.toNanos(timeoutSeconds), maxStatements,
+            maxAllocatedMegabytes * 1024 * 1024);
+    }
+
+    private static long parse(Map<String, String> ruleConfig, String key) {
+        String value = ruleConfig.get(key);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            long limit = Long.parseLong(value.trim());
+            if (limit >= 1) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, together with non-positive values.
+        }
+        throw new IllegalArgumentException("The " + key + " rule requires a positive number, but was: " + value);
+    }
+
+    private static long allocatedBytes(long threadId) {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the maximum number of statements a single run may execute.
+     *
+     * @return The number of statements a run may execute, or 0 if unbounded.
+     */
+    long getMaxStatements() {
+        return maxStatements;
+    }
+
+    /**
+     * Returns the resource limits to create the contexts for runs with these
+     * limits with, if any.
+     *
+     * @return The resource limits, or null if statements are unbounded.
+     */
+    @Nullable
+    ResourceLimits toResourceLimits() {
+        return maxStatements > 0 ? ResourceLimits.newBuilder().statementLimit(maxStatements, null).build() : null;
+    }
+
+    /**
+     * Runs a script within these limits, on the current thread. The run
+     * may call into the context any number of times, and the limits apply to
+     * all of those calls together.
+     *
+     * @param context The context the script runs on.
+     * @param run     The run, which calls into the context.
+     * @param <T>     The type of the result of the run.
+     * @return The result of the run.
+     * @throws IllegalStateException If the run exceeded any of the limits.
+     *                               The context is closed in that case.
+     */
+    <T> T run(Context context, Supplier<T> run) {
+        if (maxStatements > 0) {
+            context.resetLimits();
+        }
+
+        AtomicReference<String> exceeded = new AtomicReference<>();
+        ScheduledFuture<?> watchdog = null;
+        if (timeoutNanos > 0 || maxAllocatedBytes > 0) {
+            long threadId = Thread.currentThread().getId();
+            long deadline = System.nanoTime() + timeoutNanos;
+            long allocatedStart = allocatedBytes(threadId);
+            watchdog = Watchdog.SCHEDULER.scheduleWithFixedDelay(() -> {
+                String limit = null;
+                if (timeoutNanos > 0 && System.nanoTime() - deadline > 0) {
+                    limit = "the timeout of " + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + " seconds";
+                } else if (maxAllocatedBytes > 0 && allocatedBytes(threadId) - allocatedStart > maxAllocatedBytes) {
+                    limit = "the allocation limit of " + maxAllocatedBytes / (1024 * 1024) + " MB";
+                }
+                if (limit != null && exceeded.compareAndSet(null, limit)) {
+                    context.close(true);
+                }
+            }, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            T result = run.get();
+            // Claim the outcome, so that the watchdog can't cancel the context once the run completed.
+            if (exceeded.compareAndSet(null, "")) {
+                return result;
+            }
+            throw new IllegalStateException("The script run exceeded " + exceeded.get() + ".");
+        } catch (PolyglotException e) {
+            String limit = exceeded.compareAndSet(null, "") ? null : exceeded.get();
+            // A guest stack overflow or running out of memory exhausts resources too.
+            if (limit == null && maxStatements > 0 && e.isResourceExhausted()) {
+                limit = "the limit of " + maxStatements + " statements";
+            }
+            if (limit != null) {
+                context.close(true);
+                throw new IllegalStateException("The script run exceeded " + limit + ".", e);
+            }
+            throw e;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ScriptLimits)) {
+            return false;
+        }
+        ScriptLimits limits = (ScriptLimits) other;
+        return timeoutNanos == limits.timeoutNanos && maxStatements == limits.maxStatements
+            && maxAllocatedBytes == limits.maxAllocatedBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timeoutNanos, maxStatements, maxAllocatedBytes);
+    }
+
+    /**
+     * Defers starting the watchdog thread until a run with a timeout or an
+     * allocation limit is first executed.
+     */
+    private static final class Watchdog {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "script-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
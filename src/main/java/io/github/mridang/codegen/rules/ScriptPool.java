@@ -0,0 +1,382 @@
+package io.github.mridang.codegen.rules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.models.Info;
+import io.swagger.v3.oas.models.*;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.tags.Tag;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the GraalVM state that is expensive to create, so that scripts run
+ * for many specifications in the same JVM reach compiled code rather than
+ * starting from a cold interpreter every time:
+ * <ul>
+ *     <li>A polyglot {@link Engine} per statement limit, whose code cache is
+ *     shared by all contexts with that limit.</li>
+ *     <li>The parsed {@link Source} of every script, cached by its path and
+ *     reloaded only once the file's modification time or size changes.</li>
+ *     <li>A pool of idle contexts per script, each with the OpenAPI model
+ *     types bound and the script's module already evaluated.</li>
+ * </ul>
+ * Functions are run within the {@link ScriptLimits} the context was
+ * borrowed with. Profiled runs get a context on an engine of their own
+ * instead, as the {@link ScriptProfiler} listens to every context of the
+ * engine it is attached to. A context is used by one run at a time. Since a pooled context is reused,
+ * the top-level code of a module runs once per context rather than once per
+ * run, and any state a script keeps at the top level of its module is
+ * shared by the runs on that context.
+ * <p>
+ * Instances may be shared between threads.
+ */
+final class ScriptPool {
+
+    private static final int MAX_IDLE_CONTEXTS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final Map<String, Class<?>> HOST_CLASSES = createHostClasses();
+
+    private final Map<Long, Engine> engines = new ConcurrentHashMap<>();
+    private final Map<Path, LoadedSource> sources = new ConcurrentHashMap<>();
+    private final Map<PoolKey, Deque<Lease>> idle = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the pool shared by all script runs in this JVM. The pool is
+     * created when a script is first run.
+     *
+     * @return The shared pool.
+     */
+    static ScriptPool shared() {
+        return Holder.POOL;
+    }
+
+    private static Map<String, Class<?>> createHostClasses() {
+        Map<String, Class<?>> classes = new LinkedHashMap<>();
+        classes.put("OpenAPI", OpenAPI.class);
+        classes.put("Info", Info.class);
+        classes.put("ExternalDocumentation", ExternalDocumentation.class);
+        classes.put("Server", Server.class);
+        classes.put("SecurityRequirement", SecurityRequirement.class);
+        classes.put("SecurityScheme", SecurityScheme.class);
+        classes.put("Tag", Tag.class);
+
+        classes.put("Paths", Paths.class);
+        classes.put("PathItem", PathItem.class);
+        classes.put("Components", Components.class);
+        classes.put("Schema", Schema.class);
+        classes.put("ApiResponse", ApiResponse.class);
+        classes.put("Parameter", Parameter.class);
+        classes.put("RequestBody", RequestBody.class);
+        classes.put("Example", Example.class);
+        classes.put("Header", Header.class);
+        classes.put("Link", Link.class);
+        classes.put("Callback", Callback.class);
+
+        classes.put("List", List.class);
+        classes.put("Map", Map.class);
+        classes.put("ArrayList", ArrayList.class);
+        classes.put("LinkedHashMap", LinkedHashMap.class);
+        return Collections.unmodifiableMap(classes);
+    }
+
+    /**
+     * Borrows a context that has evaluated the module at the given path, and
+     * runs functions within the given limits. The lease must be closed once
+     * the run completed, which returns the context to the pool, or discarded
+     * if the run failed, which closes it.
+     *
+     * @param scriptPath The path of the ES module.
+     * @param limits     The limits of the runs on the context.
+     * @return The lease of a context and the module's exports.
+     * @throws UncheckedIOException If the script can't be read.
+     */
+    Lease borrow(Path scriptPath, ScriptLimits limits) {
+        PoolKey key = new PoolKey(load(scriptPath), limits);
+        Deque<Lease> leases = idle.get(key);
+        Lease lease = leases != null ? leases.pollFirst() : null;
+        if (lease != null) {
+            return lease;
+        }
+        // Contexts with different statement limits don't share an engine, as GraalVM counts statements per engine.
+        return create(key, engines.computeIfAbsent(key.limits.getMaxStatements(), limit -> newEngine()), false);
+    }
+
+    /**
+     * Creates a context that has evaluated the module at the given path, on
+     * an engine of its own that the profiler is attached to. The context
+     * isn't pooled, and closing the lease closes both the context and the
+     * engine.
+     *
+     * @param scriptPath The path of the ES module.
+     * @param limits     The limits of the runs on the context.
+     * @param profiler   The profiler to attach to the engine.
+     * @return The lease of a context and the module's exports.
+     * @throws UncheckedIOException If the script can't be read.
+     */
+    Lease borrowProfiled(Path scriptPath, ScriptLimits limits, ScriptProfiler profiler) {
+        PoolKey key = new PoolKey(load(scriptPath), limits);
+        Engine engine = newEngine();
+        profiler.attach(engine);
+        return create(key, engine, true);
+    }
+
+    private static Engine newEngine() {
+        return Engine.newBuilder("js")
+            .option("engine.WarnInterpreterOnly", "false")
+            .build();
+    }
+
+    /**
+     * Returns the parsed source of a script, reading and parsing it again
+     * only if the file changed since it was last loaded. The idle contexts
+     * of a replaced source are closed.
+     */
+    private Source load(Path scriptPath) {
+        Path key = scriptPath.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read script attributes: " + key, e);
+        }
+
+        LoadedSource loaded = sources.compute(key, (path, previous) -> {
+            if (previous != null && previous.isCurrent(attributes)) {
+                return previous;
+            }
+            try {
+                Source source = Source.newBuilder("js", path.toFile())
+                    .mimeType("application/javascript+module")
+                    .build();
+                return new LoadedSource(source, attributes.lastModifiedTime(), attributes.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read script: " + path, e);
+            }
+        });
+
+        // Close the contexts that evaluated an older version of the script.
+        List<Deque<Lease>> stale = new ArrayList<>();
+        idle.entrySet().removeIf(entry -> {
+            Source source = entry.getKey().source;
+            if (source.getPath() != null && source.getPath().equals(loaded.source.getPath())
+                && !source.equals(loaded.source)) {
+                stale.add(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        stale.forEach(leases -> leases.forEach(Lease::discard));
+        return loaded.source;
+    }
+
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+    private Lease create(PoolKey key, Engine engine, boolean ownsEngine) {
+        ResourceLimits resourceLimits = key.limits.toResourceLimits();
+        Context.Builder builder = Context.newBuilder("js")
+            .engine(engine)
+            .allowHostAccess(HostAccess.ALL)
+            .allowHostClassLookup(name -> true)
+            // *** this is critical for ES modules ***
+            .option("js.esm-eval-returns-exports", "true");
+        if (resourceLimits != null) {
+            builder.resourceLimits(resourceLimits);
+        }
+        Context context = builder.build();
+        try {
+            Value bindings = context.getBindings("js");
+            HOST_CLASSES.forEach(bindings::putMember);
+            return new Lease(this, key, context, context.eval(key.source), ownsEngine);
+        } catch (RuntimeException e) {
+            context.close();
+            if (ownsEngine) {
+                engine.close();
+            }
+            throw e;
+        }
+    }
+
+    private void release(Lease lease) {
+        // A context that evaluated a script which changed while it was borrowed can't be reused.
+        if (sources.values().stream().noneMatch(loaded -> loaded.source.equals(lease.key.source))) {
+            lease.discard();
+            return;
+        }
+        Deque<Lease> leases = idle.computeIfAbsent(lease.key, key -> new ConcurrentLinkedDeque<>());
+        if (leases.size() < MAX_IDLE_CONTEXTS) {
+            leases.offerFirst(lease);
+        } else {
+            lease.discard();
+        }
+    }
+
+    /**
+     * A context borrowed from the pool, together with the exports of the
+     * module it evaluated.
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final ScriptPool pool;
+        private final PoolKey key;
+        private final Context context;
+        private final Value module;
+        private final boolean ownsEngine;
+        private boolean discarded;
+
+        private Lease(ScriptPool pool, PoolKey key, Context context, Value module, boolean ownsEngine) {
+            this.pool = pool;
+            this.key = key;
+            this.context = context;
+            this.module = module;
+            this.ownsEngine = ownsEngine;
+        }
+
+        /**
+         * Returns the exports of the script's module.
+         *
+         * @return The module's exports.
+         */
+        Value getModule() {
+            return module;
+        }
+
+        /**
+         * Returns a global of the context, such as {@code JSON}.
+         *
+         * @param name The name of the global.
+         * @return The global, or null if there is none by that name.
+         */
+        @Nullable
+        Value getGlobal(String name) {
+            return context.getBindings("js").getMember(name);
+        }
+
+        /**
+         * Runs the script within the limits of the lease.
+         *
+         * @param run The run, which calls into the module.
+         * @param <T> The type of the result of the run.
+         * @return The result of the run.
+         * @throws IllegalStateException If the run exceeded any of the limits,
+         *                               in which case the lease is discarded.
+         */
+        @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+        <T> T run(Supplier<T> run) {
+            try {
+                return key.limits.run(context, run);
+            } catch (RuntimeException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        /**
+         * Closes the context instead of returning it to the pool, e.g. because
+         * a run failed and may have left it in an inconsistent state.
+         */
+        void discard() {
+            discarded = true;
+            // Cancel rather than close gracefully, as the context may already have been cancelled by a limit.
+            context.close(true);
+            if (ownsEngine) {
+                context.getEngine().close();
+            }
+        }
+
+        /**
+         * Returns the context to the pool, unless it was discarded or has an
+         * engine of its own, in which case it is closed.
+         */
+        @Override
+        public void close() {
+            if (discarded) {
+                return;
+            }
+            if (ownsEngine) {
+                discard();
+            } else {
+                pool.release(this);
+            }
+        }
+    }
+
+    /**
+     * A parsed script, along with the file attributes it was read with.
+     */
+    private static final class LoadedSource {
+
+        private final Source source;
+        private final FileTime lastModified;
+        private final long size;
+
+        LoadedSource(Source source, FileTime lastModified, long size) {
+            this.source = source;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+
+    /**
+     * The script and limits that the contexts in a pool were created for.
+     */
+    private static final class PoolKey {
+
+        private final Source source;
+        private final ScriptLimits limits;
+
+        PoolKey(Source source, ScriptLimits limits) {
+            this.source = source;
+            this.limits = limits;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey key = (PoolKey) other;
+            return source.equals(key.source) && limits.equals(key.limits);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, limits);
+        }
+    }
+
+    /**
+     * Defers creating the shared pool until a script is first run.
+     */
+    private static final class Holder {
+        static final ScriptPool POOL = new ScriptPool();
+    }
+}
@@ -0,0 +1,285 @@
+package io.github.mridang.codegen.rules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.core.util.Json;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.SourceSection;
+import org.graalvm.polyglot.management.ExecutionEvent;
+import org.graalvm.polyglot.management.ExecutionListener;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Profiles the runs of a script, configured through the
+ * {@code SCRIPT_PROFILE} rule naming the file to write the JSON report to.
+ * The report has two parts:
+ * <ul>
+ *     <li>For every JS function, the number of calls and the time spent in
+ *     the function itself and in total, including the functions it called.
+ *     The times are measured through an {@link ExecutionListener} on the
+ *     function's root, so every call is counted, but the listener's own
+ *     overhead is included in the times.</li>
+ *     <li>For every Java method the script called through host interop, the
+ *     number of samples of the running thread that found it executing that
+ *     method, taken every millisecond.</li>
+ * </ul>
+ * The listener is attached to the engine of the profiled context, so a
+ * profiled run gets an engine of its own rather than a pooled context.
+ * Only the code run within {@link #profile(Supplier)} is recorded, not the
+ * top-level code of the module.
+ */
+final class ScriptProfiler {
+
+    /**
+     * The rule naming the file to write the profile of a script run to.
+     */
+    static final String PROFILE_KEY = "SCRIPT_PROFILE";
+
+    private static final long SAMPLE_INTERVAL_MICROS = 1000;
+
+    /**
+     * The packages of the polyglot runtime and of the reflection machinery
+     * that host calls pass through, which are not the host methods themselves.
+     */
+    private static final List<String> RUNTIME_PACKAGES = List.of(
+        "com.oracle.truffle.", "com.oracle.js.", "org.graalvm.", "java.lang.invoke.", "java.lang.reflect.",
+        "jdk.internal.", "sun.reflect."
+    );
+
+    private final Path reportPath;
+    private final Map<String, FunctionStats> functions = new LinkedHashMap<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Map<String, Long> hostSamples = new ConcurrentHashMap<>();
+    private final AtomicLong wallNanos = new AtomicLong();
+    @Nullable
+    private volatile Thread recording;
+
+    private ScriptProfiler(Path reportPath) {
+        this.reportPath = reportPath;
+    }
+
+    /**
+     * Creates a profiler from a rule's configuration, if profiling was
+     * requested.
+     *
+     * @param ruleConfig The configuration of the rule.
+     * @return The profiler, or null if no report was requested.
+     */
+    @Nullable
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    static ScriptProfiler fromConfig(Map<String, String> ruleConfig) {
+        String report = ruleConfig.get(PROFILE_KEY);
+        return report == null || report.isBlank() ? null : new ScriptProfiler(Paths.get(report.trim()));
+    }
+
+    /**
+     * Attaches the profiler to the engine the profiled context is created
+     * with. The listener is closed together with the engine.
+     *
+     * @param engine The engine of the profiled context.
+     */
+    void attach(Engine engine) {
+        ExecutionListener.newBuilder()
+            .roots(true)
+            .onEnter(this::enter)
+            .onReturn(this::leave)
+            .attach(engine);
+    }
+
+    /**
+     * Runs a script on the current thread and records its profile.
+     *
+     * @param run The run, which calls into the profiled context.
+     * @param <T> The type of the result of the run.
+     * @return The result of the run.
+     */
+    <T> T profile(Supplier<T> run) {
+        Thread thread = Thread.currentThread();
+        ScheduledFuture<?> sampler = Sampler.SCHEDULER.scheduleAtFixedRate(() -> sample(thread),
+            SAMPLE_INTERVAL_MICROS, SAMPLE_INTERVAL_MICROS, TimeUnit.MICROSECONDS);
+        long start = System.nanoTime();
+        recording = thread;
+        try {
+            return run.get();
+        } finally {
+            recording = null;
+            sampler.cancel(false);
+            long end = System.nanoTime();
+            wallNanos.addAndGet(end - start);
+            // Frames a failed or cancelled run didn't return from end with the run.
+            while (!frames.isEmpty()) {
+                finish(frames.pop(), end);
+            }
+        }
+    }
+
+    private void enter(ExecutionEvent event) {
+        if (recording != Thread.currentThread()) {
+            return;
+        }
+        String name = event.getRootName();
+        SourceSection location = event.getLocation();
+        String key = (name == null || name.isEmpty() ? ":anonymous" : name)
+            + (location != null ? " (" + location.getSource().getName() + ":" + location.getStartLine() + ")" : "");
+        FunctionStats stats = functions.computeIfAbsent(key, FunctionStats::new);
+        stats.calls++;
+        stats.active++;
+        frames.push(new Frame(stats, System.nanoTime()));
+    }
+
+    private void leave(ExecutionEvent event) {
+        if (recording != Thread.currentThread() || frames.isEmpty()) {
+            return;
+        }
+        finish(frames.pop(), System.nanoTime());
+    }
+
+    private void finish(Frame frame, long end) {
+        long total = end - frame.start;
+        frame.stats.selfNanos += total - frame.childNanos;
+        // Only the outermost call of a recursive function counts towards its total time.
+        if (--frame.stats.active == 0) {
+            frame.stats.totalNanos += total;
+        }
+        Frame caller = frames.peek();
+        if (caller != null) {
+            caller.childNanos += total;
+        }
+    }
+
+    /**
+     * Attributes a sample to the host method the script thread is executing,
+     * which is the innermost method called directly from the polyglot
+     * runtime. Samples of the thread running guest code, or Java code that
+     * wasn't called from the script, are not attributed.
+     */
+    private void sample(Thread thread) {
+        if (recording != thread) {
+            return;
+        }
+        StackTraceElement[] stack = thread.getStackTrace();
+        for (int i = 0; i < stack.length - 1; i++) {
+            if (isRuntime(stack[i])) {
+                return;
+            }
+            if (isRuntime(stack[i + 1])) {
+                hostSamples.merge(stack[i].getClassName() + "." + stack[i].getMethodName(), 1L, Long::sum);
+                return;
+            }
+        }
+    }
+
+    private static boolean isRuntime(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String runtimePackage : RUNTIME_PACKAGES) {
+            if (className.startsWith(runtimePackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the JSON report, with the functions ordered by their self time
+     * and the host methods by their samples. Failing to write the report is
+     * logged and otherwise ignored.
+     *
+     * @param scriptPath The path of the profiled script.
+     * @param logger     A logger instance for logging messages.
+     */
+    void publish(Path scriptPath, Logger logger) {
+        List<Map<String, Object>> functionEntries = new ArrayList<>();
+        functions.values().stream()
+            .sorted(Comparator.comparingLong((FunctionStats stats) -> stats.selfNanos).reversed())
+            .forEach(stats -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("function", stats.name);
+                entry.put("calls", stats.calls);
+                entry.put("selfNanos", stats.selfNanos);
+                entry.put("totalNanos", stats.totalNanos);
+                functionEntries.add(entry);
+            });
+
+        List<Map<String, Object>> hostEntries = new ArrayList<>();
+        hostSamples.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .forEach(sampled -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("method", sampled.getKey());
+                entry.put("samples", sampled.getValue());
+                hostEntries.add(entry);
+            });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("script", scriptPath.toString());
+        report.put("wallNanos", wallNanos.get());
+        report.put("sampleIntervalMicros", SAMPLE_INTERVAL_MICROS);
+        report.put("functions", functionEntries);
+        report.put("hostMethods", hostEntries);
+        try {
+            Path parent = reportPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Json.mapper().writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+            logger.info("Wrote the profile of script {} to {}", scriptPath, reportPath);
+        } catch (IOException e) {
+            logger.warn("Unable to write the profile of script {} to {}", scriptPath, reportPath, e);
+        }
+    }
+
+    /**
+     * The calls of, and the time spent in, a single JS function.
+     */
+    private static final class FunctionStats {
+
+        private final String name;
+        private long calls;
+        private long selfNanos;
+        private long totalNanos;
+        private int active;
+
+        FunctionStats(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A call of a JS function that hasn't returned yet.
+     */
+    private static final class Frame {
+
+        private final FunctionStats stats;
+        private final long start;
+        private long childNanos;
+
+        Frame(FunctionStats stats, long start) {
+            this.stats = stats;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Defers starting the sampler thread until a script is first profiled.
+     */
+    private static final class Sampler {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "script-profiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
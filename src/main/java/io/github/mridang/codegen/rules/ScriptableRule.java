@@ -1,36 +1,43 @@
 package io.github.mridang.codegen.rules;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import io.swagger.models.Info;
-import io.swagger.v3.oas.models.*;
-import io.swagger.v3.oas.models.callbacks.Callback;
-import io.swagger.v3.oas.models.examples.Example;
-import io.swagger.v3.oas.models.headers.Header;
-import io.swagger.v3.oas.models.links.Link;
-import io.swagger.v3.oas.models.media.Schema;
-import io.swagger.v3.oas.models.parameters.Parameter;
-import io.swagger.v3.oas.models.parameters.RequestBody;
-import io.swagger.v3.oas.models.responses.ApiResponse;
-import io.swagger.v3.oas.models.security.SecurityRequirement;
-import io.swagger.v3.oas.models.security.SecurityScheme;
-import io.swagger.v3.oas.models.servers.Server;
-import io.swagger.v3.oas.models.tags.Tag;
-import org.graalvm.polyglot.Context;
-import org.graalvm.polyglot.HostAccess;
-import org.graalvm.polyglot.Source;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
 import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * A normalization rule that loads a JS module via GraalVM,
  * with core OpenAPI model types pre‑bound into the JS context.
+ * <p>
+ * Scripts are run on contexts borrowed from the shared {@link ScriptPool},
+ * so that parsed sources, pre-initialized contexts and compiled code are
+ * reused when scripts are run for many specifications in the same JVM.
+ * Runs can be bounded in time, statements and allocations through
+ * {@link ScriptLimits}, so that a runaway script fails fast, and profiled
+ * through {@link ScriptProfiler}, to find the functions and host calls that
+ * take the time.
+ * <p>
+ * Scripts that rewrite most of the specification can export
+ * {@code transform(spec, ruleConfig, logger)} instead, which receives the
+ * specification as a plain JS object, so that it is converted once in bulk
+ * rather than accessed one property at a time through host interop.
+ * <p>
+ * Instead of {@code apply}, a module can export handlers for the nodes it
+ * cares about, as described by {@link ScriptHandlers}, in which case the
+ * specification is walked in Java and only those nodes cross into the
+ * script.
  */
 public class ScriptableRule implements CustomNormalizationRule {
 
@@ -38,8 +45,16 @@ public class ScriptableRule implements CustomNormalizationRule {
      * Applies the rule by loading and executing a JavaScript module.
      *
      * @param openAPI    the OpenAPI model to normalize
-     * @param ruleConfig configuration map; expects the script path under "value"
+     * @param ruleConfig configuration map; expects the script path under "value",
+     *                   and optionally the limits of the run under the
+     *                   {@code SCRIPT_TIMEOUT_SECONDS}, {@code SCRIPT_MAX_STATEMENTS}
+     *                   and {@code SCRIPT_MAX_ALLOCATED_MB} keys, and the file to
+     *                   write a profile of the run to under the
+     *                   {@code SCRIPT_PROFILE} key
      * @param logger     logger for errors and info
+     * @throws IllegalStateException if the script exports neither an apply
+     *                               function nor any handler, or the run
+     *                               exceeded a limit
      */
     @Override
     @SuppressFBWarnings({"PATH_TRAVERSAL_IN", "REC_CATCH_EXCEPTION", "THROWS_METHOD_THROWS_RUNTIMEEXCEPTION"})
@@ -51,6 +66,8 @@ public class ScriptableRule implements CustomNormalizationRule {
             );
         }
 
+        ScriptLimits limits = ScriptLimits.fromConfig(ruleConfig);
+        ScriptProfiler profiler = ScriptProfiler.fromConfig(ruleConfig);
         Path scriptPath = java.nio.file.Paths.get(scriptPathString);
 
         if (!Files.exists(scriptPath)) {
@@ -65,54 +82,134 @@ public class ScriptableRule implements CustomNormalizationRule {
             );
         }
 
-        try (Context ctx = Context.newBuilder("js")
-            .allowHostAccess(HostAccess.ALL)
-            .allowHostClassLookup(name -> true)
-            .option("engine.WarnInterpreterOnly", "false")
-            // *** this is critical for ES modules ***
-            .option("js.esm-eval-returns-exports", "true")
-            .build()) {
-
-            Value bindings = ctx.getBindings("js");
-            bindings.putMember("OpenAPI", OpenAPI.class);
-            bindings.putMember("Info", Info.class);
-            bindings.putMember("ExternalDocumentation", ExternalDocumentation.class);
-            bindings.putMember("Server", Server.class);
-            bindings.putMember("SecurityRequirement", SecurityRequirement.class);
-            bindings.putMember("SecurityScheme", SecurityScheme.class);
-            bindings.putMember("Tag", Tag.class);
-
-            bindings.putMember("Paths", Paths.class);
-            bindings.putMember("PathItem", PathItem.class);
-            bindings.putMember("Components", Components.class);
-            bindings.putMember("Schema", Schema.class);
-            bindings.putMember("ApiResponse", ApiResponse.class);
-            bindings.putMember("Parameter", Parameter.class);
-            bindings.putMember("RequestBody", RequestBody.class);
-            bindings.putMember("Example", Example.class);
-            bindings.putMember("Header", Header.class);
-            bindings.putMember("Link", Link.class);
-            bindings.putMember("Callback", Callback.class);
-
-            bindings.putMember("List", List.class);
-            bindings.putMember("Map", Map.class);
-            bindings.putMember("ArrayList", ArrayList.class);
-            bindings.putMember("LinkedHashMap", LinkedHashMap.class);
-
-            Source source = Source.newBuilder("js", scriptPath.toFile())
-                .mimeType("application/javascript+module")
-                .build();
-
-            Value module = ctx.eval(source);
-            Value applyFn = module.getMember("apply");
-            if (applyFn == null || !applyFn.canExecute()) {
-                throw new IllegalStateException("Script must export apply(openAPI, ruleConfig, logger)");
+        ScriptPool pool = ScriptPool.shared();
+        try (ScriptPool.Lease lease = profiler != null
+            ? pool.borrowProfiled(scriptPath, limits, profiler) : pool.borrow(scriptPath, limits)) {
+            Value applyFn = lease.getModule().getMember("apply");
+            if (applyFn != null && applyFn.canExecute()) {
+                lease.run(profiled(profiler, () -> applyFn.execute(openAPI, ruleConfig, logger)));
+                return;
             }
 
-            applyFn.execute(openAPI, ruleConfig, logger);
+            Value transformFn = lease.getModule().getMember("transform");
+            if (transformFn != null && transformFn.canExecute()) {
+                lease.run(profiled(profiler, () -> {
+                    transform(openAPI, lease, transformFn, ruleConfig, logger);
+                    return null;
+                }));
+                return;
+            }
+
+            ScriptHandlers handlers = ScriptHandlers.fromModule(lease.getModule());
+            if (handlers == null) {
+                throw new IllegalStateException("Script must export apply(openAPI, ruleConfig, logger), " +
+                    "transform(spec, ruleConfig, logger), or handlers such as onOperation(operation, context)");
+            }
+            lease.run(profiled(profiler, () -> {
+                handlers.apply(openAPI, logger);
+                return null;
+            }));
+        } catch (IllegalStateException e) {
+            logger.error("Failed to execute script at {}", scriptPath, e);
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to execute script at {}", scriptPath, e);
             throw new RuntimeException(e);
+        } finally {
+            // A profile is written for failed runs too, as those that exceed a limit are the ones worth profiling.
+            if (profiler != null) {
+                profiler.publish(scriptPath, logger);
+            }
+        }
+    }
+
+    private static <T> Supplier<T> profiled(@Nullable ScriptProfiler profiler, Supplier<T> run) {
+        return profiler != null ? () -> profiler.profile(run) : run;
+    }
+
+    /**
+     * Runs a script's {@code transform} function on a plain JS object copy
+     * of the specification. The specification is converted to JSON and
+     * parsed into a native object once, the function mutates that object or
+     * returns a replacement for it, and the result is converted back and
+     * replaces the contents of the specification in place.
+     *
+     * @param openAPI     The OpenAPI model to normalize.
+     * @param lease       The lease of the context the script runs on.
+     * @param function    The script's transform function.
+     * @param ruleConfig  The configuration of the rule.
+     * @param logger      The logger for the script.
+     * @throws IllegalStateException If the specification can't be converted,
+     *                               or the script returned something other
+     *                               than an object.
+     */
+    private static void transform(OpenAPI openAPI, ScriptPool.Lease lease, Value function,
+                                  Map<String, String> ruleConfig, Logger logger) {
+        ObjectMapper mapper = openAPI.getSpecVersion() == SpecVersion.V31 ? Json31.mapper() : Json.mapper();
+        Value json = lease.getGlobal("JSON");
+        if (json == null) {
+            throw new IllegalStateException("The script context has no JSON global");
+        }
+
+        String serialized;
+        try {
+            serialized = mapper.writeValueAsString(openAPI);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to convert the specification to JSON", e);
+        }
+        Value spec = json.getMember("parse").execute(serialized);
+        Value result = function.execute(spec, ruleConfig, logger);
+        if (!result.isNull()) {
+            spec = result;
+        }
+        if (!spec.hasMembers() || spec.hasArrayElements()) {
+            throw new IllegalStateException("The script's transform function must return the specification object");
+        }
+
+        OpenAPI transformed;
+        try {
+            transformed = mapper.readValue(json.getMember("stringify").execute(spec).asString(), OpenAPI.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to convert the transformed specification from JSON", e);
+        }
+        openAPI.setOpenapi(transformed.getOpenapi());
+        openAPI.setInfo(transformed.getInfo());
+        openAPI.setExternalDocs(transformed.getExternalDocs());
+        openAPI.setServers(transformed.getServers());
+        openAPI.setSecurity(transformed.getSecurity());
+        openAPI.setTags(transformed.getTags());
+        openAPI.setPaths(transformed.getPaths());
+        openAPI.setComponents(transformed.getComponents());
+        openAPI.setExtensions(transformed.getExtensions());
+        openAPI.setJsonSchemaDialect(transformed.getJsonSchemaDialect());
+        openAPI.setWebhooks(transformed.getWebhooks());
+    }
+
+    /**
+     * Registers the rule for running scripts under the
+     * {@code RUN_SCRIPT} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "RUN_SCRIPT";
+        }
+
+        @Override
+        public int getOrder() {
+            return 500;
+        }
+
+        @Override
+        public Set<String> getOptionKeys() {
+            return Set.of(ScriptLimits.TIMEOUT_KEY, ScriptLimits.MAX_STATEMENTS_KEY, ScriptLimits.MAX_ALLOCATED_KEY,
+                ScriptProfiler.PROFILE_KEY);
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new ScriptableRule();
         }
     }
 }
@@ -0,0 +1,519 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * An index over an OpenAPI specification that is built once per
+ * normalization and shared by all rules, so that they don't each have to
+ * scan the specification or slice {@code $ref} strings for every node.
+ * <p>
+ * The index provides:
+ * <ul>
+ *     <li>Resolution of local {@code $ref} values to the components they
+ *     name, e.g. "#/components/schemas/Pet" to the Pet schema.</li>
+ *     <li>A reference graph between <i>locations</i> and the components they
+ *     reference, in both directions. A location is a JSON pointer to a path
+ *     item ("#/paths/~1pets"), a webhook ("#/webhooks/newPet"), a component
+ *     ("#/components/schemas/Pet"), the extensions of the components section
+ *     ("#/components") or the remaining document level metadata ("#").</li>
+ *     <li>Lookup of operations by their operation id.</li>
+ * </ul>
+ * Resolution always reads the current components, but the reference graph
+ * and the operations are only updated when a rule reports its changes through
+ * {@link #indexPath(String, PathItem)}, {@link #removePath(String)},
+ * {@link #removeComponent(String)} or {@link #rebuild()}. A
+ * {@link SpecTraversal} reports the paths it walks on its own. The index may
+ * be updated from several threads at once, as long as they update different
+ * locations.
+ * <p>
+ * An index created through {@link #lazy(OpenAPI)} only walks the whole
+ * specification once the reference graph or the operations are first read,
+ * and {@link #rebuild()} defers the walk in the same way. Normalizations
+ * whose rules never read them therefore never walk the specification for
+ * the index. The first read must not race with changes to the specification.
+ */
+public final class SpecIndex {
+
+    /**
+     * The location of the document level metadata, e.g. its info, tags and
+     * extensions.
+     */
+    public static final String DOCUMENT_LOCATION = "#";
+
+    /**
+     * The location of the extensions of the components section.
+     */
+    public static final String COMPONENTS_LOCATION = "#/components";
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+    private static final String PATHS_PREFIX = "#/paths/";
+    private static final String WEBHOOKS_PREFIX = "#/webhooks/";
+
+    private final OpenAPI openAPI;
+    private final Map<String, ComponentRef> parsedRefs = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> references = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> referrers = new ConcurrentHashMap<>();
+    private final Map<String, List<Operation>> operationsByLocation = new ConcurrentHashMap<>();
+    private final Map<String, Operation> operationsById = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    private SpecIndex(OpenAPI openAPI) {
+        this.openAPI = openAPI;
+    }
+
+    /**
+     * Builds the index of a specification.
+     *
+     * @param openAPI The specification to index.
+     * @return The index.
+     */
+    public static SpecIndex build(OpenAPI openAPI) {
+        SpecIndex index = new SpecIndex(openAPI);
+        index.ensureBuilt();
+        return index;
+    }
+
+    /**
+     * Creates the index of a specification without walking it yet. The
+     * specification is walked the first time the reference graph or the
+     * operations are read.
+     *
+     * @param openAPI The specification to index.
+     * @return The index.
+     */
+    public static SpecIndex lazy(OpenAPI openAPI) {
+        return new SpecIndex(openAPI);
+    }
+
+    /**
+     * Discards the reference graph and the operations, so that the whole
+     * specification is indexed again the next time they are read. Rules that
+     * change the specification in ways the other update methods can't
+     * describe call this once they are done.
+     */
+    public synchronized void rebuild() {
+        built = false;
+        references.clear();
+        referrers.clear();
+        operationsByLocation.clear();
+        operationsById.clear();
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    index();
+                    built = true;
+                }
+            }
+        }
+    }
+
+    private boolean isBuilt() {
+        if (built) {
+            return true;
+        }
+        // Waits for a build in progress, which may not have seen the change being reported.
+        synchronized (this) {
+            return built;
+        }
+    }
+
+    private void index() {
+        references.clear();
+        referrers.clear();
+        operationsByLocation.clear();
+        operationsById.clear();
+
+        setReferences(DOCUMENT_LOCATION, collect(walker -> walker.walkDocument(openAPI)));
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().forEach(this::indexPathItem);
+        }
+        if (openAPI.getWebhooks() != null) {
+            openAPI.getWebhooks().forEach((name, pathItem) ->
+                setReferences(WEBHOOKS_PREFIX + escape(name), collect(walker -> walker.walkPathItem(pathItem))));
+        }
+
+        Components components = openAPI.getComponents();
+        if (components != null) {
+            setReferences(COMPONENTS_LOCATION, collect(walker -> walker.walkExtensions(components.getExtensions())));
+            indexComponents("schemas", components.getSchemas(), ReferenceWalker::walkSchema);
+            indexComponents("responses", components.getResponses(), ReferenceWalker::walkResponse);
+            indexComponents("parameters", components.getParameters(), ReferenceWalker::walkParameter);
+            indexComponents("examples", components.getExamples(), ReferenceWalker::walkExample);
+            indexComponents("requestBodies", components.getRequestBodies(), ReferenceWalker::walkRequestBody);
+            indexComponents("headers", components.getHeaders(), ReferenceWalker::walkHeader);
+            indexComponents("securitySchemes", components.getSecuritySchemes(), ReferenceWalker::walkSecurityScheme);
+            indexComponents("links", components.getLinks(), ReferenceWalker::walkLink);
+            indexComponents("callbacks", components.getCallbacks(), ReferenceWalker::walkCallback);
+            indexComponents("pathItems", components.getPathItems(), ReferenceWalker::walkPathItem);
+        }
+    }
+
+    /**
+     * Indexes a path item again, after it was added or changed.
+     *
+     * @param path     The path, e.g. "/pets".
+     * @param pathItem The path item.
+     */
+    public void indexPath(String path, PathItem pathItem) {
+        if (isBuilt()) {
+            indexPathItem(path, pathItem);
+        }
+    }
+
+    private void indexPathItem(String path, PathItem pathItem) {
+        String location = pathLocation(path);
+        setReferences(location, collect(walker -> walker.walkPathItem(pathItem)));
+
+        List<Operation> operations = pathItem.readOperations();
+        unindexOperations(operationsByLocation.put(location, operations));
+        for (Operation operation : operations) {
+            if (operation.getOperationId() != null) {
+                operationsById.put(operation.getOperationId(), operation);
+            }
+        }
+    }
+
+    /**
+     * Removes a path from the index, after it was removed from the
+     * specification.
+     *
+     * @param path The path, e.g. "/pets".
+     */
+    public void removePath(String path) {
+        if (!isBuilt()) {
+            return;
+        }
+        String location = pathLocation(path);
+        setReferences(location, Set.of());
+        unindexOperations(operationsByLocation.remove(location));
+    }
+
+    /**
+     * Removes a component from the reference graph, after it was removed
+     * from the specification.
+     *
+     * @param componentRef The reference to the component, e.g.
+     *                     "#/components/schemas/Pet".
+     */
+    public void removeComponent(String componentRef) {
+        if (!isBuilt()) {
+            return;
+        }
+        setReferences(componentRef, Set.of());
+    }
+
+    /**
+     * Returns every location of the reference graph that references a
+     * component, such as a path item, a webhook or another component.
+     *
+     * @return All locations that reference at least one component.
+     */
+    public Set<String> getLocations() {
+        ensureBuilt();
+        return Collections.unmodifiableSet(references.keySet());
+    }
+
+    /**
+     * Returns the components referenced from a location, as references to
+     * the whole component, e.g. "#/components/schemas/Pet" for a reference to
+     * "#/components/schemas/Pet/properties/id".
+     *
+     * @param location The location.
+     * @return The referenced components, empty if there are none.
+     */
+    public Set<String> getReferences(String location) {
+        ensureBuilt();
+        Set<String> referenced = references.get(location);
+        return referenced == null ? Set.of() : Collections.unmodifiableSet(referenced);
+    }
+
+    /**
+     * Returns the locations that reference a component.
+     *
+     * @param componentRef The reference to the component, e.g.
+     *                     "#/components/schemas/Pet".
+     * @return The referencing locations, empty if there are none.
+     */
+    public Set<String> getReferrers(String componentRef) {
+        ensureBuilt();
+        Set<String> referencing = referrers.get(componentRef);
+        return referencing == null ? Set.of() : Collections.unmodifiableSet(referencing);
+    }
+
+    /**
+     * Looks up an operation of the specification by its id.
+     *
+     * @param operationId The operation id.
+     * @return The operation with that id, or null if there is none.
+     */
+    @Nullable
+    public Operation getOperation(String operationId) {
+        ensureBuilt();
+        return operationsById.get(operationId);
+    }
+
+    /**
+     * Returns the name of the component a reference points to, e.g. "Pet"
+     * for "#/components/schemas/Pet". For any other reference, the last
+     * segment of the reference is returned.
+     *
+     * @param ref The reference.
+     * @return The name of the referenced component.
+     */
+    public String getComponentName(String ref) {
+        return parse(ref).name;
+    }
+
+    /**
+     * Resolves a reference to a schema component.
+     *
+     * @param ref The reference, e.g. "#/components/schemas/Pet".
+     * @return The schema, or null if the reference doesn't name an existing
+     * schema component.
+     */
+    @Nullable
+    public Schema<?> resolveSchema(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "schemas", components.getSchemas());
+    }
+
+    /**
+     * Resolves a reference to a parameter component.
+     *
+     * @param ref The reference, e.g. "#/components/parameters/Limit".
+     * @return The parameter, or null if the reference doesn't name an
+     * existing parameter component.
+     */
+    @Nullable
+    public Parameter resolveParameter(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "parameters", components.getParameters());
+    }
+
+    /**
+     * Resolves a reference to a request body component.
+     *
+     * @param ref The reference, e.g. "#/components/requestBodies/NewPet".
+     * @return The request body, or null if the reference doesn't name an
+     * existing request body component.
+     */
+    @Nullable
+    public RequestBody resolveRequestBody(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "requestBodies", components.getRequestBodies());
+    }
+
+    /**
+     * Resolves a reference to a response component.
+     *
+     * @param ref The reference, e.g. "#/components/responses/NotFound".
+     * @return The response, or null if the reference doesn't name an
+     * existing response component.
+     */
+    @Nullable
+    public ApiResponse resolveResponse(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "responses", components.getResponses());
+    }
+
+    /**
+     * Resolves a reference to a header component.
+     *
+     * @param ref The reference, e.g. "#/components/headers/RateLimit".
+     * @return The header, or null if the reference doesn't name an existing
+     * header component.
+     */
+    @Nullable
+    public Header resolveHeader(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "headers", components.getHeaders());
+    }
+
+    /**
+     * Resolves a reference to an example component.
+     *
+     * @param ref The reference, e.g. "#/components/examples/Pet".
+     * @return The example, or null if the reference doesn't name an existing
+     * example component.
+     */
+    @Nullable
+    public Example resolveExample(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "examples", components.getExamples());
+    }
+
+    /**
+     * Resolves a reference to a link component.
+     *
+     * @param ref The reference, e.g. "#/components/links/Next".
+     * @return The link, or null if the reference doesn't name an existing
+     * link component.
+     */
+    @Nullable
+    public Link resolveLink(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "links", components.getLinks());
+    }
+
+    /**
+     * Resolves a reference to a callback component.
+     *
+     * @param ref The reference, e.g. "#/components/callbacks/OnEvent".
+     * @return The callback, or null if the reference doesn't name an
+     * existing callback component.
+     */
+    @Nullable
+    public Callback resolveCallback(String ref) {
+        Components components = openAPI.getComponents();
+        return components == null ? null : resolve(ref, "callbacks", components.getCallbacks());
+    }
+
+    /**
+     * Reduces a reference to the component that contains its target, e.g.
+     * "#/components/schemas/Pet/properties/id" to "#/components/schemas/Pet".
+     *
+     * @param ref The reference.
+     * @return The reference to the containing component, or null if the
+     * reference does not point into the components of this document.
+     */
+    @Nullable
+    public static String toComponentRef(String ref) {
+        if (!ref.startsWith(COMPONENTS_PREFIX)) {
+            return null;
+        }
+        int typeEnd = ref.indexOf('/', COMPONENTS_PREFIX.length());
+        if (typeEnd < 0 || typeEnd == ref.length() - 1) {
+            return null;
+        }
+        int nameEnd = ref.indexOf('/', typeEnd + 1);
+        return nameEnd < 0 ? ref : ref.substring(0, nameEnd);
+    }
+
+    /**
+     * Returns the location of a path item.
+     *
+     * @param path The path, e.g. "/pets".
+     * @return The location, e.g. "#/paths/~1pets".
+     */
+    public static String pathLocation(String path) {
+        return PATHS_PREFIX + escape(path);
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    @Nullable
+    private <T> T resolve(String ref, String type, @Nullable Map<String, T> componentMap) {
+        ComponentRef parsed = parse(ref);
+        if (componentMap == null || !type.equals(parsed.type)) {
+            return null;
+        }
+        return componentMap.get(parsed.name);
+    }
+
+    private ComponentRef parse(String ref) {
+        return parsedRefs.computeIfAbsent(ref, ComponentRef::parse);
+    }
+
+    private <T> void indexComponents(String type, @Nullable Map<String, T> componentMap, WalkAction<T> action) {
+        if (componentMap != null) {
+            componentMap.forEach((name, component) ->
+                setReferences(COMPONENTS_PREFIX + type + "/" + name, collect(walker -> action.walk(walker, component))));
+        }
+    }
+
+    private static Set<String> collect(Consumer<ReferenceWalker> walk) {
+        Set<String> collected = new HashSet<>();
+        walk.accept(new ReferenceWalker(ref -> {
+            String componentRef = toComponentRef(ref);
+            if (componentRef != null) {
+                collected.add(componentRef);
+            }
+        }));
+        return collected;
+    }
+
+    private void setReferences(String location, Set<String> referenced) {
+        Set<String> previous = referenced.isEmpty()
+            ? references.remove(location)
+            : references.put(location, referenced);
+        if (previous != null) {
+            for (String componentRef : previous) {
+                if (!referenced.contains(componentRef)) {
+                    Set<String> referencing = referrers.get(componentRef);
+                    if (referencing != null) {
+                        referencing.remove(location);
+                    }
+                }
+            }
+        }
+        for (String componentRef : referenced) {
+            referrers.computeIfAbsent(componentRef, key -> ConcurrentHashMap.newKeySet()).add(location);
+        }
+    }
+
+    private void unindexOperations(@Nullable List<Operation> operations) {
+        if (operations != null) {
+            for (Operation operation : operations) {
+                if (operation.getOperationId() != null) {
+                    operationsById.remove(operation.getOperationId(), operation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks a single component of some type.
+     *
+     * @param <T> The component type.
+     */
+    @FunctionalInterface
+    private interface WalkAction<T> {
+        void walk(ReferenceWalker walker, T component);
+    }
+
+    /**
+     * A parsed reference: the component type and name for a reference into
+     * the components of this document, or only the last segment otherwise.
+     */
+    private static final class ComponentRef {
+
+        @Nullable
+        private final String type;
+        private final String name;
+
+        private ComponentRef(@Nullable String type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        static ComponentRef parse(String ref) {
+            String componentRef = toComponentRef(ref);
+            if (componentRef != null && componentRef.equals(ref)) {
+                int typeEnd = ref.indexOf('/', COMPONENTS_PREFIX.length());
+                return new ComponentRef(ref.substring(COMPONENTS_PREFIX.length(), typeEnd), ref.substring(typeEnd + 1));
+            }
+            return new ComponentRef(null, ref.substring(ref.lastIndexOf('/') + 1));
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package io.github.mridang.codegen.rules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.event.EventRecodingLogger;
+import org.slf4j.event.SubstituteLoggingEvent;
+import org.slf4j.helpers.SubstituteLogger;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Walks the paths of an OpenAPI specification exactly once and dispatches
+ * every node to all registered {@link SpecVisitor}s, in registration order.
+ * <p>
+ * This allows several rules that would otherwise each iterate over every
+ * path and operation to share a single pass. A node removed by one visitor
+ * is not offered to the visitors registered after it, which gives the same
+ * result as running the rules one after another.
+ * <p>
+ * With a parallelism greater than one, and if every registered visitor
+ * supports it, the path items are walked concurrently on a fork-join pool.
+ * Removed paths are then dropped in their original order, and the messages
+ * that visitors log through {@link TraversalContext#getLogger()} are
+ * buffered per path and replayed in path order, so both the resulting
+ * specification and the log are the same as with a sequential walk.
+ * <p>
+ * Every path is indexed again in the {@link SpecIndex} once the visitors
+ * are done with it, and removed from it if a visitor removed the path.
+ */
+public final class SpecTraversal {
+
+    private final List<SpecVisitor> visitors = new ArrayList<>();
+    private final Logger logger;
+    private final int parallelism;
+    @Nullable
+    private final SpecIndex index;
+
+    /**
+     * Constructs a new SpecTraversal that walks the paths sequentially.
+     *
+     * @param logger The logger visitors log to through the traversal context.
+     */
+    public SpecTraversal(Logger logger) {
+        this(logger, 1);
+    }
+
+    /**
+     * Constructs a new SpecTraversal.
+     *
+     * @param logger      The logger visitors log to through the traversal context.
+     * @param parallelism The maximum number of paths walked concurrently.
+     */
+    public SpecTraversal(Logger logger, int parallelism) {
+        this(logger, parallelism, null);
+    }
+
+    /**
+     * Constructs a new SpecTraversal that keeps a shared index up to date.
+     * Without an index, a new one is created for every walk, and only built
+     * if a visitor reads it. The index is shared,
+     * not copied, so that the changes of the walk are visible to its owner.
+     *
+     * @param logger      The logger visitors log to through the traversal context.
+     * @param parallelism The maximum number of paths walked concurrently.
+     * @param index       The index of the specification that will be walked.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public SpecTraversal(Logger logger, int parallelism, @Nullable SpecIndex index) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, but was " + parallelism);
+        }
+        this.logger = logger;
+        this.parallelism = parallelism;
+        this.index = index;
+    }
+
+    /**
+     * Registers a visitor. Visitors are invoked in the order they were added.
+     *
+     * @param visitor The visitor to register.
+     * @return This traversal, for chaining.
+     */
+    public SpecTraversal add(SpecVisitor visitor) {
+        visitors.add(visitor);
+        return this;
+    }
+
+    /**
+     * Registers a visitor whose callbacks are measured and recorded in the
+     * given metrics.
+     *
+     * @param visitor The visitor to register.
+     * @param metrics The metrics of the rule that created the visitor.
+     * @return This traversal, for chaining.
+     */
+    public SpecTraversal add(SpecVisitor visitor, RuleMetrics metrics) {
+        return add(new MeteredVisitor(visitor, metrics));
+    }
+
+    /**
+     * Checks whether any visitors were registered since the last walk.
+     *
+     * @return true if no visitors have been registered.
+     */
+    public boolean isEmpty() {
+        return visitors.isEmpty();
+    }
+
+    /**
+     * Walks the specification once, dispatching to every registered visitor,
+     * and then clears the registered visitors so the instance can be reused.
+     *
+     * @param openAPI The OpenAPI object to traverse and modify in place.
+     */
+    public void walk(OpenAPI openAPI) {
+        if (visitors.isEmpty()) {
+            return;
+        }
+
+        try {
+            traverse(openAPI);
+        } finally {
+            visitors.clear();
+        }
+    }
+
+    private void traverse(OpenAPI openAPI) {
+        SpecIndex specIndex = index != null ? index : SpecIndex.lazy(openAPI);
+        for (SpecVisitor visitor : visitors) {
+            visitor.beforeTraversal(openAPI);
+        }
+
+        Paths paths = openAPI.getPaths();
+        if (paths != null && parallelism > 1 && paths.size() > 1 && supportsParallelTraversal()) {
+            traversePathsInParallel(paths, specIndex);
+        } else if (paths != null) {
+            TraversalContext context = new TraversalContext(logger, specIndex);
+            Iterator<Map.Entry<String, PathItem>> pathIterator = paths.entrySet().iterator();
+            while (pathIterator.hasNext()) {
+                Map.Entry<String, PathItem> entry = pathIterator.next();
+                context.enterPath(entry.getKey(), entry.getValue());
+                if (walkPath(context, entry.getValue())) {
+                    specIndex.indexPath(entry.getKey(), entry.getValue());
+                } else {
+                    pathIterator.remove();
+                    specIndex.removePath(entry.getKey());
+                }
+            }
+        }
+
+        for (SpecVisitor visitor : visitors) {
+            visitor.afterTraversal(openAPI);
+        }
+    }
+
+    private boolean supportsParallelTraversal() {
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.supportsParallelTraversal()) {
+                logger.debug("Walking paths sequentially as a visitor doesn't support parallel traversal.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks every path item on its own fork-join task. Each task records
+     * whether its path should be kept, the messages logged while walking it
+     * and any failure. Once all tasks completed, the messages are replayed
+     * and the paths removed in path order, up to the first failing path,
+     * whose failure is then rethrown.
+     *
+     * @param paths     The paths to walk and modify in place.
+     * @param specIndex The index to update with the walked paths.
+     */
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_RUNTIMEEXCEPTION")
+    private void traversePathsInParallel(Paths paths, SpecIndex specIndex) {
+        List<Map.Entry<String, PathItem>> entries = new ArrayList<>(paths.entrySet());
+        boolean[] kept = new boolean[entries.size()];
+        List<Queue<SubstituteLoggingEvent>> logs = new ArrayList<>(entries.size());
+        RuntimeException[] failures = new RuntimeException[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            logs.add(new ConcurrentLinkedQueue<>());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, entries.size()).parallel().forEach(i -> {
+                Map.Entry<String, PathItem> entry = entries.get(i);
+                Logger buffer = new EventRecodingLogger(
+                    new SubstituteLogger(logger.getName(), logs.get(i), false), logs.get(i)
+                );
+                TraversalContext context = new TraversalContext(buffer, specIndex);
+                context.enterPath(entry.getKey(), entry.getValue());
+                try {
+                    kept[i] = walkPath(context, entry.getValue());
+                    if (kept[i]) {
+                        specIndex.indexPath(entry.getKey(), entry.getValue());
+                    }
+                } catch (RuntimeException e) {
+                    failures[i] = e;
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while walking the paths", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to walk the paths", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            for (SubstituteLoggingEvent event : logs.get(i)) {
+                replay(event);
+            }
+            RuntimeException failure = failures[i];
+            if (failure != null) {
+                throw failure;
+            }
+            if (!kept[i]) {
+                paths.remove(entries.get(i).getKey());
+                specIndex.removePath(entries.get(i).getKey());
+            }
+        }
+    }
+
+    private void replay(SubstituteLoggingEvent event) {
+        Object[] arguments = event.getArgumentArray() != null ? event.getArgumentArray() : new Object[0];
+        if (event.getThrowable() != null) {
+            arguments = Arrays.copyOf(arguments, arguments.length + 1);
+            arguments[arguments.length - 1] = event.getThrowable();
+        }
+
+        switch (event.getLevel()) {
+            case ERROR:
+                logger.error(event.getMarker(), event.getMessage(), arguments);
+                break;
+            case WARN:
+                logger.warn(event.getMarker(), event.getMessage(), arguments);
+                break;
+            case INFO:
+                logger.info(event.getMarker(), event.getMessage(), arguments);
+                break;
+            case DEBUG:
+                logger.debug(event.getMarker(), event.getMessage(), arguments);
+                break;
+            default:
+                logger.trace(event.getMarker(), event.getMessage(), arguments);
+                break;
+        }
+    }
+
+    private boolean walkPath(TraversalContext context, PathItem pathItem) {
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.visitPath(context)) {
+                return false;
+            }
+        }
+
+        for (Map.Entry<PathItem.HttpMethod, Operation> entry : pathItem.readOperationsMap().entrySet()) {
+            context.enterOperation(entry.getKey(), entry.getValue());
+            if (!walkOperation(context, entry.getValue())) {
+                pathItem.operation(entry.getKey(), null);
+            }
+        }
+        return true;
+    }
+
+    private boolean walkOperation(TraversalContext context, Operation operation) {
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.visitOperation(context)) {
+                return false;
+            }
+        }
+
+        if (operation.getParameters() != null) {
+            Iterator<Parameter> parameterIterator = operation.getParameters().iterator();
+            while (parameterIterator.hasNext()) {
+                Parameter parameter = parameterIterator.next();
+                for (SpecVisitor visitor : visitors) {
+                    if (!visitor.visitParameter(context, parameter)) {
+                        parameterIterator.remove();
+                        break;
+                    }
+                }
+            }
+        }
+
+        RequestBody requestBody = operation.getRequestBody();
+        if (requestBody != null && !walkRequestBody(context, requestBody)) {
+            operation.setRequestBody(null);
+        }
+
+        if (operation.getResponses() != null) {
+            Iterator<Map.Entry<String, ApiResponse>> responseIterator =
+                operation.getResponses().entrySet().iterator();
+            while (responseIterator.hasNext()) {
+                Map.Entry<String, ApiResponse> entry = responseIterator.next();
+                context.enterResponse(entry.getKey());
+                if (entry.getValue() != null && !walkResponse(context, entry.getValue())) {
+                    responseIterator.remove();
+                }
+            }
+            context.enterResponse(null);
+        }
+        return true;
+    }
+
+    private boolean walkRequestBody(TraversalContext context, RequestBody requestBody) {
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.visitRequestBody(context, requestBody)) {
+                return false;
+            }
+        }
+
+        walkContent(context, requestBody.getContent());
+
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.leaveRequestBody(context, requestBody)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean walkResponse(TraversalContext context, ApiResponse response) {
+        for (SpecVisitor visitor : visitors) {
+            if (!visitor.visitResponse(context, response)) {
+                return false;
+            }
+        }
+
+        walkContent(context, response.getContent());
+        return true;
+    }
+
+    private void walkContent(TraversalContext context, Content content) {
+        if (content == null) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, MediaType>> contentIterator = content.entrySet().iterator();
+        while (contentIterator.hasNext()) {
+            Map.Entry<String, MediaType> entry = contentIterator.next();
+            for (SpecVisitor visitor : visitors) {
+                if (!visitor.visitMediaType(context, entry.getKey(), entry.getValue())) {
+                    contentIterator.remove();
+                    break;
+                }
+            }
+        }
+    }
+}
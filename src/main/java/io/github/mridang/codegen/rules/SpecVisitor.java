@@ -0,0 +1,142 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * A set of callbacks invoked by {@link SpecTraversal} while it walks the
+ * paths of an OpenAPI specification.
+ * <p>
+ * Every node callback returns whether the node should be kept. Returning
+ * {@code false} removes the node from its parent, and neither the remaining
+ * visitors nor the node's children will see it. All callbacks default to
+ * keeping the node, so a visitor only needs to override the node types it
+ * cares about.
+ */
+public interface SpecVisitor {
+
+    /**
+     * A visitor that does nothing, used by rules that are enabled but have
+     * nothing to do for the given configuration.
+     */
+    SpecVisitor NONE = new SpecVisitor() {
+        @Override
+        public boolean supportsParallelTraversal() {
+            return true;
+        }
+    };
+
+    /**
+     * Returns whether the visitor can be invoked concurrently for different
+     * path items. This requires that the visitor only modifies nodes below
+     * the path item it is visiting, logs through
+     * {@link TraversalContext#getLogger()} and keeps no unsynchronized
+     * state across callbacks. Note that nodes shared by reference between
+     * path items, as produced by fully resolving a specification, may then be
+     * visited concurrently.
+     *
+     * @return true if the visitor supports parallel traversal.
+     */
+    default boolean supportsParallelTraversal() {
+        return false;
+    }
+
+    /**
+     * Invoked once before any node is visited.
+     *
+     * @param openAPI The OpenAPI object about to be traversed.
+     */
+    default void beforeTraversal(OpenAPI openAPI) {
+    }
+
+    /**
+     * Invoked for every path item.
+     *
+     * @param context The traversal position, exposing the path and path item.
+     * @return false to remove the path from the specification.
+     */
+    default boolean visitPath(TraversalContext context) {
+        return true;
+    }
+
+    /**
+     * Invoked for every operation of the current path item.
+     *
+     * @param context The traversal position, exposing the operation.
+     * @return false to remove the operation from its path item.
+     */
+    default boolean visitOperation(TraversalContext context) {
+        return true;
+    }
+
+    /**
+     * Invoked for every parameter declared on the current operation.
+     *
+     * @param context   The traversal position.
+     * @param parameter The parameter, which may be a reference.
+     * @return false to remove the parameter from the operation.
+     */
+    default boolean visitParameter(TraversalContext context, Parameter parameter) {
+        return true;
+    }
+
+    /**
+     * Invoked for the request body of the current operation, before any of
+     * its media types are visited.
+     *
+     * @param context     The traversal position.
+     * @param requestBody The request body.
+     * @return false to remove the request body from the operation.
+     */
+    default boolean visitRequestBody(TraversalContext context, RequestBody requestBody) {
+        return true;
+    }
+
+    /**
+     * Invoked for the request body of the current operation, after all of
+     * its media types have been visited.
+     *
+     * @param context     The traversal position.
+     * @param requestBody The request body.
+     * @return false to remove the request body from the operation.
+     */
+    default boolean leaveRequestBody(TraversalContext context, RequestBody requestBody) {
+        return true;
+    }
+
+    /**
+     * Invoked for every response of the current operation.
+     *
+     * @param context  The traversal position, exposing the status code.
+     * @param response The response.
+     * @return false to remove the response from the operation.
+     */
+    default boolean visitResponse(TraversalContext context, ApiResponse response) {
+        return true;
+    }
+
+    /**
+     * Invoked for every media type of a request body or response. The status
+     * code of the context is {@code null} when the media type belongs to the
+     * request body.
+     *
+     * @param context     The traversal position.
+     * @param contentType The content type key, e.g. "application/json".
+     * @param mediaType   The media type.
+     * @return false to remove the media type from its content map.
+     */
+    default boolean visitMediaType(TraversalContext context, String contentType, MediaType mediaType) {
+        return true;
+    }
+
+    /**
+     * Invoked once after every node has been visited.
+     *
+     * @param openAPI The traversed OpenAPI object.
+     */
+    default void afterTraversal(OpenAPI openAPI) {
+    }
+}
@@ -2,10 +2,9 @@
 package io.github.mridang.codegen.rules;
 
 import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,14 +19,14 @@ import java.util.stream.Collectors;
  * the parameter from the operation but does not delete the shared component
  * from the global components list.
  */
-public class StripParametersRule implements CustomNormalizationRule {
+public class StripParametersRule implements TraversableRule {
 
     @Override
-    public void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+    public SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
         String paramsToRemoveString = ruleConfig.get(RULE_VALUE_KEY);
         if (paramsToRemoveString == null || paramsToRemoveString.isEmpty()) {
             logger.warn("STRIP_PARAMS rule enabled, but no value provided. Skipping.");
-            return;
+            return SpecVisitor.NONE;
         }
 
         List<String> paramsToRemove = Arrays.stream(paramsToRemoveString.split("\\|"))
@@ -35,46 +34,69 @@ public class StripParametersRule implements CustomNormalizationRule {
             .map(String::toLowerCase)
             .collect(Collectors.toList());
 
-        logger.info("Starting STRIP_PARAMS rule. Will remove: {}", paramsToRemove);
+        return new Visitor(paramsToRemove, RuleReport.fromConfig("STRIP_PARAMS", ruleConfig), logger);
+    }
+
+    /**
+     * Removes the configured parameters from every visited operation.
+     */
+    private static final class Visitor implements SpecVisitor {
+
+        private final List<String> paramsToRemove;
+        private final RuleReport report;
+        private final Logger logger;
 
-        if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
-            throw new NoPathsException(
-                "Error: Paths object is null or empty, cannot strip parameters."
-            );
+        Visitor(List<String> paramsToRemove, RuleReport report, Logger logger) {
+            this.paramsToRemove = paramsToRemove;
+            this.report = report;
+            this.logger = logger;
         }
 
+        @Override
+        public boolean supportsParallelTraversal() {
+            return true;
+        }
+
+        @Override
+        public void beforeTraversal(OpenAPI openAPI) {
+            logger.info("Starting STRIP_PARAMS rule. Will remove: {}", paramsToRemove);
+
+            if (openAPI.getPaths() == null || openAPI.getPaths().isEmpty()) {
+                throw new NoPathsException(
+                    "Error: Paths object is null or empty, cannot strip parameters."
+                );
+            }
+        }
+
+        @Override
+        public boolean visitParameter(TraversalContext context, Parameter parameter) {
+            String paramName;
+
+            // New logic to handle both inline and $ref parameters
+            if (parameter.get$ref() != null) {
+                // For a $ref like "#/components/parameters/MyParam",
+                // use "MyParam".
+                paramName = context.getIndex().getComponentName(parameter.get$ref());
+            } else {
+                // Existing logic for inline parameters
+                paramName = parameter.getName();
+            }
 
-        for (PathItem pathItem : openAPI.getPaths().values()) {
-            for (Operation operation : pathItem.readOperations()) {
-                if (operation.getParameters() == null) {
-                    continue;
-                }
-
-                Iterator<Parameter> iterator = operation.getParameters().iterator();
-                while (iterator.hasNext()) {
-                    Parameter parameter = iterator.next();
-                    String paramName = null;
-
-                    // New logic to handle both inline and $ref parameters
-                    if (parameter.get$ref() != null) {
-                        // For a $ref like "#/components/parameters/MyParam",
-                        // extract "MyParam".
-                        String ref = parameter.get$ref();
-                        paramName = ref.substring(ref.lastIndexOf('/') + 1);
-                    } else {
-                        // Existing logic for inline parameters
-                        paramName = parameter.getName();
-                    }
-
-                    if (paramName != null && paramsToRemove.contains(paramName.toLowerCase(Locale.ENGLISH))) {
-                        logger.info("Removing parameter '{}' from operation '{}'",
-                            paramName, operation.getOperationId());
-                        iterator.remove();
-                    }
-                }
+            if (paramName != null && paramsToRemove.contains(paramName.toLowerCase(Locale.ENGLISH))) {
+                report.record(context.getLogger(), Level.INFO, "parameters removed",
+                    context.getMethod() + " " + context.getPath() + " " + paramName,
+                    "Removing parameter '{}' from operation '{}'",
+                    paramName, context.getOperation().getOperationId());
+                return false;
             }
+            return true;
+        }
+
+        @Override
+        public void afterTraversal(OpenAPI openAPI) {
+            report.publish(logger);
+            logger.info("STRIP_PARAMS rule completed.");
         }
-        logger.info("STRIP_PARAMS rule completed.");
     }
 
     public static class NoPathsException extends RuntimeException {
@@ -84,4 +106,26 @@ public class StripParametersRule implements CustomNormalizationRule {
             super(message);
         }
     }
+
+    /**
+     * Registers the rule for stripping parameters under the
+     * {@code STRIP_PARAMS} key.
+     */
+    public static final class Provider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "STRIP_PARAMS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 100;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return new StripParametersRule();
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.slf4j.Logger;
+
+import java.util.Map;
+
+/**
+ * A normalization rule whose work can be expressed as callbacks on the nodes
+ * of the specification's paths. Such rules can share a single
+ * {@link SpecTraversal} with other traversable rules instead of each
+ * walking the specification on their own.
+ */
+public interface TraversableRule extends CustomNormalizationRule {
+
+    /**
+     * Creates a visitor that performs this rule's transformation. The rule
+     * configuration is parsed here, once, rather than for every node.
+     *
+     * @param openAPI    The OpenAPI object that will be traversed.
+     * @param ruleConfig A map containing the configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     * @return The visitor, or {@link SpecVisitor#NONE} if there is nothing to do.
+     */
+    SpecVisitor createVisitor(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger);
+
+    /**
+     * Applies the rule on its own by running a traversal with only this
+     * rule's visitor registered.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     */
+    @Override
+    default void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger) {
+        new SpecTraversal(logger)
+            .add(createVisitor(openAPI, ruleConfig, logger))
+            .walk(openAPI);
+    }
+
+    /**
+     * Applies the rule on its own, recording every node offered to and
+     * removed by its visitor.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     */
+    @Override
+    default void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics) {
+        new SpecTraversal(logger)
+            .add(createVisitor(openAPI, ruleConfig, logger), metrics)
+            .walk(openAPI);
+    }
+
+    /**
+     * Applies the rule on its own, keeping the shared index up to date
+     * through the traversal.
+     *
+     * @param openAPI    The OpenAPI object to be modified.
+     * @param ruleConfig A map containing the configuration for this rule.
+     * @param logger     A logger instance for logging messages.
+     * @param metrics    The metrics to record visited and removed nodes in.
+     * @param index      The index of the OpenAPI object.
+     */
+    @Override
+    default void apply(OpenAPI openAPI, Map<String, String> ruleConfig, Logger logger, RuleMetrics metrics,
+                       SpecIndex index) {
+        new SpecTraversal(logger, 1, index)
+            .add(createVisitor(openAPI, ruleConfig, logger), metrics)
+            .walk(openAPI);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.mridang.codegen.rules;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Describes the position of a {@link SpecTraversal} within the specification.
+ * A single instance is reused for the whole walk, so visitors must not keep
+ * a reference to it beyond the callback they received it in.
+ */
+public final class TraversalContext {
+
+    private final Logger logger;
+    private final SpecIndex index;
+    @Nullable
+    private String path;
+    @Nullable
+    private PathItem pathItem;
+    @Nullable
+    private PathItem.HttpMethod method;
+    @Nullable
+    private Operation operation;
+    @Nullable
+    private String statusCode;
+
+    TraversalContext(Logger logger, SpecIndex index) {
+        this.logger = logger;
+        this.index = index;
+    }
+
+    /**
+     * Returns the logger visitors should use for messages about the node
+     * being visited. When paths are walked in parallel, the messages are
+     * buffered and replayed in path order once the walk completes.
+     *
+     * @return The logger for the current path.
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Returns the index of the specification being walked. The traversal
+     * indexes every path again after its visitors are done with it, so
+     * visitors don't need to report their changes to the index themselves.
+     *
+     * @return The index of the specification.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public SpecIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the path being visited, which is only set while visiting a path.
+     *
+     * @return The path currently being visited.
+     */
+    public String getPath() {
+        return Objects.requireNonNull(path, "Not visiting a path");
+    }
+
+    /**
+     * Returns the path item being visited, which is only set while visiting a
+     * path.
+     *
+     * @return The path item currently being visited.
+     */
+    public PathItem getPathItem() {
+        return Objects.requireNonNull(pathItem, "Not visiting a path");
+    }
+
+    /**
+     * Returns the HTTP method of the operation being visited, which is only
+     * set while visiting an operation.
+     *
+     * @return The HTTP method of the operation currently being visited.
+     */
+    public PathItem.HttpMethod getMethod() {
+        return Objects.requireNonNull(method, "Not visiting an operation");
+    }
+
+    /**
+     * Returns the operation being visited, which is only set while visiting an
+     * operation.
+     *
+     * @return The operation currently being visited.
+     */
+    public Operation getOperation() {
+        return Objects.requireNonNull(operation, "Not visiting an operation");
+    }
+
+    /**
+     * Returns the status code of the response being visited.
+     *
+     * @return The status code of the response currently being visited, or
+     * null when visiting the request body.
+     */
+    @Nullable
+    public String getStatusCode() {
+        return statusCode;
+    }
+
+    void enterPath(String path, PathItem pathItem) {
+        this.path = path;
+        this.pathItem = pathItem;
+        this.method = null;
+        this.operation = null;
+        this.statusCode = null;
+    }
+
+    void enterOperation(PathItem.HttpMethod method, Operation operation) {
+        this.method = method;
+        this.operation = operation;
+        this.statusCode = null;
+    }
+
+    void enterResponse(@Nullable String statusCode) {
+        this.statusCode = statusCode;
+    }
+}
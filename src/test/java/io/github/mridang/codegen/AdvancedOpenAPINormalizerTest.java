@@ -4,14 +4,30 @@ import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.mridang.codegen.rules.CustomNormalizationRule;
+import io.github.mridang.codegen.rules.NormalizationRuleProvider;
+import io.swagger.v3.core.util.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
 import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("AdvancedOpenAPINormalizer Tests")
 class AdvancedOpenAPINormalizerTest {
@@ -43,4 +59,113 @@ class AdvancedOpenAPINormalizerTest {
             .forOperation(HttpMethod.GET, "/api/v1/users")
             .hasParameters("paramToKeep");
     }
+
+    @Test
+    @DisplayName("Should fuse path-walking rules into a single traversal with the same result")
+    void shouldFuseTraversableRules() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/api/v1/users", new PathItem().post(new Operation()
+                .addParametersItem(new Parameter().name("paramToStrip"))
+                .addParametersItem(new Parameter().name("paramToKeep"))
+                .requestBody(new RequestBody().required(true).content(new Content()
+                    .addMediaType("application/json", new MediaType().schema(new Schema<>()))
+                    .addMediaType("application/xml", new MediaType().schema(new Schema<>()))))
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse().content(new Content()
+                    .addMediaType("application/json", new MediaType())
+                    .addMediaType("text/plain", new MediaType()))))))
+            .path("/internal/status", new PathItem().get(new Operation()));
+
+        Map<String, String> rulesToRun = Map.of(
+            "STRIP_PARAMS", "paramToStrip",
+            "CLEAN_EMPTY_REQUEST_BODIES", "Tag",
+            "ONLY_ALLOW_JSON", "true",
+            "FILTER_PATHS", "/api/.*"
+        );
+
+        AdvancedOpenAPINormalizer normalizer = new AdvancedOpenAPINormalizer(openAPI, rulesToRun);
+        normalizer.normalize();
+
+        assertThat(openAPI)
+            .hasPaths("/api/v1/users")
+            .forOperation(HttpMethod.POST, "/api/v1/users")
+            .hasParameters("paramToKeep")
+            .hasRequestBody(body -> body.isTaggedAsEmpty().hasContentTypes("application/json"))
+            .hasResponses(responses -> responses
+                .code("200", response -> response.hasContentTypes("application/json")));
+    }
+
+    @Test
+    @DisplayName("Should write per-rule metrics to the configured report file")
+    void shouldWriteMetricsReport() throws IOException {
+        Path report = Files.createTempDirectory("normalizer-metrics").resolve("metrics.json");
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components()
+                .addParameters("UnusedParameter", new Parameter()))
+            .path("/api/v1/users", new PathItem().get(new Operation()
+                .addParametersItem(new Parameter().name("paramToStrip"))
+                .addParametersItem(new Parameter().name("paramToKeep"))))
+            .path("/internal/status", new PathItem().get(new Operation()));
+
+        Map<String, String> rulesToRun = Map.of(
+            "STRIP_PARAMS", "paramToStrip",
+            "FILTER_PATHS", "/api/.*",
+            "GARBAGE_COLLECT_COMPONENTS", "true",
+            "METRICS_REPORT", report.toString()
+        );
+
+        new AdvancedOpenAPINormalizer(openAPI, rulesToRun).normalize();
+
+        JsonNode rules = Json.mapper().readTree(report.toFile()).get("rules");
+        assertEquals(3, rules.size());
+        assertEquals("STRIP_PARAMS", rules.get(0).get("rule").asText());
+        assertEquals(5, rules.get(0).get("nodesVisited").asLong());
+        assertEquals(1, rules.get(0).get("nodesRemoved").asLong());
+        assertEquals("FILTER_PATHS", rules.get(1).get("rule").asText());
+        assertEquals(4, rules.get(1).get("nodesVisited").asLong());
+        assertEquals(1, rules.get(1).get("nodesRemoved").asLong());
+        assertEquals("GARBAGE_COLLECT_COMPONENTS", rules.get(2).get("rule").asText());
+        assertEquals(1, rules.get(2).get("nodesRemoved").asLong());
+        assertTrue(rules.get(2).get("wallNanos").asLong() > 0);
+    }
+
+    @Test
+    @DisplayName("Should discover and order rules registered through the provider SPI")
+    void shouldRunDiscoveredRules() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/api/v1/users", new PathItem().get(new Operation()))
+            .path("/api/v1/groups", new PathItem().get(new Operation()))
+            .path("/internal/status", new PathItem().get(new Operation()));
+
+        Map<String, String> rulesToRun = Map.of(
+            "COUNT_PATHS", "x-path-count",
+            "FILTER_PATHS", "/api/.*"
+        );
+
+        new AdvancedOpenAPINormalizer(openAPI, rulesToRun).normalize();
+
+        assertEquals(2, openAPI.getExtensions().get("x-path-count"));
+    }
+
+    /**
+     * Registers a rule, through the test service registration, that records
+     * the number of paths it sees as an extension. It runs after FILTER_PATHS.
+     */
+    public static final class CountPathsRuleProvider implements NormalizationRuleProvider {
+
+        @Override
+        public String getRuleKey() {
+            return "COUNT_PATHS";
+        }
+
+        @Override
+        public int getOrder() {
+            return 450;
+        }
+
+        @Override
+        public CustomNormalizationRule create() {
+            return (openAPI, ruleConfig, logger) ->
+                openAPI.addExtension(ruleConfig.get(CustomNormalizationRule.RULE_VALUE_KEY), openAPI.getPaths().size());
+        }
+    }
 }
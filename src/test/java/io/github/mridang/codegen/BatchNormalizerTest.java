@@ -0,0 +1,116 @@
+package io.github.mridang.codegen;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("BatchNormalizer Tests")
+class BatchNormalizerTest {
+
+    private static final String SPEC = String.join("\n",
+        "openapi: 3.0.3",
+        "info:",
+        "  title: Test",
+        "  version: 1.0.0",
+        "paths:",
+        "  /api/v1/users:",
+        "    get:",
+        "      responses:",
+        "        '200':",
+        "          description: OK",
+        "  /internal/status:",
+        "    get:",
+        "      responses:",
+        "        '200':",
+        "          description: OK",
+        ""
+    );
+
+    @Test
+    @DisplayName("Should normalize every specification listed in the manifest")
+    void shouldNormalizeManifestEntries() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("batch-normalizer");
+        Files.writeString(directory.resolve("first.yaml"), SPEC, StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("second.yaml"), SPEC, StandardCharsets.UTF_8);
+        Path manifest = directory.resolve("manifest.yaml");
+        Files.writeString(manifest, String.join("\n",
+            "specs:",
+            "  - spec: first.yaml",
+            "    output: out/first.json",
+            "    rules:",
+            "      FILTER_PATHS: /api/.*",
+            "  - spec: second.yaml",
+            "    output: out/second.yaml",
+            "    rules:",
+            "      FILTER_PATHS: /internal/.*",
+            ""
+        ), StandardCharsets.UTF_8);
+
+        List<BatchNormalizer.Entry> entries = BatchNormalizer.parseEntries(
+            BatchNormalizer.readManifest(manifest), directory);
+        int failures = new BatchNormalizer(2).normalize(entries);
+
+        assertEquals(0, failures);
+        assertThat(Json.mapper().readValue(directory.resolve("out/first.json").toFile(), OpenAPI.class))
+            .hasPaths("/api/v1/users");
+        assertThat(Yaml.mapper().readValue(directory.resolve("out/second.yaml").toFile(), OpenAPI.class))
+            .hasPaths("/internal/status");
+    }
+
+    @Test
+    @DisplayName("Should resolve the paths given to rules against the manifest directory")
+    void shouldResolveRulePathsAgainstManifest() throws IOException {
+        Path directory = Files.createTempDirectory("batch-normalizer");
+        Path manifest = directory.resolve("manifest.yaml");
+        Files.writeString(manifest, String.join("\n",
+            "specs:",
+            "  - spec: first.yaml",
+            "    output: out/first.yaml",
+            "    rules:",
+            "      RUN_SCRIPT: scripts/rule.mjs",
+            "      CACHE_DIR: cache",
+            "      METRICS_REPORT: " + directory.resolve("metrics.json"),
+            "      FILTER_PATHS: /api/.*",
+            ""
+        ), StandardCharsets.UTF_8);
+
+        Map<String, String> rules = BatchNormalizer.parseEntries(
+            BatchNormalizer.readManifest(manifest), directory).get(0).getRules();
+
+        assertEquals(directory.resolve("scripts/rule.mjs").toString(), rules.get("RUN_SCRIPT"));
+        assertEquals(directory.resolve("cache").toString(), rules.get("CACHE_DIR"));
+        assertEquals(directory.resolve("metrics.json").toString(), rules.get("METRICS_REPORT"));
+        assertEquals("/api/.*", rules.get("FILTER_PATHS"));
+    }
+
+    @Test
+    @DisplayName("Should report an unreadable specification without failing the others")
+    void shouldIsolateFailures() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("batch-normalizer");
+        Files.writeString(directory.resolve("valid.yaml"), SPEC, StandardCharsets.UTF_8);
+
+        List<BatchNormalizer.Entry> entries = List.of(
+            new BatchNormalizer.Entry(directory.resolve("missing.yaml"), Map.of(),
+                directory.resolve("missing.out.yaml")),
+            new BatchNormalizer.Entry(directory.resolve("valid.yaml"), Map.of(),
+                directory.resolve("valid.out.yaml"))
+        );
+        int failures = new BatchNormalizer(1).normalize(entries);
+
+        assertEquals(1, failures);
+        assertThat(Yaml.mapper().readValue(directory.resolve("valid.out.yaml").toFile(), OpenAPI.class))
+            .hasPaths("/api/v1/users", "/internal/status");
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.mridang.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NormalizedSpecCache Tests")
+class NormalizedSpecCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizedSpecCacheTest.class);
+
+    private static OpenAPI newSpec() {
+        return new OpenAPI()
+            .path("/api/v1/users", new PathItem().get(new Operation()
+                .addParametersItem(new Parameter().name("paramToStrip").in("query"))
+                .addParametersItem(new Parameter().name("paramToKeep").in("query"))))
+            .path("/internal/status", new PathItem().get(new Operation()));
+    }
+
+    private static long countEntries(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".sml")).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve the normalized spec from the cache on the second run")
+    void shouldServeCachedSpec() throws IOException {
+        Path directory = Files.createTempDirectory("normalizer-cache");
+        Map<String, String> rules = Map.of(
+            "STRIP_PARAMS", "paramToStrip",
+            "FILTER_PATHS", "/api/.*",
+            "CACHE_DIR", directory.toString()
+        );
+
+        new AdvancedOpenAPINormalizer(newSpec(), rules).normalize();
+        assertEquals(1, countEntries(directory));
+
+        OpenAPI second = newSpec();
+        NormalizedSpecCache cache = NormalizedSpecCache.fromRules(rules, SpecVersion.V30, logger);
+        assertNotNull(cache);
+        String key = cache.computeKey(second, rules, null);
+        assertNotNull(key);
+        assertTrue(cache.load(key, second));
+
+        assertThat(second)
+            .hasPaths("/api/v1/users")
+            .forOperation(HttpMethod.GET, "/api/v1/users")
+            .hasParameters("paramToKeep");
+    }
+
+    @Test
+    @DisplayName("Should derive a different key when the rules change")
+    void shouldKeyOnRules() throws IOException {
+        Path directory = Files.createTempDirectory("normalizer-cache");
+        NormalizedSpecCache cache = new NormalizedSpecCache(directory, Long.MAX_VALUE, SpecVersion.V30, logger);
+
+        String first = cache.computeKey(newSpec(), Map.of("FILTER_PATHS", "/api/.*"), null);
+        String second = cache.computeKey(newSpec(), Map.of("FILTER_PATHS", "/internal/.*"), null);
+        String repeated = cache.computeKey(newSpec(), Map.of("FILTER_PATHS", "/api/.*"), null);
+
+        assertNotEquals(first, second);
+        assertEquals(first, repeated);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry once the size limit is exceeded")
+    void shouldEvictLeastRecentlyUsed() throws IOException {
+        Path sizing = Files.createTempDirectory("normalizer-cache");
+        new NormalizedSpecCache(sizing, Long.MAX_VALUE, SpecVersion.V30, logger).store("sizing", newSpec());
+        long entrySize = Files.size(sizing.resolve("sizing.sml"));
+
+        Path directory = Files.createTempDirectory("normalizer-cache");
+        NormalizedSpecCache cache = new NormalizedSpecCache(directory, 2 * entrySize, SpecVersion.V30, logger);
+        cache.store("first", newSpec());
+        cache.store("second", newSpec());
+        Files.setLastModifiedTime(directory.resolve("first.sml"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(directory.resolve("second.sml"), FileTime.fromMillis(2_000));
+
+        assertTrue(cache.load("first", newSpec()));
+        cache.store("third", newSpec());
+
+        assertEquals(2, countEntries(directory));
+        assertTrue(Files.exists(directory.resolve("first.sml")));
+        assertFalse(Files.exists(directory.resolve("second.sml")));
+        assertTrue(Files.exists(directory.resolve("third.sml")));
+    }
+}
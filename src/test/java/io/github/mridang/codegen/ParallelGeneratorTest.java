@@ -0,0 +1,119 @@
+package io.github.mridang.codegen;
+
+import io.github.mridang.codegen.generators.java.BetterJavaCodegen;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.CodegenConfigurator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ParallelGenerator Tests")
+class ParallelGeneratorTest {
+
+    @Test
+    @DisplayName("Should generate the same files with the same contents as a serial run")
+    void generatesSameFilesAsSerialRun() throws IOException {
+        for (String generatorName : List.of("java-plus", "node-plus", "php-plus", "python-plus", "ruby-plus")) {
+            assertSameAsSerialRun(generatorName);
+        }
+    }
+
+    @Test
+    @DisplayName("Should write each file before it is post-processed")
+    void writesFilesBeforePostProcessingThem() throws IOException {
+        Path outputDir = Files.createTempDirectory("parallel-generator");
+        CodegenConfigurator configurator = configure(PostProcessingCodegen.class.getName(), outputDir)
+            .setEnablePostProcessFile(true);
+
+        DefaultGenerator generator = new ParallelGenerator(4);
+        generator.setGenerateMetadata(false);
+        List<File> files = generator.opts(configurator.toClientOptInput()).generate();
+
+        List<File> sources = files.stream()
+            .filter(file -> file.getName().endsWith(".java"))
+            .collect(Collectors.toList());
+        assertFalse(sources.isEmpty());
+        for (File source : sources) {
+            assertTrue(Files.readString(source.toPath()).endsWith(PostProcessingCodegen.MARKER), source.toString());
+        }
+    }
+
+    private static void assertSameAsSerialRun(String generatorName) throws IOException {
+        Path serialDir = Files.createTempDirectory("serial-generator");
+        Path parallelDir = Files.createTempDirectory("parallel-generator");
+
+        DefaultGenerator serial = new DefaultGenerator();
+        serial.setGenerateMetadata(false);
+        List<File> serialFiles = serial.opts(configure(generatorName, serialDir).toClientOptInput()).generate();
+        DefaultGenerator parallel = new ParallelGenerator(4);
+        parallel.setGenerateMetadata(false);
+        List<File> parallelFiles = parallel.opts(configure(generatorName, parallelDir).toClientOptInput()).generate();
+
+        assertFalse(serialFiles.isEmpty(), generatorName);
+        assertEquals(relativize(serialDir, serialFiles), relativize(parallelDir, parallelFiles), generatorName);
+        assertEquals(readTree(serialDir), readTree(parallelDir), generatorName);
+    }
+
+    private static CodegenConfigurator configure(String generatorName, Path outputDir) {
+        return new CodegenConfigurator()
+            .setGeneratorName(generatorName)
+            // Timestamps would differ between the two runs.
+            .setAdditionalProperties(Map.of(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true))
+            .setInputSpec("src/test/resources/spec.yaml")
+            .setOutputDir(outputDir.toString().replace("\\", "/"));
+    }
+
+    private static List<String> relativize(Path dir, List<File> files) {
+        return files.stream()
+            .map(file -> dir.toAbsolutePath().relativize(file.toPath().toAbsolutePath()).toString())
+            .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> readTree(Path dir) throws IOException {
+        Map<String, String> contents = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                contents.put(dir.relativize(file).toString(), Files.readString(file));
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * A generator that marks the end of each source file it post-processes,
+     * and fails if the file wasn't written yet.
+     */
+    public static class PostProcessingCodegen extends BetterJavaCodegen {
+
+        static final String MARKER = "// post-processed\n";
+
+        @Override
+        public void postProcessFile(File file, String fileType) {
+            if (!file.getName().endsWith(".java")) {
+                return;
+            }
+            try {
+                Files.writeString(file.toPath(), MARKER, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
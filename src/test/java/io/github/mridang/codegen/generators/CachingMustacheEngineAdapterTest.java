@@ -0,0 +1,178 @@
+package io.github.mridang.codegen.generators;
+
+import com.samskivert.mustache.Escapers;
+import com.samskivert.mustache.Mustache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.config.CodegenConfigurator;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingMustacheEngineAdapterTest {
+
+    private static final String API = "src/main/java/org/openapitools/client/api/DefaultApi.java";
+    private static final String MODEL = "src/main/java/org/openapitools/client/model/Pet.java";
+
+    @Test
+    @DisplayName("Should reuse the compiled templates of an earlier run")
+    void reusesCompiledTemplatesAcrossRuns() throws IOException {
+        Path dir = Files.createTempDirectory("templates");
+        Path spec = writeSpec(dir);
+
+        generate(spec, dir.resolve("first"), null);
+        long compilations = CachingMustacheEngineAdapter.compilations();
+        assertTrue(compilations > 0);
+        generate(spec, dir.resolve("second"), null);
+
+        assertEquals(compilations, CachingMustacheEngineAdapter.compilations());
+        assertEquals(Files.readString(dir.resolve("first").resolve(MODEL)),
+            Files.readString(dir.resolve("second").resolve(MODEL)));
+        assertEquals(Files.readString(dir.resolve("first").resolve(API)),
+            Files.readString(dir.resolve("second").resolve(API)));
+    }
+
+    @Test
+    @DisplayName("Should compile a template again once one of its partials changed")
+    void recompilesChangedPartials() throws IOException {
+        Path dir = Files.createTempDirectory("templates");
+        Path spec = writeSpec(dir);
+        Path templates = Files.createDirectories(dir.resolve("custom"));
+        Path partial = templates.resolve("generatedAnnotation.mustache");
+
+        Files.writeString(partial, "// First revision\n", StandardCharsets.UTF_8);
+        generate(spec, dir.resolve("first"), templates);
+        Files.writeString(partial, "// Second revision\n", StandardCharsets.UTF_8);
+        generate(spec, dir.resolve("second"), templates);
+
+        assertTrue(Files.readString(dir.resolve("first").resolve(API)).contains("// First revision"));
+        assertTrue(Files.readString(dir.resolve("second").resolve(API)).contains("// Second revision"));
+    }
+
+    @Test
+    @DisplayName("Should check the partials of a template once per generator run")
+    void checksPartialsOncePerRun() throws IOException {
+        Map<String, String> templates = Map.of(
+            "checkedOnce.mustache", "Hello {{>checkedOncePartial}}",
+            "checkedOncePartial.mustache", "{{name}}");
+        Map<String, Object> bundle = Map.of("name", "world", "MUSTACHE_PARENT_CONTEXT", new Object());
+        CachingMustacheEngineAdapter adapter = new CachingMustacheEngineAdapter();
+
+        CountingExecutor first = new CountingExecutor(templates);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Hello world", adapter.compileTemplate(first, bundle, "checkedOnce.mustache"));
+        }
+        CountingExecutor second = new CountingExecutor(templates);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Hello world", adapter.compileTemplate(second, bundle, "checkedOnce.mustache"));
+        }
+
+        assertEquals(1, first.reads("checkedOncePartial.mustache"));
+        assertEquals(1, second.reads("checkedOncePartial.mustache"));
+    }
+
+    @Test
+    @DisplayName("Should not share compiled templates between compilers with other escapers or delimiters")
+    void keysOnEscapersAndDelimiters() throws IOException {
+        CountingExecutor executor = new CountingExecutor(Map.of("escaped.mustache", "<%value%> {{value}}"));
+        Map<String, Object> bundle = Map.of("value", "a&b", "MUSTACHE_PARENT_CONTEXT", new Object());
+
+        assertEquals("<%value%> aANDb", render(Mustache.compiler()
+            .withEscaper(Escapers.simple(new String[][]{{"&", "AND"}})), executor, bundle));
+        assertEquals("<%value%> a+b", render(Mustache.compiler()
+            .withEscaper(Escapers.simple(new String[][]{{"&", "+"}})), executor, bundle));
+        assertEquals("<%value%> a&b", render(Mustache.compiler()
+            .withEscaper(Escapers.NONE), executor, bundle));
+        assertEquals("a&b {{value}}", render(Mustache.compiler()
+            .withEscaper(Escapers.NONE).withDelims("<% %>"), executor, bundle));
+    }
+
+    private static String render(Mustache.Compiler compiler, TemplatingExecutor executor,
+                                 Map<String, Object> bundle) throws IOException {
+        CachingMustacheEngineAdapter adapter = new CachingMustacheEngineAdapter();
+        adapter.setCompiler(compiler);
+        return adapter.compileTemplate(executor, bundle, "escaped.mustache");
+    }
+
+    private static void generate(Path spec, Path output, @Nullable Path templates) {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+            .setGeneratorName("java-plus")
+            .setInputSpec(spec.toString().replace("\\", "/"))
+            .setOutputDir(output.toString().replace("\\", "/"));
+        if (templates != null) {
+            configurator.setTemplateDir(templates.toString().replace("\\", "/"));
+        }
+        new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+    }
+
+    private static Path writeSpec(Path dir) throws IOException {
+        return Files.writeString(dir.resolve("spec.yaml"), String.join("\n",
+            "openapi: 3.0.3",
+            "info:",
+            "  title: Test",
+            "  version: 1.0.0",
+            "paths:",
+            "  /pets:",
+            "    get:",
+            "      operationId: listPets",
+            "      responses:",
+            "        '200':",
+            "          description: OK",
+            "          content:",
+            "            application/json:",
+            "              schema:",
+            "                $ref: '#/components/schemas/Pet'",
+            "components:",
+            "  schemas:",
+            "    Pet:",
+            "      type: object",
+            "      properties:",
+            "        name:",
+            "          type: string",
+            ""), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A generator that serves templates from memory and counts how often
+     * each one is read.
+     */
+    private static final class CountingExecutor implements TemplatingExecutor {
+
+        private final Map<String, String> templates;
+        private final Map<String, Integer> reads = new ConcurrentHashMap<>();
+
+        CountingExecutor(Map<String, String> templates) {
+            this.templates = templates;
+        }
+
+        int reads(String name) {
+            return reads.getOrDefault(name, 0);
+        }
+
+        @Override
+        public String getFullTemplateContents(String name) {
+            String contents = templates.get(name);
+            if (contents == null) {
+                throw new IllegalArgumentException("No template named " + name);
+            }
+            reads.merge(name, 1, Integer::sum);
+            return contents;
+        }
+
+        @Override
+        public Path getFullTemplatePath(String name) {
+            return Paths.get(name);
+        }
+    }
+}
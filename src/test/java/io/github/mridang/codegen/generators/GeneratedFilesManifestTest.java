@@ -0,0 +1,129 @@
+package io.github.mridang.codegen.generators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratedFilesManifestTest {
+
+    private static final String MODELS = "src/main/java/org/openapitools/client/model/";
+    private static final String API = "src/main/java/org/openapitools/client/api/DefaultApi.java";
+
+    @Test
+    @DisplayName("Should keep unchanged files untouched and delete the files of removed models")
+    void keepsUnchangedFilesAndDeletesStaleOnes() throws IOException {
+        Path dir = Files.createTempDirectory("manifest");
+        Path spec = dir.resolve("spec.yaml");
+        Path output = dir.resolve("output");
+
+        Files.writeString(spec, spec("Pet", "Owner", "Vet"), StandardCharsets.UTF_8);
+        generate(spec, output);
+        Path pet = output.resolve(MODELS + "Pet.java");
+        Path owner = output.resolve(MODELS + "Owner.java");
+        Path vet = output.resolve(MODELS + "Vet.java");
+        assertTrue(Files.readString(output.resolve(".openapi-generator/SHA256SUMS")).contains(MODELS + "Pet.java"));
+
+        FileTime past = FileTime.fromMillis(86_400_000L);
+        Files.setLastModifiedTime(pet, past);
+        Files.writeString(vet, "// Changed by hand\n", StandardCharsets.UTF_8);
+        Files.writeString(spec, spec("Pet"), StandardCharsets.UTF_8);
+        generate(spec, output);
+
+        assertEquals(past, Files.getLastModifiedTime(pet));
+        assertFalse(Files.exists(owner));
+        assertTrue(Files.exists(output.resolve(".openapi-generator-ignore")));
+        assertTrue(Files.exists(vet));
+        String manifest = Files.readString(output.resolve(".openapi-generator/SHA256SUMS"));
+        assertFalse(manifest.contains("Owner.java"));
+        assertFalse(manifest.contains("Vet.java"));
+    }
+
+    @Test
+    @DisplayName("Should keep the files that a run limited to the models and supporting files didn't generate")
+    void keepsFilesNotSelectedForGeneration() throws IOException {
+        Path dir = Files.createTempDirectory("manifest");
+        Path spec = dir.resolve("spec.yaml");
+        Path output = dir.resolve("output");
+
+        Files.writeString(spec, spec("Pet", "Owner"), StandardCharsets.UTF_8);
+        generate(spec, output);
+        Files.writeString(spec, spec("Pet"), StandardCharsets.UTF_8);
+        generate(spec, output, CodegenConstants.MODELS, CodegenConstants.SUPPORTING_FILES);
+
+        assertTrue(Files.exists(output.resolve(API)));
+        assertTrue(Files.readString(output.resolve(".openapi-generator/SHA256SUMS")).contains(API));
+    }
+
+    @Test
+    @DisplayName("Should keep the stale files that are now ignored")
+    void keepsIgnoredFiles() throws IOException {
+        Path dir = Files.createTempDirectory("manifest");
+        Path spec = dir.resolve("spec.yaml");
+        Path output = dir.resolve("output");
+
+        Files.writeString(spec, spec("Pet", "Owner"), StandardCharsets.UTF_8);
+        generate(spec, output);
+        Files.writeString(output.resolve(".openapi-generator-ignore"), MODELS + "Owner.java\n",
+            StandardCharsets.UTF_8);
+        Files.writeString(spec, spec("Pet"), StandardCharsets.UTF_8);
+        generate(spec, output);
+
+        assertTrue(Files.exists(output.resolve(MODELS + "Owner.java")));
+        assertFalse(Files.readString(output.resolve(".openapi-generator/SHA256SUMS")).contains("Owner.java"));
+    }
+
+    private static void generate(Path spec, Path output, String... selections) {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+            .setGeneratorName("java-plus")
+            .setInputSpec(spec.toString().replace("\\", "/"))
+            .setOutputDir(output.toString().replace("\\", "/"));
+        for (String selection : selections) {
+            configurator.addGlobalProperty(selection, "");
+        }
+        try {
+            new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+        } finally {
+            GlobalSettings.reset();
+        }
+    }
+
+    private static String spec(String... schemas) {
+        StringBuilder spec = new StringBuilder(String.join("\n",
+            "openapi: 3.0.3",
+            "info:",
+            "  title: Test",
+            "  version: 1.0.0",
+            "paths:",
+            "  /pets:",
+            "    get:",
+            "      operationId: listPets",
+            "      responses:",
+            "        '200':",
+            "          description: OK",
+            "components:",
+            "  schemas:",
+            ""));
+        for (String schema : List.of(schemas)) {
+            spec.append("    ").append(schema).append(":\n")
+                .append("      type: object\n")
+                .append("      properties:\n")
+                .append("        name:\n")
+                .append("          type: string\n");
+        }
+        return spec.toString();
+    }
+}
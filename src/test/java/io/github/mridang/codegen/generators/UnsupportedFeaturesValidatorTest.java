@@ -0,0 +1,75 @@
+package io.github.mridang.codegen.generators;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.CookieParameter;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnsupportedFeaturesValidatorTest {
+
+    private final UnsupportedFeaturesValidator validator = new UnsupportedFeaturesValidator() {
+    };
+
+    @Test
+    @DisplayName("Should report every unsupported feature of the specification at once")
+    void reportsAllViolations() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/session", new PathItem()
+                .get(new Operation().operationId("getSession").addParametersItem(new CookieParameter().name("sid")))
+                .post(new Operation().operationId("upload").requestBody(new RequestBody().content(new Content()
+                    .addMediaType("multipart/form-data", new MediaType())))))
+            .path("/orders", new PathItem().get(new Operation().operationId("listOrders")));
+        openAPI.addWebhooks("login", new PathItem().post(new Operation().operationId("onLogin")
+            .addParametersItem(new CookieParameter().name("sid"))));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> validator.validateSpec(openAPI));
+        String message = String.valueOf(e.getMessage());
+        assertTrue(message.contains("3 unsupported feature(s)"), message);
+        assertTrue(message.contains("'getSession' uses cookie parameters"), message);
+        assertTrue(message.contains("'upload' uses form parameters or file uploads ('multipart/form-data')"), message);
+        assertTrue(message.contains("'onLogin' uses cookie parameters"), message);
+    }
+
+    @Test
+    @DisplayName("Should report cookie parameters of path items and features of callbacks")
+    void reportsPathItemParametersAndCallbacks() {
+        Callback onShipped = new Callback().addPathItem("{$request.body#/callbackUrl}", new PathItem()
+            .post(new Operation().operationId("orderShipped").addParametersItem(new CookieParameter().name("sid"))));
+        OpenAPI openAPI = new OpenAPI()
+            .path("/session", new PathItem()
+                .addParametersItem(new Parameter().$ref("#/components/parameters/Session"))
+                .get(new Operation().operationId("getSession")))
+            .path("/orders", new PathItem().post(new Operation().operationId("createOrder")
+                .callbacks(Map.of("onShipped", onShipped))))
+            .components(new Components().addParameters("Session", new CookieParameter().name("sid")));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> validator.validateSpec(openAPI));
+        String message = String.valueOf(e.getMessage());
+        assertTrue(message.contains("2 unsupported feature(s)"), message);
+        assertTrue(message.contains("'getSession' uses cookie parameters"), message);
+        assertTrue(message.contains("'orderShipped' uses cookie parameters"), message);
+    }
+
+    @Test
+    @DisplayName("Should accept specifications without unsupported features")
+    void acceptsSupportedSpecifications() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/orders", new PathItem().get(new Operation().operationId("listOrders")));
+
+        assertDoesNotThrow(() -> validator.validateSpec(openAPI));
+    }
+}
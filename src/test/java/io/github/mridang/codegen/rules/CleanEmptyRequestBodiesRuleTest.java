@@ -12,10 +12,20 @@ import java.util.Map;
 
 import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
 import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CleanEmptyRequestBodiesRuleTest extends BaseRuleTest<CleanEmptyRequestBodiesRule> {
 
+    @Test
+    @DisplayName("Should walk paths sequentially, as request bodies may be shared between them")
+    void shouldNotSupportParallelTraversal() {
+        OpenAPI openAPI = new OpenAPI().path("/test", new PathItem());
+
+        assertFalse(rule.createVisitor(openAPI, Map.of(), logger).supportsParallelTraversal());
+    }
+
     @Test
     @DisplayName("Should throw NoPathsException when paths object is null")
     void shouldThrowOnNullPaths() {
@@ -112,4 +122,96 @@ class CleanEmptyRequestBodiesRuleTest extends BaseRuleTest<CleanEmptyRequestBodi
             .forOperation(HttpMethod.POST, "/test")
             .hasRequestBody(SpecAssertions.RequestBodyAsserter::isNull);
     }
+
+    @Test
+    @DisplayName("[Remove Mode] Should resolve request body references and keep bodies with content")
+    void removeModeShouldKeepRefdBodyWithContent() {
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components()
+                .addRequestBodies("Upload", new RequestBody().$ref("#/components/requestBodies/Document"))
+                .addRequestBodies("Document", new RequestBody().required(false)
+                    .content(new Content().addMediaType("application/json", new MediaType()
+                        .schema(new Schema<>().type("object").addProperty("id", new Schema<>().type("string")))))))
+            .path("/test", new PathItem().post(new Operation()
+                .requestBody(new RequestBody().$ref("#/components/requestBodies/Upload"))));
+        Map<String, String> config = Map.of(CleanEmptyRequestBodiesRule.RULE_VALUE_KEY, "Remove");
+
+        rule.apply(openAPI, config, logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(SpecAssertions.RequestBodyAsserter::isNotNull);
+    }
+
+    @Test
+    @DisplayName("[Tag Mode] Should resolve request body references and tag the referenced empty body")
+    void tagModeShouldTagRefdRequestBody() {
+        RequestBody empty = new RequestBody().required(true)
+            .content(new Content().addMediaType("application/json", new MediaType()
+                .schema(new Schema<>().type("object"))));
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components().addRequestBodies("Empty", empty))
+            .path("/test", new PathItem().post(new Operation()
+                .requestBody(new RequestBody().$ref("#/components/requestBodies/Empty"))));
+
+        rule.apply(openAPI, Map.of(CleanEmptyRequestBodiesRule.RULE_VALUE_KEY, "Tag"), logger);
+
+        assertEquals(Map.of("x-is-empty-body", true), empty.getExtensions());
+    }
+
+    private static OpenAPI createRefdSpec(Components components) {
+        return new OpenAPI()
+            .components(components)
+            .path("/test", new PathItem().post(new Operation()
+                .requestBody(new RequestBody().required(true)
+                    .content(new Content().addMediaType("application/json", new MediaType()
+                        .schema(new Schema<>().$ref("#/components/schemas/Request")))))));
+    }
+
+    @Test
+    @DisplayName("[Tag Mode] Should follow $ref chains and allOf compositions of empty schemas")
+    void tagModeShouldTagComposedEmptyBody() {
+        OpenAPI openAPI = createRefdSpec(new Components()
+            .addSchemas("Request", new Schema<>().$ref("#/components/schemas/Composed"))
+            .addSchemas("Composed", new Schema<>()
+                .addAllOfItem(new Schema<>().$ref("#/components/schemas/Base"))
+                .addAllOfItem(new Schema<>().type("object")))
+            .addSchemas("Base", new Schema<>().type("object")));
+
+        rule.apply(openAPI, Map.of(CleanEmptyRequestBodiesRule.RULE_VALUE_KEY, "Tag"), logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(SpecAssertions.RequestBodyAsserter::isTaggedAsEmpty);
+    }
+
+    @Test
+    @DisplayName("[Tag Mode] Should terminate on cycles and treat schemas composed only of themselves as empty")
+    void tagModeShouldTagCyclicEmptyBody() {
+        OpenAPI openAPI = createRefdSpec(new Components()
+            .addSchemas("Request", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Other")))
+            .addSchemas("Other", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Request"))));
+
+        rule.apply(openAPI, Map.of(CleanEmptyRequestBodiesRule.RULE_VALUE_KEY, "Tag"), logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(SpecAssertions.RequestBodyAsserter::isTaggedAsEmpty);
+    }
+
+    @Test
+    @DisplayName("[Tag Mode] Should not tag a cyclic composition that has content")
+    void tagModeShouldIgnoreCyclicBodyWithContent() {
+        OpenAPI openAPI = createRefdSpec(new Components()
+            .addSchemas("Request", new Schema<>()
+                .addAllOfItem(new Schema<>().$ref("#/components/schemas/Other"))
+                .addAllOfItem(new Schema<>().type("object").addProperty("id", new Schema<>().type("string"))))
+            .addSchemas("Other", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Request"))));
+
+        rule.apply(openAPI, Map.of(CleanEmptyRequestBodiesRule.RULE_VALUE_KEY, "Tag"), logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(SpecAssertions.RequestBodyAsserter::isNotTagged);
+    }
 }
@@ -0,0 +1,123 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DedupeSchemasRuleTest extends BaseRuleTest<DedupeSchemasRule> {
+
+    private static Schema<?> address() {
+        return new ObjectSchema()
+            .addProperty("street", new StringSchema())
+            .addProperty("zip", new StringSchema());
+    }
+
+    private static Schema<?> node(String next) {
+        return new ObjectSchema()
+            .addProperty("value", new IntegerSchema())
+            .addProperty("next", new Schema<>().$ref("#/components/schemas/" + next));
+    }
+
+    @Test
+    @DisplayName("Should merge identical schemas and point references to the kept one")
+    void shouldMergeIdenticalSchemas() {
+        Schema<?> billing = new Schema<>().$ref("#/components/schemas/Address1");
+        Schema<?> shipping = new Schema<>().$ref("#/components/schemas/OrderAddress");
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+            .addSchemas("Address", address())
+            .addSchemas("Address1", address())
+            .addSchemas("OrderAddress", address())
+            .addSchemas("Order", new ObjectSchema()
+                .addProperty("billing", billing)
+                .addProperty("shipping", shipping)));
+
+        rule.apply(openAPI, Map.of(DedupeSchemasRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Address", "Order");
+        assertEquals("#/components/schemas/Address", billing.get$ref());
+        assertEquals("#/components/schemas/Address", shipping.get$ref());
+    }
+
+    @Test
+    @DisplayName("Should merge identical recursive schemas")
+    void shouldMergeRecursiveSchemas() {
+        Schema<?> list = new ArraySchema().items(new Schema<>().$ref("#/components/schemas/OtherNode"));
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+            .addSchemas("Node", node("Node"))
+            .addSchemas("OtherNode", node("OtherNode"))
+            .addSchemas("Nodes", list));
+
+        rule.apply(openAPI, Map.of(DedupeSchemasRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Node", "Nodes");
+        assertEquals("#/components/schemas/Node", list.getItems().get$ref());
+    }
+
+    @Test
+    @DisplayName("Should keep schemas that differ in their enums or in the schemas they reference")
+    void shouldKeepDifferentSchemas() {
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+            .addSchemas("Color", new StringSchema()._enum(List.of("red", "green")))
+            .addSchemas("Shade", new StringSchema()._enum(List.of("red", "blue")))
+            .addSchemas("Paint", new ObjectSchema()
+                .addProperty("color", new Schema<>().$ref("#/components/schemas/Color")))
+            .addSchemas("Dye", new ObjectSchema()
+                .addProperty("color", new Schema<>().$ref("#/components/schemas/Shade"))));
+
+        rule.apply(openAPI, Map.of(DedupeSchemasRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Color", "Shade", "Paint", "Dye");
+    }
+
+    @Test
+    @DisplayName("Should keep identical schemas that a discriminator tells apart")
+    void shouldKeepDiscriminatedSchemas() {
+        Schema<?> pet = new ObjectSchema().addProperty("petType", new StringSchema())
+            .discriminator(new Discriminator().propertyName("petType"));
+        Schema<?> mapped = new Schema<>()
+            .oneOf(List.of(new Schema<>().$ref("#/components/schemas/Parrot"),
+                new Schema<>().$ref("#/components/schemas/Canary")))
+            .discriminator(new Discriminator().propertyName("kind")
+                .mapping("parrot", "#/components/schemas/Parrot")
+                .mapping("canary", "Canary"));
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+            .addSchemas("Pet", pet)
+            .addSchemas("Cat", new Schema<>().allOf(List.of(new Schema<>().$ref("#/components/schemas/Pet"))))
+            .addSchemas("Dog", new Schema<>().allOf(List.of(new Schema<>().$ref("#/components/schemas/Pet"))))
+            .addSchemas("Bird", mapped)
+            .addSchemas("Parrot", address())
+            .addSchemas("Canary", address()));
+
+        rule.apply(openAPI, Map.of(DedupeSchemasRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Pet", "Cat", "Dog", "Bird", "Parrot", "Canary");
+    }
+
+    @Test
+    @DisplayName("Should point references into a merged schema to the kept one")
+    void shouldRewriteReferencesIntoMergedSchemas() {
+        Schema<?> zip = new Schema<>().$ref("#/components/schemas/Address1/properties/zip");
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+            .addSchemas("Address", address())
+            .addSchemas("Address1", address())
+            .addSchemas("Label", new ObjectSchema().addProperty("zip", zip)));
+
+        rule.apply(openAPI, Map.of(DedupeSchemasRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Address", "Label");
+        assertEquals("#/components/schemas/Address/properties/zip", zip.get$ref());
+    }
+}
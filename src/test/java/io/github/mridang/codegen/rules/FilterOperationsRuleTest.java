@@ -0,0 +1,70 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FilterOperationsRuleTest extends BaseRuleTest<FilterOperationsRule> {
+
+    private static OpenAPI createSpec() {
+        return new OpenAPI()
+            .path("/orders", new PathItem()
+                .get(new Operation().operationId("listOrders").addTagsItem("orders"))
+                .post(new Operation().operationId("createOrder").addTagsItem("orders")))
+            .path("/users", new PathItem()
+                .get(new Operation().operationId("listUsers").addTagsItem("users"))
+                .delete(new Operation().operationId("deleteUser").addTagsItem("users").extensions(Map.of("x-internal", true))))
+            .path("/health", new PathItem()
+                .get(new Operation().operationId("healthCheck").extensions(Map.of("x-internal", true))));
+    }
+
+    private static Set<String> operationIds(OpenAPI openAPI) {
+        return openAPI.getPaths().values().stream()
+            .flatMap(pathItem -> pathItem.readOperations().stream())
+            .map(Operation::getOperationId)
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("Should keep only operations matching all terms of a clause")
+    void shouldKeepOperationsMatchingAllTerms() {
+        OpenAPI openAPI = createSpec();
+
+        rule.apply(openAPI, Map.of(FilterOperationsRule.RULE_VALUE_KEY, "method:get tag:orders|users"), logger);
+
+        assertEquals(Set.of("listOrders", "listUsers"), operationIds(openAPI));
+        assertThat(openAPI).hasPaths("/orders", "/users");
+    }
+
+    @Test
+    @DisplayName("Should keep operations matching any clause, with globs and negated extensions")
+    void shouldCombineClauses() {
+        OpenAPI openAPI = createSpec();
+
+        rule.apply(openAPI, Map.of(FilterOperationsRule.RULE_VALUE_KEY,
+            "!x-internal:true tag:users; operationId:create*|health?heck"), logger);
+
+        assertEquals(Set.of("listUsers", "createOrder", "healthCheck"), operationIds(openAPI));
+    }
+
+    @Test
+    @DisplayName("Should reject selectors with unknown fields")
+    void shouldRejectInvalidSelectors() {
+        OpenAPI openAPI = createSpec();
+
+        assertThrows(IllegalArgumentException.class, () ->
+            rule.apply(openAPI, Map.of(FilterOperationsRule.RULE_VALUE_KEY, "path:/orders"), logger));
+        assertThrows(IllegalArgumentException.class, () ->
+            rule.apply(openAPI, Map.of(FilterOperationsRule.RULE_VALUE_KEY, "method:FETCH"), logger));
+    }
+}
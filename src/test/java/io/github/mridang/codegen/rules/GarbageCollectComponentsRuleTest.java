@@ -5,6 +5,7 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.Discriminator;
 import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
@@ -80,6 +81,81 @@ public class GarbageCollectComponentsRuleTest extends BaseRuleTest<GarbageCollec
             .hasParameterComponents("ParamA");
     }
 
+    @Test
+    @DisplayName("Should remove components only referenced by other unused components")
+    public void shouldRemoveTransitivelyUnusedComponents() {
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components()
+                .addSchemas("Pet", new Schema<>().addProperty("owner", new Schema<>().$ref("#/components/schemas/Owner")))
+                .addSchemas("Owner", new Schema<>().addProperty("address", new Schema<>().$ref("#/components/schemas/Address")))
+                .addSchemas("Address", new Schema<>())
+                .addSchemas("Order", new Schema<>().addProperty("item", new Schema<>().$ref("#/components/schemas/Item")))
+                .addSchemas("Item", new Schema<>().addProperty("order", new Schema<>().$ref("#/components/schemas/Order")))
+                .addSchemas("Invoice", new Schema<>().addProperty("total", new Schema<>().$ref("#/components/schemas/Money")))
+                .addSchemas("Money", new Schema<>())
+                .addParameters("UnusedParameter", new Parameter()
+                    .schema(new Schema<>().$ref("#/components/schemas/Invoice")))
+            )
+            .path("/pets", new PathItem()
+                .post(new Operation()
+                    .requestBody(new RequestBody()
+                        .content(new Content()
+                            .addMediaType("*/*", new MediaType()
+                                .schema(new Schema<>().$ref("#/components/schemas/Pet")))
+                        )
+                    )
+                )
+            );
+
+        rule.apply(openAPI, Map.of(), logger);
+
+        assertThat(openAPI)
+            .hasSchemaComponents("Pet", "Owner", "Address")
+            .hasParameterComponents();
+    }
+
+    @Test
+    @DisplayName("Should keep subtypes only reached through a discriminator mapping")
+    public void shouldKeepSubtypesReachedThroughDiscriminatorMappings() {
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components()
+                .addSchemas("Pet", new Schema<>()
+                    .discriminator(new Discriminator()
+                        .propertyName("kind")
+                        .mapping("cat", "#/components/schemas/Cat")
+                        .mapping("dog", "Dog")))
+                .addSchemas("Cat", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Pet")))
+                .addSchemas("Dog", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Pet")))
+                .addSchemas("Unused", new Schema<>().addAllOfItem(new Schema<>().$ref("#/components/schemas/Pet")))
+            )
+            .path("/pets", new PathItem()
+                .get(new Operation()
+                    .addParametersItem(new Parameter()
+                        .schema(new Schema<>().$ref("#/components/schemas/Pet")))));
+
+        rule.apply(openAPI, Map.of(), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Pet", "Cat", "Dog");
+    }
+
+    @Test
+    @DisplayName("Should keep components referenced from component path items")
+    public void shouldKeepComponentsReferencedFromPathItems() {
+        OpenAPI openAPI = new OpenAPI()
+            .components(new Components()
+                .addSchemas("Shared", new Schema<>())
+                .addSchemas("Unused", new Schema<>())
+                .addPathItem("SharedPath", new PathItem()
+                    .get(new Operation()
+                        .addParametersItem(new Parameter()
+                            .schema(new Schema<>().$ref("#/components/schemas/Shared")))))
+            );
+
+        rule.apply(openAPI, Map.of(), logger);
+
+        assertThat(openAPI).hasSchemaComponents("Shared");
+    }
+
     @Test
     @DisplayName("Should run without error for spec with null components")
     public void shouldHandleNullComponentsGracefully() {
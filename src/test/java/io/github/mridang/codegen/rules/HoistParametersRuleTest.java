@@ -0,0 +1,91 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HoistParametersRuleTest extends BaseRuleTest<HoistParametersRule> {
+
+    private static Parameter limit() {
+        return new Parameter().name("limit").in("query").schema(new IntegerSchema());
+    }
+
+    private static Parameter tenant() {
+        return new Parameter().name("X-Tenant").in("header").required(true).schema(new StringSchema());
+    }
+
+    private static List<String> refs(List<Parameter> parameters) {
+        return parameters.stream().map(Parameter::get$ref).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should replace identical inline parameters with references to one component")
+    void shouldHoistDuplicateParameters() {
+        Operation listOrders = new Operation().addParametersItem(limit()).addParametersItem(tenant());
+        Operation listUsers = new Operation().addParametersItem(tenant()).addParametersItem(limit());
+        Operation getUser = new Operation().addParametersItem(new Parameter().name("id").in("path")
+            .required(true).schema(new StringSchema()));
+        OpenAPI openAPI = new OpenAPI()
+            .path("/orders", new PathItem().get(listOrders))
+            .path("/users", new PathItem().get(listUsers))
+            .path("/users/{id}", new PathItem().get(getUser).addParametersItem(tenant()));
+
+        rule.apply(openAPI, Map.of(HoistParametersRule.RULE_VALUE_KEY, "true"), logger);
+
+        assertThat(openAPI).hasParameterComponents("limit", "X-Tenant");
+        assertEquals(List.of("#/components/parameters/limit", "#/components/parameters/X-Tenant"),
+            refs(listOrders.getParameters()));
+        assertEquals(List.of("#/components/parameters/X-Tenant", "#/components/parameters/limit"),
+            refs(listUsers.getParameters()));
+        assertNull(getUser.getParameters().get(0).get$ref());
+    }
+
+    @Test
+    @DisplayName("Should reuse identical components and avoid clashing names")
+    void shouldReuseAndRenameComponents() {
+        Operation first = new Operation().addParametersItem(limit())
+            .addParametersItem(new Parameter().name("limit").in("header").schema(new IntegerSchema()));
+        Operation second = new Operation().addParametersItem(limit())
+            .addParametersItem(new Parameter().name("limit").in("header").schema(new IntegerSchema()));
+        OpenAPI openAPI = new OpenAPI()
+            .path("/a", new PathItem().get(first))
+            .path("/b", new PathItem().get(second))
+            .components(new Components().addParameters("Limit", limit()));
+
+        rule.apply(openAPI, Map.of(HoistParametersRule.RULE_VALUE_KEY, "2"), logger);
+
+        assertThat(openAPI).hasParameterComponents("Limit", "limit");
+        assertEquals(List.of("#/components/parameters/Limit", "#/components/parameters/limit"),
+            refs(first.getParameters()));
+        assertEquals(refs(first.getParameters()), refs(second.getParameters()));
+    }
+
+    @Test
+    @DisplayName("Should keep parameters with fewer copies than the configured minimum")
+    void shouldRespectMinimumCopies() {
+        Operation first = new Operation().addParametersItem(limit());
+        Operation second = new Operation().addParametersItem(limit());
+        OpenAPI openAPI = new OpenAPI()
+            .path("/a", new PathItem().get(first))
+            .path("/b", new PathItem().get(second));
+
+        rule.apply(openAPI, Map.of(HoistParametersRule.RULE_VALUE_KEY, "3"), logger);
+
+        assertNull(first.getParameters().get(0).get$ref());
+        assertNull(second.getParameters().get(0).get$ref());
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.mridang.codegen.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.github.mridang.codegen.rules.MediaTypePolicy.Direction.REQUEST;
+import static io.github.mridang.codegen.rules.MediaTypePolicy.Direction.RESPONSE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MediaTypePolicy Tests")
+class MediaTypePolicyTest {
+
+    @Test
+    @DisplayName("Should match exact types, subtype wildcards and structured syntax suffixes")
+    void shouldMatchRanges() {
+        MediaTypePolicy policy = MediaTypePolicy.compile("application/json, text/*  application/*+json");
+
+        assertTrue(policy.allows(REQUEST, "application/json"));
+        assertTrue(policy.allows(REQUEST, "Application/JSON; charset=utf-8"));
+        assertTrue(policy.allows(RESPONSE, "text/plain"));
+        assertTrue(policy.allows(RESPONSE, "application/vnd.api+json"));
+        assertFalse(policy.allows(RESPONSE, "application/xml"));
+        assertFalse(policy.allows(RESPONSE, "application/problem+xml"));
+        assertFalse(policy.allows(REQUEST, "image/vnd.custom+json"));
+        assertFalse(policy.allows(REQUEST, "*/*"));
+    }
+
+    @Test
+    @DisplayName("Should apply directional ranges to one direction only")
+    void shouldApplyDirectionalRanges() {
+        MediaTypePolicy policy = MediaTypePolicy.compile(
+            "*/*+json request:multipart/form-data response:text/event-stream");
+
+        assertTrue(policy.allows(REQUEST, "image/vnd.custom+json"));
+        assertTrue(policy.allows(REQUEST, "multipart/form-data"));
+        assertFalse(policy.allows(RESPONSE, "multipart/form-data"));
+        assertTrue(policy.allows(RESPONSE, "text/event-stream"));
+        assertFalse(policy.allows(REQUEST, "text/event-stream"));
+        assertTrue(MediaTypePolicy.compile("response:*/*").allows(RESPONSE, "anything/at-all"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed media ranges and empty policies")
+    void shouldRejectInvalidPolicies() {
+        assertThrows(IllegalArgumentException.class, () -> MediaTypePolicy.compile("json"));
+        assertThrows(IllegalArgumentException.class, () -> MediaTypePolicy.compile("application/js*n"));
+        assertThrows(IllegalArgumentException.class, () -> MediaTypePolicy.compile("*/json"));
+        assertThrows(IllegalArgumentException.class, () -> MediaTypePolicy.compile(" , "));
+    }
+}
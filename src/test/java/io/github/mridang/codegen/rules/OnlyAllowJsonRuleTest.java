@@ -1,5 +1,6 @@
 package io.github.mridang.codegen.rules;
 
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -12,12 +13,25 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
 import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class OnlyAllowJsonRuleTest extends BaseRuleTest<OnlyAllowJsonRule> {
 
+    @Test
+    @DisplayName("Should walk paths sequentially, as content maps may be shared between them")
+    void shouldNotSupportParallelTraversal() {
+        OpenAPI openAPI = new OpenAPI().path("/test", new PathItem());
+
+        assertFalse(rule.createVisitor(openAPI, Map.of(), logger).supportsParallelTraversal());
+    }
+
     @Test
     @DisplayName("Should remove non-JSON content types from RequestBody")
     void shouldRemoveNonJsonFromRequestBody() {
@@ -33,6 +47,21 @@ class OnlyAllowJsonRuleTest extends BaseRuleTest<OnlyAllowJsonRule> {
             .hasRequestBody(body -> body.hasContentTypes("application/json"));
     }
 
+    @Test
+    @DisplayName("Should only allow JSON when the rule is set to false, as it did before accepting a policy")
+    void shouldOnlyAllowJsonForBooleanValues() {
+        OpenAPI openAPI = new OpenAPI().path("/test", new PathItem().post(new Operation()
+            .requestBody(new RequestBody().content(new Content()
+                .addMediaType("application/json", new MediaType())
+                .addMediaType("application/xml", new MediaType())))));
+
+        rule.apply(openAPI, Map.of(OnlyAllowJsonRule.RULE_VALUE_KEY, "false"), logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(body -> body.hasContentTypes("application/json"));
+    }
+
     @Test
     @DisplayName("Should remove RequestBody if it becomes empty after filtering")
     void shouldRemoveRequestBodyIfEmpty() {
@@ -64,4 +93,61 @@ class OnlyAllowJsonRuleTest extends BaseRuleTest<OnlyAllowJsonRule> {
                 .code("200", response -> response.hasContentTypes("application/json"))
             );
     }
+
+    @Test
+    @DisplayName("Should apply the policy to components and drop references to emptied request bodies")
+    void shouldFilterComponents() {
+        Operation upload = new Operation()
+            .requestBody(new RequestBody().$ref("#/components/requestBodies/Upload"));
+        Operation update = new Operation()
+            .requestBody(new RequestBody().$ref("#/components/requestBodies/Patch"));
+        OpenAPI openAPI = new OpenAPI()
+            .path("/upload", new PathItem().post(upload))
+            .path("/update", new PathItem().patch(update))
+            .components(new Components()
+                .addRequestBodies("Upload", new RequestBody().content(new Content()
+                    .addMediaType("application/xml", new MediaType())))
+                .addRequestBodies("Patch", new RequestBody().content(new Content()
+                    .addMediaType("application/merge-patch+json", new MediaType())
+                    .addMediaType("application/x-www-form-urlencoded", new MediaType())))
+                .addResponses("Error", new ApiResponse().content(new Content()
+                    .addMediaType("application/problem+json", new MediaType())
+                    .addMediaType("application/problem+xml", new MediaType()))));
+
+        rule.apply(openAPI, Map.of(OnlyAllowJsonRule.RULE_VALUE_KEY, "application/json application/*+json"), logger);
+
+        assertNull(upload.getRequestBody());
+        assertEquals("#/components/requestBodies/Patch", update.getRequestBody().get$ref());
+        Components components = openAPI.getComponents();
+        assertEquals(Set.of("application/merge-patch+json"),
+            components.getRequestBodies().values().stream()
+                .flatMap(body -> body.getContent().keySet().stream())
+                .collect(Collectors.toSet()));
+        assertEquals(Set.of("application/problem+json"),
+            components.getResponses().values().iterator().next().getContent().keySet());
+    }
+
+    @Test
+    @DisplayName("Should apply directional ranges only to requests or responses")
+    void shouldApplyDirectionalPolicy() {
+        OpenAPI openAPI = new OpenAPI().path("/test", new PathItem().post(new Operation()
+            .requestBody(new RequestBody().content(new Content()
+                .addMediaType("application/json", new MediaType())
+                .addMediaType("multipart/form-data", new MediaType())
+                .addMediaType("text/event-stream", new MediaType())))
+            .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                .content(new Content()
+                    .addMediaType("multipart/form-data", new MediaType())
+                    .addMediaType("text/event-stream", new MediaType()))))));
+
+        rule.apply(openAPI, Map.of(OnlyAllowJsonRule.RULE_VALUE_KEY,
+            "application/json, request:multipart/form-data, response:text/event-stream"), logger);
+
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(body -> body.hasContentTypes("application/json", "multipart/form-data"))
+            .hasResponses(responses -> responses
+                .code("200", response -> response.hasContentTypes("text/event-stream"))
+            );
+    }
 }
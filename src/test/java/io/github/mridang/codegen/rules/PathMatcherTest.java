@@ -0,0 +1,65 @@
+package io.github.mridang.codegen.rules;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PathMatcher Tests")
+class PathMatcherTest {
+
+    private static final List<String> PATHS = List.of(
+        "/v2/orders", "/v2/orders/{id}", "/v2/order", "/v1/orders", "/internal/status", "/api/internal/",
+        "/api/v1/users", "/api/v2/users/{id}", "/files/a.b", "/files/ab", "/Admin/x", "/admin/x",
+        "/echo/foo/foo", "/echo/foo/bar", "/", ""
+    );
+
+    private static boolean findAny(List<String> regexes, String path) {
+        for (String regex : regexes) {
+            if (Pattern.compile(regex).matcher(path).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("Should match exactly the paths that any pattern finds")
+    void shouldMatchLikeFind() {
+        List<List<String>> patternSets = List.of(
+            List.of("^/v2/orders"),
+            List.of("^/v2/orders.*", "/internal/"),
+            List.of("/api/v1/.*", ".*/users.*", "/internal/status"),
+            List.of("^/files/a\\.b", "^/files/a.b$"),
+            List.of("(?i)^/admin", "^/v1/"),
+            List.of("^/echo/(\\w+)/\\1$", "/users/\\{id\\}"),
+            List.of("(?<seg>v\\d)/orders", "(?<seg>v\\d)/users"),
+            List.of("^", "x"),
+            List.of("\\Q/v2/\\E", "^/api")
+        );
+
+        for (List<String> patterns : patternSets) {
+            PathMatcher matcher = new PathMatcher(patterns);
+            for (String path : PATHS) {
+                assertEquals(findAny(patterns, path), matcher.match(path) != PathMatcher.Match.NONE,
+                    () -> "Patterns " + patterns + " on path '" + path + "'");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should decide literal patterns without a regex scan")
+    void shouldUseFastPaths() {
+        PathMatcher matcher = new PathMatcher(List.of("^/v2/orders", "^/v2/users.*", "/internal/", "/api/v[0-9]+/"));
+
+        assertEquals(PathMatcher.Match.PREFIX, matcher.match("/v2/orders/{id}"));
+        assertEquals(PathMatcher.Match.PREFIX, matcher.match("/v2/users"));
+        assertEquals(PathMatcher.Match.LITERAL, matcher.match("/api/internal/status"));
+        assertEquals(PathMatcher.Match.REGEX, matcher.match("/api/v3/things"));
+        assertEquals(PathMatcher.Match.NONE, matcher.match("/v1/orders"));
+        assertEquals("2 prefix, 1 literal and 1 regex patterns in 1 regex scans", matcher.toString());
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.mridang.codegen.rules;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.*;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ReferenceWalker Tests")
+class ReferenceWalkerTest {
+
+    private static Schema<?> ref(String name) {
+        return new Schema<>().$ref("#/components/schemas/" + name);
+    }
+
+    private static OpenAPI createSpec(boolean cyclic) {
+        Schema<Object> node = new ObjectSchema();
+        if (cyclic) {
+            node.addProperty("self", node);
+        }
+        node.addProperty("child", ref("Child"));
+        node.setAdditionalProperties(ref("Extra"));
+        node.addExtension("x-link", Map.of("$ref", "#/components/schemas/FromExtension"));
+
+        Schema<Object> composed = new ComposedSchema();
+        composed.setAllOf(List.of(ref("AllOf")));
+        composed.setOneOf(List.of(ref("OneOf")));
+        composed.setAnyOf(List.of(new ArraySchema().items(ref("AnyOfItem"))));
+        composed.setNot(ref("Not"));
+
+        Callback callback = new Callback();
+        callback.addPathItem("{$request.body#/url}", new PathItem().post(new Operation()
+            .requestBody(new RequestBody().$ref("#/components/requestBodies/CallbackBody"))
+            .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")))));
+
+        Operation operation = new Operation()
+            .addParametersItem(new Parameter().$ref("#/components/parameters/Limit"))
+            .addParametersItem(new Parameter().name("q").in("query").schema(ref("Query"))
+                .examples(Map.of("one", new Example().$ref("#/components/examples/Query"))))
+            .requestBody(new RequestBody().content(new Content().addMediaType("application/json",
+                new MediaType().schema(composed))))
+            .responses(new ApiResponses()
+                .addApiResponse("200", new ApiResponse().description("ok")
+                    .addHeaderObject("X-Rate", new Header().$ref("#/components/headers/Rate"))
+                    .link("next", new Link().$ref("#/components/links/Next"))
+                    .content(new Content().addMediaType("application/json", new MediaType().schema(node))))
+                .addApiResponse("404", new ApiResponse().$ref("#/components/responses/NotFound")));
+        operation.setCallbacks(Map.of("onEvent", callback));
+
+        return new OpenAPI()
+            .path("/nodes", new PathItem().get(operation))
+            .path("/shared", new PathItem().$ref("#/components/pathItems/Shared"))
+            .components(new Components()
+                .addSchemas("Child", new StringSchema())
+                .addSchemas("Unused", new ObjectSchema().addProperty("loop", ref("Unused")))
+                .addHeaders("Rate", new Header().schema(ref("RateValue")))
+                .addLinks("Next", new Link().requestBody(Map.of("$ref", "#/components/schemas/LinkBody")))
+                .addCallbacks("Stored", new Callback().$ref("#/components/callbacks/Other")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectFromTree(Object node, Set<String> refs) {
+        if (node instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet()) {
+                if ("$ref".equals(entry.getKey()) && entry.getValue() instanceof String) {
+                    refs.add((String) entry.getValue());
+                } else {
+                    collectFromTree(entry.getValue(), refs);
+                }
+            }
+        } else if (node instanceof List) {
+            ((List<Object>) node).forEach(item -> collectFromTree(item, refs));
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the same references as searching the serialized tree")
+    void shouldMatchSerializedTree() {
+        // A schema that contains itself cannot be serialized, so compare without it.
+        OpenAPI acyclic = createSpec(false);
+
+        Set<String> expected = new HashSet<>();
+        collectFromTree(Json.mapper().convertValue(acyclic, Map.class), expected);
+
+        assertEquals(expected, ReferenceWalker.collectReferences(acyclic));
+        assertEquals(expected, ReferenceWalker.collectReferences(createSpec(true)));
+        assertEquals(Set.of(
+            "#/components/schemas/Child",
+            "#/components/schemas/Extra",
+            "#/components/schemas/FromExtension",
+            "#/components/schemas/AllOf",
+            "#/components/schemas/OneOf",
+            "#/components/schemas/AnyOfItem",
+            "#/components/schemas/Not",
+            "#/components/schemas/Query",
+            "#/components/schemas/Unused",
+            "#/components/schemas/RateValue",
+            "#/components/schemas/LinkBody",
+            "#/components/parameters/Limit",
+            "#/components/examples/Query",
+            "#/components/requestBodies/CallbackBody",
+            "#/components/headers/Rate",
+            "#/components/links/Next",
+            "#/components/responses/NotFound",
+            "#/components/pathItems/Shared",
+            "#/components/callbacks/Other"
+        ), expected);
+    }
+
+    @Test
+    @DisplayName("Should find references inside Jackson nodes, as parsed examples and extensions are")
+    void shouldSearchJsonNodes() throws JsonProcessingException {
+        Example example = new Example().value(Json.mapper().readTree(
+            "{\"items\": [{\"$ref\": \"#/components/schemas/FromExample\"}]}"));
+        Schema<Object> node = new ObjectSchema();
+        node.addExtension("x-link", Json.mapper().readTree(
+            "{\"target\": {\"$ref\": \"#/components/schemas/FromExtension\"}}"));
+        OpenAPI openAPI = new OpenAPI()
+            .path("/nodes", new PathItem().get(new Operation()
+                .addParametersItem(new Parameter().name("q").in("query").examples(Map.of("one", example)))))
+            .components(new Components().addSchemas("Node", node));
+
+        assertEquals(Set.of("#/components/schemas/FromExample", "#/components/schemas/FromExtension"),
+            ReferenceWalker.collectReferences(openAPI));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.event.EventRecodingLogger;
+import org.slf4j.event.Level;
+import org.slf4j.event.SubstituteLoggingEvent;
+import org.slf4j.helpers.SubstituteLogger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("RuleReport Tests")
+class RuleReportTest {
+
+    private static List<SubstituteLoggingEvent> eventsAt(Queue<SubstituteLoggingEvent> events, Level level) {
+        return events.stream().filter(event -> event.getLevel() == level).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should log one summary with a bounded, sorted sample in summary mode")
+    void shouldSummarizeChanges() {
+        Queue<SubstituteLoggingEvent> events = new ConcurrentLinkedQueue<>();
+        Logger recorder = new EventRecodingLogger(new SubstituteLogger("test", events, false), events);
+        RuleReport report = new RuleReport("TEST", true);
+
+        for (String path : List.of("/g", "/f", "/e", "/d", "/c", "/b", "/a")) {
+            report.record(recorder, Level.INFO, "paths removed", path, "Removing path '{}'", path);
+        }
+        report.publish(recorder);
+
+        assertEquals(7, report.getCount("paths removed"));
+        assertEquals(7, eventsAt(events, Level.DEBUG).size());
+        List<SubstituteLoggingEvent> summaries = eventsAt(events, Level.INFO);
+        assertEquals(1, summaries.size());
+        assertEquals("TEST", summaries.get(0).getArgumentArray()[0]);
+        assertEquals("paths removed=7 (e.g. /a, /b, /c, /d, /e)", summaries.get(0).getArgumentArray()[1].toString());
+    }
+
+    @Test
+    @DisplayName("Should report filtered paths through a single summary line")
+    void shouldSummarizeFilteredPaths() {
+        Queue<SubstituteLoggingEvent> events = new ConcurrentLinkedQueue<>();
+        Logger recorder = new EventRecodingLogger(new SubstituteLogger("test", events, false), events);
+        OpenAPI openAPI = new OpenAPI()
+            .path("/api/v1/users", new PathItem())
+            .path("/internal/status", new PathItem())
+            .path("/internal/health", new PathItem());
+
+        new FilterPathsRule().apply(openAPI, Map.of(
+            CustomNormalizationRule.RULE_VALUE_KEY, "/api/.*",
+            CustomNormalizationRule.RULE_SUMMARY_KEY, "true"
+        ), recorder);
+
+        List<String> infoMessages = eventsAt(events, Level.INFO).stream()
+            .map(SubstituteLoggingEvent::getMessage)
+            .collect(Collectors.toList());
+        assertEquals(List.of(
+            "Starting FILTER_PATHS rule. Patterns: {}",
+            "{} summary: {}",
+            "FILTER_PATHS rule completed."
+        ), infoMessages);
+    }
+}
@@ -1,7 +1,20 @@
 package io.github.mridang.codegen.rules;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -9,10 +22,20 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
 import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for {@link ScriptableRule}, verifying that a JS module
@@ -67,4 +90,187 @@ public class ScriptableRuleTest extends BaseRuleTest<ScriptableRule> {
 
         assertThat(openAPI).hasPaths("/foo/a", "/foo/b");
     }
+
+    @Test
+    @DisplayName("Should reuse pooled contexts and reload a script once it changed")
+    void reloadsChangedScripts() throws Exception {
+        Path scriptFile = Files.createTempFile("tag-rule", ".mjs");
+        Files.writeString(scriptFile,
+            "export function apply(openAPI, ruleConfig, logger) {\n" +
+                "  openAPI.getPaths().put('/first', new PathItem());\n" +
+                "}\n");
+        Map<String, String> config = Map.of("value", scriptFile.toString());
+
+        OpenAPI first = new OpenAPI().path("/a", new PathItem());
+        rule.apply(first, config, logger);
+        OpenAPI second = new OpenAPI().path("/a", new PathItem());
+        rule.apply(second, config, logger);
+
+        assertThat(first).hasPaths("/a", "/first");
+        assertThat(second).hasPaths("/a", "/first");
+
+        Files.writeString(scriptFile,
+            "export function apply(openAPI, ruleConfig, logger) {\n" +
+                "  openAPI.getPaths().put('/second', new PathItem());\n" +
+                "}\n");
+        Files.setLastModifiedTime(scriptFile,
+            FileTime.fromMillis(Files.getLastModifiedTime(scriptFile).toMillis() + 1000));
+
+        OpenAPI third = new OpenAPI().path("/a", new PathItem());
+        rule.apply(third, config, logger);
+
+        assertThat(third).hasPaths("/a", "/second");
+    }
+
+    @Test
+    @DisplayName("Should fail runaway scripts once they exceed a limit, and recover afterwards")
+    void failsScriptsExceedingLimits() throws Exception {
+        Path scriptFile = Files.createTempFile("runaway-rule", ".mjs");
+        Files.writeString(scriptFile,
+            "export function apply(openAPI, ruleConfig, logger) {\n" +
+                "  while (openAPI.getPaths().size() > 0) {}\n" +
+                "}\n");
+        OpenAPI looping = new OpenAPI().path("/a", new PathItem());
+
+        IllegalStateException timeout = assertThrows(IllegalStateException.class, () -> rule.apply(looping,
+            Map.of("value", scriptFile.toString(), ScriptLimits.TIMEOUT_KEY, "1"), logger));
+        assertTrue(String.valueOf(timeout.getMessage()).contains("timeout"), timeout.getMessage());
+
+        IllegalStateException statements = assertThrows(IllegalStateException.class, () -> rule.apply(looping,
+            Map.of("value", scriptFile.toString(), ScriptLimits.MAX_STATEMENTS_KEY, "10000"), logger));
+        assertTrue(String.valueOf(statements.getMessage()).contains("10000 statements"), statements.getMessage());
+
+        OpenAPI empty = new OpenAPI().paths(new Paths());
+        rule.apply(empty, Map.of("value", scriptFile.toString(), ScriptLimits.MAX_STATEMENTS_KEY, "10000"), logger);
+        assertThat(empty).hasPaths();
+    }
+
+    @Test
+    @DisplayName("Should reject limits that aren't positive numbers")
+    void rejectsInvalidLimits() {
+        OpenAPI openAPI = new OpenAPI().path("/a", new PathItem());
+        assertThrows(IllegalArgumentException.class, () -> rule.apply(openAPI,
+            Map.of("value", "does-not-matter.mjs", ScriptLimits.TIMEOUT_KEY, "0"), logger));
+    }
+
+    @Test
+    @DisplayName("Should call exported handlers only for the selected nodes")
+    void callsHandlersForSelectedNodes() throws Exception {
+        Path scriptFile = Files.createTempFile("handler-rule", ".mjs");
+        Files.writeString(scriptFile,
+            "export const select = { paths: ['^/orders'], tags: ['orders'] };\n" +
+                "export function onOperation(operation, context) {\n" +
+                "  if (operation.getOperationId() === 'deleteOrder') return false;\n" +
+                "  operation.setSummary(context.getMethod() + ' ' + context.getPath());\n" +
+                "}\n" +
+                "export function onSchema(schema) {\n" +
+                "  schema.setDescription('seen');\n" +
+                "}\n");
+        Schema<?> order = new ObjectSchema();
+        Schema<?> user = new ObjectSchema();
+        Operation listOrders = new Operation().operationId("listOrders").addTagsItem("orders")
+            .responses(new ApiResponses().addApiResponse("200", new ApiResponse().content(new Content()
+                .addMediaType("application/json", new MediaType()
+                    .schema(new Schema<>().$ref("#/components/schemas/Order"))))));
+        Operation listUsers = new Operation().operationId("listUsers").addTagsItem("users");
+        OpenAPI openAPI = new OpenAPI()
+            .path("/orders", new PathItem().get(listOrders)
+                .delete(new Operation().operationId("deleteOrder").addTagsItem("orders"))
+                .post(new Operation().operationId("importOrders").addTagsItem("imports")))
+            .path("/users", new PathItem().get(listUsers))
+            .components(new Components().addSchemas("Order", order).addSchemas("User", user));
+
+        rule.apply(openAPI, Map.of("value", scriptFile.toString()), logger);
+
+        PathItem orders = openAPI.getPaths().values().iterator().next();
+        assertNull(orders.getDelete());
+        assertNull(orders.getPost().getSummary());
+        assertEquals("GET /orders", listOrders.getSummary());
+        assertNull(listUsers.getSummary());
+        assertEquals("seen", order.getDescription());
+        assertNull(user.getDescription());
+    }
+
+    @Test
+    @DisplayName("Should pass the parameters of path items to the parameter handler")
+    void callsParameterHandlerForPathItemParameters() throws Exception {
+        Path scriptFile = Files.createTempFile("handler-rule", ".mjs");
+        Files.writeString(scriptFile,
+            "export function onParameter(parameter, context) {\n" +
+                "  return parameter.getName() !== 'tenant';\n" +
+                "}\n");
+        PathItem orders = new PathItem()
+            .addParametersItem(new Parameter().name("tenant").in("header"))
+            .addParametersItem(new Parameter().name("region").in("header"))
+            .get(new Operation().operationId("listOrders")
+                .addParametersItem(new Parameter().name("tenant").in("query")));
+        OpenAPI openAPI = new OpenAPI().path("/orders", orders);
+
+        rule.apply(openAPI, Map.of("value", scriptFile.toString()), logger);
+
+        assertEquals(List.of("region"),
+            orders.getParameters().stream().map(Parameter::getName).collect(Collectors.toList()));
+        assertThat(openAPI).forOperation(HttpMethod.GET, "/orders").hasParameters();
+    }
+
+    @Test
+    @DisplayName("Should hand the specification to transform as a plain object and read back the result")
+    void transformsPlainObjects() throws Exception {
+        Path scriptFile = Files.createTempFile("transform-rule", ".mjs");
+        Files.writeString(scriptFile,
+            "export function transform(spec, ruleConfig, logger) {\n" +
+                "  for (const [path, item] of Object.entries(spec.paths)) {\n" +
+                "    delete spec.paths[path];\n" +
+                "    spec.paths['/v2' + path] = item;\n" +
+                "  }\n" +
+                "  spec.components.schemas.Order.properties.id.description = 'Order id';\n" +
+                "}\n");
+        OpenAPI openAPI = new OpenAPI()
+            .path("/orders", new PathItem().get(new Operation().operationId("listOrders")))
+            .components(new Components().addSchemas("Order", new ObjectSchema()
+                .addProperty("id", new StringSchema())));
+
+        rule.apply(openAPI, Map.of("value", scriptFile.toString()), logger);
+
+        assertThat(openAPI).hasPaths("/v2/orders");
+        assertEquals("listOrders", openAPI.getPaths().values().iterator().next().getGet().getOperationId());
+        Schema<?> id = (Schema<?>) openAPI.getComponents().getSchemas().values().iterator().next()
+            .getProperties().values().iterator().next();
+        assertEquals("string", id.getType());
+        assertEquals("Order id", id.getDescription());
+    }
+
+    @Test
+    @DisplayName("Should write the time of every function and the host methods called to the profile")
+    void profilesScriptRuns() throws Exception {
+        Path scriptFile = Files.createTempFile("profiled-rule", ".mjs");
+        Path reportFile = Files.createTempFile("profiled-rule", ".json");
+        Files.writeString(scriptFile,
+            "function pause(millis) {\n" +
+                "  Java.type('java.lang.Thread').sleep(millis);\n" +
+                "}\n" +
+                "export function apply(openAPI, ruleConfig, logger) {\n" +
+                "  for (let i = 0; i < 3; i++) {\n" +
+                "    pause(20);\n" +
+                "  }\n" +
+                "}\n");
+
+        rule.apply(new OpenAPI(), Map.of("value", scriptFile.toString(),
+            ScriptProfiler.PROFILE_KEY, reportFile.toString()), logger);
+
+        JsonNode report = Json.mapper().readTree(reportFile.toFile());
+        Map<String, JsonNode> functions = new HashMap<>();
+        report.get("functions").forEach(function ->
+            functions.put(function.get("function").asText().replaceAll(" .*", ""), function));
+        JsonNode pause = functions.get("pause");
+        JsonNode apply = functions.get("apply");
+        assertNotNull(pause);
+        assertNotNull(apply);
+        assertEquals(3, pause.get("calls").asLong());
+        assertEquals(1, apply.get("calls").asLong());
+        assertTrue(pause.get("selfNanos").asLong() >= TimeUnit.MILLISECONDS.toNanos(60));
+        assertTrue(apply.get("totalNanos").asLong() >= pause.get("totalNanos").asLong());
+        assertTrue(apply.get("selfNanos").asLong() < pause.get("selfNanos").asLong());
+        assertEquals("java.lang.Thread.sleep", report.get("hostMethods").get(0).get("method").asText());
+    }
 }
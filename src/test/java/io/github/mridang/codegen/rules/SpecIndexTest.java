@@ -0,0 +1,112 @@
+package io.github.mridang.codegen.rules;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SpecIndex Tests")
+class SpecIndexTest {
+
+    private static OpenAPI createSpec() {
+        return new OpenAPI()
+            .path("/pets", new PathItem().get(new Operation()
+                .operationId("listPets")
+                .addParametersItem(new Parameter().$ref("#/components/parameters/Limit"))
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                    .content(new Content().addMediaType("application/json",
+                        new MediaType().schema(new Schema<>().$ref("#/components/schemas/Pet"))))))))
+            .path("/internal/owners", new PathItem().get(new Operation()
+                .operationId("listOwners")
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                    .content(new Content().addMediaType("application/json",
+                        new MediaType().schema(new Schema<>().$ref("#/components/schemas/Owner/properties/name"))))))))
+            .components(new Components()
+                .addSchemas("Pet", new ObjectSchema().addProperty("owner", new Schema<>().$ref("#/components/schemas/Owner")))
+                .addSchemas("Owner", new ObjectSchema().addProperty("name", new Schema<>().type("string")))
+                .addParameters("Limit", new Parameter().name("limit").in("query")));
+    }
+
+    @Test
+    @DisplayName("Should resolve references to components")
+    void shouldResolveReferences() {
+        OpenAPI openAPI = createSpec();
+        SpecIndex index = SpecIndex.build(openAPI);
+
+        assertSame(openAPI.getComponents().getSchemas().get("Pet"), index.resolveSchema("#/components/schemas/Pet"));
+        assertSame(openAPI.getComponents().getParameters().get("Limit"),
+            index.resolveParameter("#/components/parameters/Limit"));
+        assertNull(index.resolveSchema("#/components/parameters/Limit"));
+        assertNull(index.resolveSchema("#/components/schemas/Missing"));
+        assertEquals("Limit", index.getComponentName("#/components/parameters/Limit"));
+        assertEquals("Pet", index.getComponentName("other.yaml#/Pet"));
+    }
+
+    @Test
+    @DisplayName("Should record references in both directions and look up operations")
+    void shouldIndexReferencesAndOperations() {
+        OpenAPI openAPI = createSpec();
+        SpecIndex index = SpecIndex.build(openAPI);
+
+        assertEquals(Set.of("#/components/parameters/Limit", "#/components/schemas/Pet"),
+            index.getReferences("#/paths/~1pets"));
+        assertEquals(Set.of("#/components/schemas/Owner"), index.getReferences("#/components/schemas/Pet"));
+        assertEquals(Set.of("#/components/schemas/Pet", "#/paths/~1internal~1owners"),
+            index.getReferrers("#/components/schemas/Owner"));
+        assertSame(openAPI.getPaths().values().iterator().next().getGet(), index.getOperation("listPets"));
+        assertNull(index.getOperation("missing"));
+    }
+
+    @Test
+    @DisplayName("Should update the index for paths removed during a traversal")
+    void shouldUpdateIndexDuringTraversal() {
+        OpenAPI openAPI = createSpec();
+        SpecIndex index = SpecIndex.build(openAPI);
+
+        new FilterPathsRule().apply(openAPI, Map.of(CustomNormalizationRule.RULE_VALUE_KEY, "/pets"),
+            NOPLogger.NOP_LOGGER, new RuleMetrics("FILTER_PATHS"), index);
+
+        assertEquals(Set.of("#/components/schemas/Pet"), index.getReferrers("#/components/schemas/Owner"));
+        assertNull(index.getOperation("listOwners"));
+        assertNotNull(index.getOperation("listPets"));
+
+        openAPI.getComponents().getSchemas().remove("Pet");
+        index.removeComponent("#/components/schemas/Pet");
+        assertEquals(Set.of(), index.getReferrers("#/components/schemas/Owner"));
+    }
+
+    @Test
+    @DisplayName("Should only walk a lazy index once it is read, and again after a rebuild")
+    void shouldBuildLazily() {
+        OpenAPI openAPI = createSpec();
+        SpecIndex index = SpecIndex.lazy(openAPI);
+        index.removePath("/pets");
+        openAPI.path("/vets", new PathItem().get(new Operation().operationId("listVets")));
+
+        assertNotNull(index.getOperation("listPets"));
+        assertNotNull(index.getOperation("listVets"));
+
+        index.rebuild();
+        openAPI.getPaths().remove("/pets");
+
+        assertNull(index.getOperation("listPets"));
+        assertEquals(Set.of("#/paths/~1internal~1owners"), index.getReferrers("#/components/schemas/Owner")
+            .stream().filter(location -> location.startsWith("#/paths/")).collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.mridang.codegen.rules;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.EventRecodingLogger;
+import org.slf4j.event.SubstituteLoggingEvent;
+import org.slf4j.helpers.SubstituteLogger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static io.github.mridang.codegen.rules.SpecAssertions.HttpMethod;
+import static io.github.mridang.codegen.rules.SpecAssertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpecTraversalTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpecTraversalTest.class);
+
+    @Test
+    @DisplayName("Should not offer a removed node to the visitors registered after it")
+    void shouldStopDispatchingRemovedNodes() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/keep", new PathItem().get(new Operation()
+                .addParametersItem(new Parameter().name("drop"))
+                .addParametersItem(new Parameter().name("keep"))))
+            .path("/drop", new PathItem().get(new Operation()));
+
+        List<String> seen = new ArrayList<>();
+        new SpecTraversal(logger)
+            .add(new SpecVisitor() {
+                @Override
+                public boolean visitPath(TraversalContext context) {
+                    return !"/drop".equals(context.getPath());
+                }
+
+                @Override
+                public boolean visitParameter(TraversalContext context, Parameter parameter) {
+                    return !"drop".equals(parameter.getName());
+                }
+            })
+            .add(new SpecVisitor() {
+                @Override
+                public boolean visitPath(TraversalContext context) {
+                    seen.add(context.getPath());
+                    return true;
+                }
+
+                @Override
+                public boolean visitParameter(TraversalContext context, Parameter parameter) {
+                    seen.add(parameter.getName());
+                    return true;
+                }
+            })
+            .walk(openAPI);
+
+        assertEquals(List.of("/keep", "keep"), seen);
+        assertThat(openAPI)
+            .hasPaths("/keep")
+            .forOperation(HttpMethod.GET, "/keep")
+            .hasParameters("keep");
+    }
+
+    @Test
+    @DisplayName("Should visit request body media types between the enter and leave callbacks")
+    void shouldVisitRequestBodyInOrder() {
+        OpenAPI openAPI = new OpenAPI()
+            .path("/test", new PathItem().post(new Operation()
+                .requestBody(new RequestBody().content(new Content()
+                    .addMediaType("application/xml", new MediaType())))));
+
+        List<String> seen = new ArrayList<>();
+        new SpecTraversal(logger)
+            .add(new SpecVisitor() {
+                @Override
+                public boolean visitRequestBody(TraversalContext context, RequestBody requestBody) {
+                    seen.add("enter");
+                    return true;
+                }
+
+                @Override
+                public boolean visitMediaType(TraversalContext context, String contentType, MediaType mediaType) {
+                    seen.add(contentType);
+                    return false;
+                }
+
+                @Override
+                public boolean leaveRequestBody(TraversalContext context, RequestBody requestBody) {
+                    seen.add("leave");
+                    return !requestBody.getContent().isEmpty();
+                }
+            })
+            .walk(openAPI);
+
+        assertEquals(List.of("enter", "application/xml", "leave"), seen);
+        assertThat(openAPI)
+            .forOperation(HttpMethod.POST, "/test")
+            .hasRequestBody(SpecAssertions.RequestBodyAsserter::isNull);
+    }
+
+    @Test
+    @DisplayName("Should produce the same specification and log in parallel as sequentially")
+    void shouldMatchSequentialWhenParallel() throws JsonProcessingException {
+        OpenAPI sequential = newSpecWithManyPaths();
+        List<String> sequentialLog = walkWithRules(sequential, 1);
+        OpenAPI parallel = newSpecWithManyPaths();
+        List<String> parallelLog = walkWithRules(parallel, 8);
+
+        assertEquals(Json.mapper().writeValueAsString(sequential), Json.mapper().writeValueAsString(parallel));
+        assertEquals(sequentialLog, parallelLog);
+        assertEquals(32, parallel.getPaths().size());
+    }
+
+    private static OpenAPI newSpecWithManyPaths() {
+        OpenAPI openAPI = new OpenAPI();
+        for (int i = 0; i < 64; i++) {
+            openAPI.path((i % 2 == 0 ? "/api/" : "/internal/") + i, new PathItem().get(new Operation()
+                .operationId("operation" + i)
+                .addParametersItem(new Parameter().name("paramToStrip"))
+                .addParametersItem(new Parameter().name("paramToKeep"))));
+        }
+        return openAPI;
+    }
+
+    private static List<String> walkWithRules(OpenAPI openAPI, int parallelism) {
+        Queue<SubstituteLoggingEvent> events = new ConcurrentLinkedQueue<>();
+        Logger recorder = new EventRecodingLogger(new SubstituteLogger("test", events, false), events);
+        Map<String, String> strip = Map.of(CustomNormalizationRule.RULE_VALUE_KEY, "paramToStrip");
+        Map<String, String> filter = Map.of(CustomNormalizationRule.RULE_VALUE_KEY, "/api/.*");
+
+        new SpecTraversal(recorder, parallelism)
+            .add(new StripParametersRule().createVisitor(openAPI, strip, recorder))
+            .add(new FilterPathsRule().createVisitor(openAPI, filter, recorder))
+            .walk(openAPI);
+
+        return events.stream()
+            .map(event -> event.getMessage() + Arrays.toString(event.getArgumentArray()))
+            .collect(Collectors.toList());
+    }
+}